@@ -1,15 +1,20 @@
 package com.ecommerce.klu;
 
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC is only used by ReactiveProductReader, which manages its own pool; the auto-configured
+// ConnectionFactory and ReactiveTransactionManager would sit beside the JPA ones otherwise.
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class EcommerceBackendSpringbootApplication {
 
 	public static void main(String[] args) {
 		
 		SpringApplication.run(EcommerceBackendSpringbootApplication.class, args);
-		System.out.println("project is running ..... ");
+		LoggerFactory.getLogger(EcommerceBackendSpringbootApplication.class).info("project is running ..... ");
 	}
 
 }
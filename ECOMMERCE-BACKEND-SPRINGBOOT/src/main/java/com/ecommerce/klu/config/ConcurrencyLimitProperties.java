@@ -0,0 +1,62 @@
+package com.ecommerce.klu.config;
+
+import com.ecommerce.klu.web.EndpointClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.EnumMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    private int initialLimit = 40;
+    private int minLimit = 8;
+    private int maxLimit = 400;
+    // Weight of each new window's estimate when smoothing the limit.
+    private double smoothing = 0.2;
+    private long windowMillis = 250;
+    private int minWindowSamples = 20;
+    // Share of the current limit each endpoint class may occupy; lower-priority traffic is
+    // shed first as the in-flight count approaches the limit.
+    private Map<EndpointClass, Double> share = defaultShares();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getInitialLimit() { return initialLimit; }
+    public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+
+    public int getMinLimit() { return minLimit; }
+    public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+
+    public int getMaxLimit() { return maxLimit; }
+    public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+
+    public double getSmoothing() { return smoothing; }
+    public void setSmoothing(double smoothing) { this.smoothing = smoothing; }
+
+    public long getWindowMillis() { return windowMillis; }
+    public void setWindowMillis(long windowMillis) { this.windowMillis = windowMillis; }
+
+    public int getMinWindowSamples() { return minWindowSamples; }
+    public void setMinWindowSamples(int minWindowSamples) { this.minWindowSamples = minWindowSamples; }
+
+    public Map<EndpointClass, Double> getShare() { return share; }
+    public void setShare(Map<EndpointClass, Double> share) { this.share = share; }
+
+    public double shareFor(EndpointClass endpointClass) {
+        Double value = share.get(endpointClass);
+        return value != null ? value : 1.0;
+    }
+
+    private static Map<EndpointClass, Double> defaultShares() {
+        Map<EndpointClass, Double> share = new EnumMap<>(EndpointClass.class);
+        share.put(EndpointClass.CHECKOUT, 1.0);
+        share.put(EndpointClass.AUTH, 0.9);
+        share.put(EndpointClass.DEFAULT, 0.9);
+        share.put(EndpointClass.CATALOG, 0.75);
+        share.put(EndpointClass.SEARCH, 0.7);
+        share.put(EndpointClass.ADMIN, 0.5);
+        return share;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.klu.config;
+
+import com.ecommerce.klu.web.EndpointClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.EnumMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // Requests from one IP may use this many times the per-user limit, since many users can
+    // share an address behind NAT.
+    private int ipMultiplier = 4;
+    private boolean trustForwardedFor = false;
+    private int maxBuckets = 200_000;
+    private Map<EndpointClass, Limit> limits = defaultLimits();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getIpMultiplier() { return ipMultiplier; }
+    public void setIpMultiplier(int ipMultiplier) { this.ipMultiplier = ipMultiplier; }
+
+    public boolean isTrustForwardedFor() { return trustForwardedFor; }
+    public void setTrustForwardedFor(boolean trustForwardedFor) { this.trustForwardedFor = trustForwardedFor; }
+
+    public int getMaxBuckets() { return maxBuckets; }
+    public void setMaxBuckets(int maxBuckets) { this.maxBuckets = maxBuckets; }
+
+    public Map<EndpointClass, Limit> getLimits() { return limits; }
+    public void setLimits(Map<EndpointClass, Limit> limits) { this.limits = limits; }
+
+    public Limit limitFor(EndpointClass endpointClass) {
+        Limit limit = limits.get(endpointClass);
+        return limit != null ? limit : limits.get(EndpointClass.DEFAULT);
+    }
+
+    private static Map<EndpointClass, Limit> defaultLimits() {
+        Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+        limits.put(EndpointClass.CHECKOUT, new Limit(20, 5));
+        limits.put(EndpointClass.AUTH, new Limit(10, 0.2));
+        limits.put(EndpointClass.SEARCH, new Limit(30, 10));
+        limits.put(EndpointClass.CATALOG, new Limit(100, 50));
+        limits.put(EndpointClass.ADMIN, new Limit(20, 2));
+        limits.put(EndpointClass.DEFAULT, new Limit(60, 20));
+        return limits;
+    }
+
+    public static class Limit {
+        private long capacity;
+        private double refillPerSecond;
+
+        public Limit() {}
+
+        public Limit(long capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public long getCapacity() { return capacity; }
+        public void setCapacity(long capacity) { this.capacity = capacity; }
+
+        public double getRefillPerSecond() { return refillPerSecond; }
+        public void setRefillPerSecond(double refillPerSecond) { this.refillPerSecond = refillPerSecond; }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.klu.config;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+public class ReplicaLagMonitor {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.datasource.routing.lag-check-interval-ms:5000}")
+    public void checkReplicas() {
+        routingDataSource.refreshReplicaHealth();
+    }
+}
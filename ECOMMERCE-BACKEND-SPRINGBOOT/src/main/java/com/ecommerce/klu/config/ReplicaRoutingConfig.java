@@ -0,0 +1,69 @@
+package com.ecommerce.klu.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured DataSource when app.datasource.routing.enabled=true so that
+ * {@code @Transactional(readOnly = true)} service methods run against the configured replicas.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({DataSourceProperties.class, ReplicaRoutingProperties.class})
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties primaryProperties,
+                                                             ReplicaRoutingProperties routing) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaRoutingProperties.Replica> configured = routing.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaRoutingProperties.Replica replica = configured.get(i);
+            String name = "replica-" + i;
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(primaryProperties.determineDriverClassName())
+                    .url(replica.getUrl())
+                    .username(replica.getUsername() != null ? replica.getUsername() : primaryProperties.determineUsername())
+                    .password(replica.getPassword() != null ? replica.getPassword() : primaryProperties.determinePassword())
+                    .build();
+            dataSource.setPoolName(name);
+            dataSource.setReadOnly(true);
+            replicas.put(name, dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                routing.getLagQuery(), routing.getMaxLagSeconds());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.klu.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the primary.
+ * Replicas whose replication lag exceeds the configured maximum (or that cannot be reached)
+ * are taken out of rotation until the next health check sees them caught up again.
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the physical connection is only
+ * fetched once the transaction's read-only flag has been bound.
+ */
+public final class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final Map<String, DataSource> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> healthyReplicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    String lagQuery, long maxLagSeconds) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.healthyReplicas = List.copyOf(replicas.keySet());
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        int index = Math.floorMod(nextReplica.getAndIncrement(), healthy.size());
+        return healthy.get(index);
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    public void refreshReplicaHealth() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            Long lag = measureLagSeconds(replica.getKey(), replica.getValue());
+            if (lag != null && lag <= maxLagSeconds) {
+                healthy.add(replica.getKey());
+            } else {
+                log.warn("Replica {} out of rotation, lag={}s (max {}s)", replica.getKey(), lag, maxLagSeconds);
+            }
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    public void close() {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica pool: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Long measureLagSeconds(String name, DataSource dataSource) {
+        boolean showStatus = lagQuery == null || lagQuery.isBlank();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(showStatus ? "SHOW REPLICA STATUS" : lagQuery)) {
+            if (!rs.next()) {
+                // Not configured as a replica at all, so there is nothing to lag behind.
+                return showStatus ? 0L : null;
+            }
+            Object value = showStatus ? rs.getObject(secondsBehindColumn(rs.getMetaData())) : rs.getObject(1);
+            return value == null ? null : ((Number) value).longValue();
+        } catch (SQLException | ClassCastException e) {
+            log.warn("Replica {} lag check failed: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private static int secondsBehindColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String column = metaData.getColumnLabel(i);
+            if ("Seconds_Behind_Source".equalsIgnoreCase(column) || "Seconds_Behind_Master".equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        throw new SQLException("Replica status has no Seconds_Behind_Source column");
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.klu.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled = false;
+    private long maxLagSeconds = 5;
+    private long lagCheckIntervalMs = 5000;
+    // Query returning replication lag in seconds as its first column. When empty the
+    // MySQL "SHOW REPLICA STATUS" output is used.
+    private String lagQuery = "";
+    private List<Replica> replicas = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getMaxLagSeconds() { return maxLagSeconds; }
+    public void setMaxLagSeconds(long maxLagSeconds) { this.maxLagSeconds = maxLagSeconds; }
+
+    public long getLagCheckIntervalMs() { return lagCheckIntervalMs; }
+    public void setLagCheckIntervalMs(long lagCheckIntervalMs) { this.lagCheckIntervalMs = lagCheckIntervalMs; }
+
+    public String getLagQuery() { return lagQuery; }
+    public void setLagQuery(String lagQuery) { this.lagQuery = lagQuery; }
+
+    public List<Replica> getReplicas() { return replicas; }
+    public void setReplicas(List<Replica> replicas) { this.replicas = replicas; }
+
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.klu.config;
+
+import com.ecommerce.klu.web.EndpointClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.EnumMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.request-logging")
+public class RequestLoggingProperties {
+
+    private boolean enabled = true;
+    private long slowRequestMillis = 1000;
+    // Log one in every N completed requests per endpoint class. Slow and failed requests are
+    // always logged.
+    private Map<EndpointClass, Integer> sampleRate = defaultSampleRates();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getSlowRequestMillis() { return slowRequestMillis; }
+    public void setSlowRequestMillis(long slowRequestMillis) { this.slowRequestMillis = slowRequestMillis; }
+
+    public Map<EndpointClass, Integer> getSampleRate() { return sampleRate; }
+    public void setSampleRate(Map<EndpointClass, Integer> sampleRate) { this.sampleRate = sampleRate; }
+
+    public int sampleRateFor(EndpointClass endpointClass) {
+        Integer rate = sampleRate.get(endpointClass);
+        return rate != null ? rate : 1;
+    }
+
+    private static Map<EndpointClass, Integer> defaultSampleRates() {
+        Map<EndpointClass, Integer> rates = new EnumMap<>(EndpointClass.class);
+        rates.put(EndpointClass.CHECKOUT, 1);
+        rates.put(EndpointClass.AUTH, 1);
+        rates.put(EndpointClass.ADMIN, 1);
+        rates.put(EndpointClass.DEFAULT, 10);
+        rates.put(EndpointClass.SEARCH, 100);
+        rates.put(EndpointClass.CATALOG, 100);
+        return rates;
+    }
+}
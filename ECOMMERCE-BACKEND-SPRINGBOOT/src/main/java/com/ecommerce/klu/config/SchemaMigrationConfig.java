@@ -0,0 +1,22 @@
+package com.ecommerce.klu.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SchemaMigrationConfig {
+
+    // Conditions are fixed at AOT time, so spring.flyway.enabled can't be turned off at run time
+    // in the image. The image build's training run has no database and skips the migration here.
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${app.schema.migrate-on-start:true}") boolean migrateOnStart) {
+        return flyway -> {
+            if (migrateOnStart) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.klu.config;
+
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+
+@Configuration
+public class TransactionConfig {
+
+    // An exception leaving a @Transactional method that joined an outer transaction would
+    // otherwise mark the whole transaction rollback-only. The group-commit batch rolls a failed
+    // order back to its savepoint and commits the rest, so the outermost caller decides; an
+    // exception that reaches it still rolls everything back.
+    @Bean
+    public TransactionManagerCustomizer<AbstractPlatformTransactionManager> rollbackDecidedByOutermostCaller() {
+        return transactionManager -> transactionManager.setGlobalRollbackOnParticipationFailure(false);
+    }
+}
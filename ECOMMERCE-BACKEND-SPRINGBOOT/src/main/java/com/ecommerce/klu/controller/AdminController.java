@@ -1,22 +1,30 @@
 package com.ecommerce.klu.controller;
 
+import com.ecommerce.klu.dto.GridPage;
+import com.ecommerce.klu.dto.OrderJournalEntry;
 import com.ecommerce.klu.model.Admin;
 import com.ecommerce.klu.model.User;
 import com.ecommerce.klu.model.Seller;
 import com.ecommerce.klu.model.Product;
 import com.ecommerce.klu.model.Order;
+import com.ecommerce.klu.service.AdminGridService;
 import com.ecommerce.klu.service.AdminService;
+import com.ecommerce.klu.service.FlashSaleStockService;
 import com.ecommerce.klu.service.UserService;
 import com.ecommerce.klu.service.SellerService;
 import com.ecommerce.klu.service.ProductService;
 import com.ecommerce.klu.service.OrderService;
+import com.ecommerce.klu.service.OrderJournalService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -38,6 +46,15 @@ public class AdminController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private AdminGridService adminGridService;
+
+    @Autowired
+    private OrderJournalService orderJournalService;
+
+    @Autowired
+    private FlashSaleStockService flashSaleStockService;
+
     @PostMapping("/register")
     public ResponseEntity<Map<String, Object>> register(@RequestBody Admin admin) {
         Map<String, Object> response = new HashMap<>();
@@ -83,24 +100,95 @@ public class AdminController {
         }
     }
 
+    // Without page the full lists are returned as before; with page the grids return a
+    // GridPage of projections. Any other query parameter is taken as a filter.
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) Integer page,
+                                         @RequestParam(defaultValue = "50") Integer size,
+                                         @RequestParam(required = false) String sort,
+                                         @RequestParam(defaultValue = "desc") String direction,
+                                         @RequestParam Map<String, String> filters) {
+        if (page == null) {
+            return ResponseEntity.ok(userService.getAllUsers());
+        }
+        return grid(() -> adminGridService.users(page, size, sort, direction, filters));
     }
 
     @GetMapping("/sellers")
-    public ResponseEntity<List<Seller>> getAllSellers() {
-        return ResponseEntity.ok(sellerService.getAllSellers());
+    public ResponseEntity<?> getAllSellers(@RequestParam(required = false) Integer page,
+                                           @RequestParam(defaultValue = "50") Integer size,
+                                           @RequestParam(required = false) String sort,
+                                           @RequestParam(defaultValue = "desc") String direction,
+                                           @RequestParam Map<String, String> filters) {
+        if (page == null) {
+            return ResponseEntity.ok(sellerService.getAllSellers());
+        }
+        return grid(() -> adminGridService.sellers(page, size, sort, direction, filters));
     }
 
     @GetMapping("/products")
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) Integer page,
+                                            @RequestParam(defaultValue = "50") Integer size,
+                                            @RequestParam(required = false) String sort,
+                                            @RequestParam(defaultValue = "desc") String direction,
+                                            @RequestParam Map<String, String> filters) {
+        if (page == null) {
+            return ResponseEntity.ok(productService.getAllProducts());
+        }
+        return grid(() -> adminGridService.products(page, size, sort, direction, filters));
     }
 
     @GetMapping("/orders")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<?> getAllOrders(@RequestParam(required = false) Integer page,
+                                          @RequestParam(defaultValue = "50") Integer size,
+                                          @RequestParam(required = false) String sort,
+                                          @RequestParam(defaultValue = "desc") String direction,
+                                          @RequestParam Map<String, String> filters) {
+        if (page == null) {
+            return ResponseEntity.ok(orderService.getAllOrders());
+        }
+        return grid(() -> adminGridService.orders(page, size, sort, direction, filters));
+    }
+
+    // Replays the order journal from an offset (default: the oldest retained entry). Pass the
+    // returned nextOffset back with waitMs > 0 to tail it.
+    @GetMapping("/orders/journal")
+    public ResponseEntity<Map<String, Object>> getOrderJournal(@RequestParam(required = false) Long from,
+                                                               @RequestParam(defaultValue = "100") int limit,
+                                                               @RequestParam(defaultValue = "0") long waitMs) {
+        Map<String, Object> response = new HashMap<>();
+        if (!orderJournalService.isOpen()) {
+            response.put("success", false);
+            response.put("message", "The order journal is not enabled");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        try {
+            long offset = from != null ? from : orderJournalService.firstOffset();
+            List<OrderJournalEntry> entries = orderJournalService.read(offset, limit, Duration.ofMillis(waitMs));
+            response.put("entries", entries);
+            response.put("nextOffset", entries.isEmpty() ? offset : entries.get(entries.size() - 1).getNextOffset());
+            response.put("firstOffset", orderJournalService.firstOffset());
+            response.put("endOffset", orderJournalService.endOffset());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    private ResponseEntity<?> grid(Supplier<GridPage<?>> query) {
+        try {
+            return ResponseEntity.ok(query.get());
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 
     @PostMapping("/create-seller")
@@ -133,6 +221,31 @@ public class AdminController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/products/{id}/flash-sale")
+    public ResponseEntity<Map<String, Object>> startFlashSale(@PathVariable Long id,
+                                                              @RequestParam(required = false) Integer shards) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            int count = flashSaleStockService.enable(id, shards != null ? shards : flashSaleStockService.defaultShards());
+            response.put("success", true);
+            response.put("shards", count);
+            response.put("stockQuantity", flashSaleStockService.currentStock(id));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+
+    @DeleteMapping("/products/{id}/flash-sale")
+    public ResponseEntity<Map<String, Object>> endFlashSale(@PathVariable Long id) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("stockQuantity", flashSaleStockService.disable(id));
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/orders/{id}/status")
     public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id, @RequestParam String status) {
         Order updatedOrder = orderService.updateOrderStatus(id, status);
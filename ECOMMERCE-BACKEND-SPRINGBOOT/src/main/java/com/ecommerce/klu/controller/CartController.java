@@ -5,9 +5,12 @@ import com.ecommerce.klu.model.CartItem;
 import com.ecommerce.klu.model.Product;
 import com.ecommerce.klu.model.User;
 import com.ecommerce.klu.service.CartService;
-import com.ecommerce.klu.service.ProductService;
+import com.ecommerce.klu.service.IdempotencyService;
+import com.ecommerce.klu.service.InsufficientStockException;
+import com.ecommerce.klu.service.ProductCache;
 import com.ecommerce.klu.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -26,7 +29,10 @@ public class CartController {
     private UserService userService;
 
     @Autowired
-    private ProductService productService;
+    private ProductCache productCache;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
 
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<CartItemDTO>> getCartItems(@PathVariable Long userId) {
@@ -62,22 +68,35 @@ public class CartController {
     @PostMapping("/add")
     public ResponseEntity<CartItemDTO> addToCart(@RequestParam Long userId,
                                                  @RequestParam Long productId,
-                                                 @RequestParam Integer quantity) {
-        Optional<User> user = userService.getUserById(userId);
-        Optional<Product> product = productService.getProductById(productId);
+                                                 @RequestParam Integer quantity,
+                                                 @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        String fingerprint = productId + "|" + quantity;
+        return idempotencyService.execute("cart-add:" + userId, idempotencyKey, fingerprint, () -> {
+            Optional<User> user = userService.getUserById(userId);
+            Optional<Product> product = productCache.get(productId);
 
-        if (user.isPresent() && product.isPresent()) {
-            CartItem cartItem = cartService.addToCart(user.get(), product.get(), quantity);
-            CartItemDTO cartItemDTO = convertToDTO(cartItem);
-            return ResponseEntity.ok(cartItemDTO);
-        }
-        return ResponseEntity.badRequest().build();
+            if (user.isPresent() && product.isPresent()) {
+                try {
+                    CartItem cartItem = cartService.addToCart(user.get(), product.get(), quantity);
+                    CartItemDTO cartItemDTO = convertToDTO(cartItem);
+                    return ResponseEntity.ok(cartItemDTO);
+                } catch (InsufficientStockException e) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT).build();
+                }
+            }
+            return ResponseEntity.badRequest().build();
+        });
     }
 
     @PutMapping("/{cartItemId}")
     public ResponseEntity<CartItemDTO> updateCartItem(@PathVariable Long cartItemId,
                                                       @RequestParam Integer quantity) {
-        CartItem updatedCartItem = cartService.updateCartItem(cartItemId, quantity);
+        CartItem updatedCartItem;
+        try {
+            updatedCartItem = cartService.updateCartItem(cartItemId, quantity);
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
         if (updatedCartItem != null) {
             CartItemDTO cartItemDTO = convertToDTO(updatedCartItem);
             return ResponseEntity.ok(cartItemDTO);
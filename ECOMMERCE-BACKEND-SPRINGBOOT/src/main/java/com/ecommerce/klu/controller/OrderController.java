@@ -3,65 +3,139 @@ package com.ecommerce.klu.controller;
 import com.ecommerce.klu.dto.OrderDTO;
 import com.ecommerce.klu.model.Order;
 import com.ecommerce.klu.model.User;
+import com.ecommerce.klu.service.GroupCommitCheckoutService;
+import com.ecommerce.klu.service.IdempotencyService;
+import com.ecommerce.klu.service.InsufficientStockException;
 import com.ecommerce.klu.service.OrderService;
 import com.ecommerce.klu.service.UserService;
+import com.ecommerce.klu.web.FieldSet;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/orders")
 @CrossOrigin(origins = "http://localhost:2030/reactecommerceapi")
 public class OrderController {
 
+    private static final Set<String> ORDER_FIELDS;
+    static {
+        Set<String> fields = new HashSet<>(OrderService.HEADER_FIELDS);
+        fields.add("orderItems");
+        ORDER_FIELDS = Set.copyOf(fields);
+    }
+
+    private static final Set<String> ITEM_FIELDS = Set.of("id", "productId", "productName", "productBrand",
+            "productCategory", "productImageUrl", "productPrice", "price", "quantity", "sellerId",
+            "sellerBusinessName", "sellerFirstName", "sellerLastName");
+
     @Autowired
     private OrderService orderService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private GroupCommitCheckoutService groupCommitCheckoutService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public ResponseEntity<List<OrderDTO>> getAllOrders() {
+    public ResponseEntity<?> getAllOrders(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return sparse(fields, selection -> selection.isWithin(OrderService.HEADER_FIELDS)
+                    ? orderService.getAllOrderHeaders(selection.names())
+                    : selection.filter(objectMapper.valueToTree(orderService.getAllOrdersDTO())));
+        }
         return ResponseEntity.ok(orderService.getAllOrdersDTO());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long id) {
+    public ResponseEntity<?> getOrderById(@PathVariable Long id, @RequestParam(required = false) String fields) {
         Optional<OrderDTO> order = orderService.getOrderByIdDTO(id);
-        return order.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        if (order.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (fields != null) {
+            return sparse(fields, selection -> selection.filter(objectMapper.valueToTree(order.get())));
+        }
+        return ResponseEntity.ok(order.get());
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<OrderDTO>> getOrdersByUser(@PathVariable Long userId) {
+    public ResponseEntity<?> getOrdersByUser(@PathVariable Long userId,
+                                             @RequestParam(required = false) Integer page,
+                                             @RequestParam(defaultValue = "20") Integer size,
+                                             @RequestParam(required = false) String fields) {
         Optional<User> user = userService.getUserById(userId);
         if (user.isPresent()) {
-            return ResponseEntity.ok(orderService.getOrdersByUserDTO(user.get()));
+            List<OrderDTO> orders = page != null
+                    ? orderService.getOrdersByUserDTO(user.get(), Math.max(page, 0), Math.max(size, 1))
+                    : orderService.getOrdersByUserDTO(user.get());
+            if (fields != null) {
+                return sparse(fields, selection -> selection.filter(objectMapper.valueToTree(orders)));
+            }
+            return ResponseEntity.ok(orders);
         }
         return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<OrderDTO>> getOrdersByStatus(@PathVariable String status) {
+    public ResponseEntity<?> getOrdersByStatus(@PathVariable String status, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return sparse(fields, selection -> selection.isWithin(OrderService.HEADER_FIELDS)
+                    ? orderService.getOrderHeadersByStatus(status, selection.names())
+                    : selection.filter(objectMapper.valueToTree(orderService.getOrdersByStatusDTO(status))));
+        }
         return ResponseEntity.ok(orderService.getOrdersByStatusDTO(status));
     }
 
     @GetMapping("/seller/{sellerId}")
-    public ResponseEntity<List<OrderDTO>> getOrdersBySeller(@PathVariable Long sellerId) {
+    public ResponseEntity<?> getOrdersBySeller(@PathVariable Long sellerId, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return sparse(fields, selection -> selection.filter(objectMapper.valueToTree(orderService.getOrdersBySellerDTO(sellerId))));
+        }
         return ResponseEntity.ok(orderService.getOrdersBySellerDTO(sellerId));
     }
 
     @PostMapping
     public ResponseEntity<OrderDTO> createOrder(@RequestParam Long userId,
                                              @RequestParam String shippingAddress,
-                                             @RequestParam String paymentMethod) {
-        Optional<User> user = userService.getUserById(userId);
-        if (user.isPresent()) {
-            OrderDTO order = orderService.createOrderDTO(user.get(), shippingAddress, paymentMethod);
-            return ResponseEntity.ok(order);
-        }
-        return ResponseEntity.badRequest().build();
+                                             @RequestParam String paymentMethod,
+                                             @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        String fingerprint = shippingAddress + "|" + paymentMethod;
+        return idempotencyService.executeAsync("orders:" + userId, idempotencyKey, fingerprint, () -> {
+            Optional<User> user = userService.getUserById(userId);
+            if (user.isEmpty()) {
+                return CompletableFuture.completedFuture(ResponseEntity.<OrderDTO>badRequest().build());
+            }
+            return groupCommitCheckoutService.submit(user.get(), shippingAddress, paymentMethod)
+                    .handle((order, failure) -> {
+                        if (failure == null) {
+                            return ResponseEntity.ok(order);
+                        }
+                        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                        if (cause instanceof InsufficientStockException) {
+                            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+                        }
+                        throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+                    });
+        }, groupCommitCheckoutService.timeout());
     }
 
     @PutMapping("/{id}/status")
@@ -78,4 +152,19 @@ public class OrderController {
         orderService.deleteOrder(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // fields=id,status,totalAmount,orderItems.productName: reads that only need columns of the
+    // orders row select just those; the rest are trimmed to the requested properties.
+    private ResponseEntity<?> sparse(String fields, Function<FieldSet, Object> read) {
+        FieldSet selection;
+        try {
+            selection = FieldSet.parse(fields, ORDER_FIELDS, Map.of("orderItems", ITEM_FIELDS));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        return ResponseEntity.ok(read.apply(selection));
+    }
+}
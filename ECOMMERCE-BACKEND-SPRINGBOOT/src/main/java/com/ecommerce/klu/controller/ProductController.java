@@ -1,78 +1,198 @@
 package com.ecommerce.klu.controller;
 
+import com.ecommerce.klu.dto.AutocompleteSuggestion;
 import com.ecommerce.klu.model.Product;
 import com.ecommerce.klu.model.Seller;
+import com.ecommerce.klu.service.AutocompleteService;
+import com.ecommerce.klu.service.FlashSaleStockService;
+import com.ecommerce.klu.service.LeaderboardService;
+import com.ecommerce.klu.service.ProductCache;
 import com.ecommerce.klu.service.ProductService;
+import com.ecommerce.klu.service.RecommendationService;
 import com.ecommerce.klu.service.SellerService;
+import com.ecommerce.klu.web.FieldSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/products")
 @CrossOrigin(origins = "http://localhost:2030/reactecommerceapi")
 public class ProductController {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductController.class);
+
     @Autowired
     private ProductService productService;
 
     @Autowired
     private SellerService sellerService;
 
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private FlashSaleStockService flashSaleStockService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Value("${app.product-cache.max-ids-per-request:100}")
+    private int maxIdsPerRequest;
+
+    // Reads take an optional fields=id,name,price,imageUrl (see ProductService.FIELDS) to select
+    // and return only those columns; without it the full product is returned.
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return sparse(fields, productService::getAllProductFields);
+        }
         return ResponseEntity.ok(productService.getAllProducts());
     }
 
+    // Multi-get: ?ids=3,1,2 answers {products, missingIds} with the products in request order,
+    // served from ProductCache where possible and the rest loaded in one query.
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getProductsByIds(@RequestParam List<Long> ids, @RequestParam(required = false) String fields) {
+        if (ids.size() > maxIdsPerRequest) {
+            return badRequest(new IllegalArgumentException("At most " + maxIdsPerRequest + " ids per request"));
+        }
+        if (fields != null) {
+            return sparse(fields, names -> {
+                List<Map<String, Object>> rows = productService.getProductFieldsByIds(ids, names);
+                return multiGetResponse(ids, rows, rows.stream().map(row -> (Long) row.get("id")).toList());
+            });
+        }
+        List<Product> products = productCache.getAll(ids);
+        return ResponseEntity.ok(multiGetResponse(ids, products, products.stream().map(Product::getId).toList()));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<?> getProductById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return sparse(fields, names -> productService.getProductFieldsById(id, names)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build()));
+        }
         Optional<Product> product = productService.getProductById(id);
         return product.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<?> getProductsByCategory(@PathVariable String category,
+                                                   @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return sparse(fields, names -> productService.getProductFieldsByCategory(category, names));
+        }
         return ResponseEntity.ok(productService.getProductsByCategory(category));
     }
 
     @GetMapping("/brand/{brand}")
-    public ResponseEntity<List<Product>> getProductsByBrand(@PathVariable String brand) {
+    public ResponseEntity<?> getProductsByBrand(@PathVariable String brand,
+                                                @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return sparse(fields, names -> productService.getProductFieldsByBrand(brand, names));
+        }
         return ResponseEntity.ok(productService.getProductsByBrand(brand));
     }
 
     @GetMapping("/seller/{sellerId}")
-    public ResponseEntity<List<Product>> getProductsBySeller(@PathVariable Long sellerId) {
+    public ResponseEntity<?> getProductsBySeller(@PathVariable Long sellerId,
+                                                 @RequestParam(required = false) String fields) {
         Optional<Seller> seller = sellerService.getSellerById(sellerId);
         if (seller.isPresent()) {
+            if (fields != null) {
+                return sparse(fields, names -> productService.getProductFieldsBySeller(seller.get(), names));
+            }
             return ResponseEntity.ok(productService.getProductsBySeller(seller.get()));
         }
         return ResponseEntity.notFound().build();
     }
 
+    // Leaderboards over window=hour|day|week, optionally for one category.
+    @GetMapping("/bestsellers")
+    public ResponseEntity<?> getBestsellers(@RequestParam(defaultValue = "day") String window,
+                                            @RequestParam(required = false) String category,
+                                            @RequestParam(defaultValue = "10") int limit,
+                                            @RequestParam(required = false) String fields) {
+        try {
+            if (fields != null) {
+                List<Long> ids = leaderboardService.bestsellerIds(LeaderboardService.Window.of(window), category, limit);
+                return sparse(fields, names -> productService.getProductFieldsByIds(ids, names));
+            }
+            return ResponseEntity.ok(leaderboardService.bestsellers(LeaderboardService.Window.of(window), category, limit));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrending(@RequestParam(defaultValue = "hour") String window,
+                                         @RequestParam(required = false) String category,
+                                         @RequestParam(defaultValue = "10") int limit,
+                                         @RequestParam(required = false) String fields) {
+        try {
+            if (fields != null) {
+                List<Long> ids = leaderboardService.trendingIds(LeaderboardService.Window.of(window), category, limit);
+                return sparse(fields, names -> productService.getProductFieldsByIds(ids, names));
+            }
+            return ResponseEntity.ok(leaderboardService.trending(LeaderboardService.Window.of(window), category, limit));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    // Search-box suggestions (product names, brands, categories) for a typed prefix, most popular first.
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<AutocompleteSuggestion>> autocomplete(@RequestParam String q,
+                                                                     @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(autocompleteService.suggest(q, Math.min(limit, 50)));
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String keyword) {
+    public ResponseEntity<?> searchProducts(@RequestParam String keyword, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return sparse(fields, names -> productService.searchProductFields(keyword, names));
+        }
         return ResponseEntity.ok(productService.searchProducts(keyword));
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<Product>> getAvailableProducts() {
+    public ResponseEntity<?> getAvailableProducts(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return sparse(fields, productService::getAvailableProductFields);
+        }
         return ResponseEntity.ok(productService.getAvailableProducts());
     }
 
     @PostMapping
     public ResponseEntity<Product> createProduct(@RequestBody Product product, @RequestParam Long sellerId) {
-        System.out.println("Received product data: " + product.toString());
-        System.out.println("Image URL received: " + product.getImageUrl());
-        System.out.println("Seller ID: " + sellerId);
-        
+        log.debug("Creating product for sellerId={}: {}", sellerId, product);
+
         Optional<Seller> seller = sellerService.getSellerById(sellerId);
         if (seller.isPresent()) {
             product.setSeller(seller.get());
             Product createdProduct = productService.createProduct(product);
-            System.out.println("Created product with ID: " + createdProduct.getId());
-            System.out.println("Saved image URL: " + createdProduct.getImageUrl());
+            log.info("Created product id={} for sellerId={}", createdProduct.getId(), sellerId);
             return ResponseEntity.ok(createdProduct);
         }
         return ResponseEntity.badRequest().build();
@@ -83,16 +203,94 @@ public class ProductController {
         Optional<Product> existingProduct = productService.getProductById(id);
         if (existingProduct.isPresent()) {
             product.setId(id);
-            product.setSeller(existingProduct.get().getSeller());
-            Product updatedProduct = productService.updateProduct(product);
-            return ResponseEntity.ok(updatedProduct);
+            try {
+                return ResponseEntity.ok(productService.updateProduct(product));
+            } catch (OptimisticLockingFailureException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
         }
         return ResponseEntity.notFound().build();
     }
 
+    // Partial update: only the fields in the body are changed. The expected version comes from
+    // a "version" field or an If-Match header; a mismatch means someone else saved first (409).
+    // A new stockQuantity must come with expectedStockQuantity, the stock the form was loaded
+    // with, and gets 409 if sales have moved it since.
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchProduct(@PathVariable Long id, @RequestBody Map<String, Object> changes,
+                                          @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        Map<String, Object> fields = new HashMap<>(changes);
+        Object version = fields.remove("version");
+        Object expectedStock = fields.remove("expectedStockQuantity");
+        try {
+            Long expectedVersion = version != null ? Long.valueOf(version.toString())
+                    : ifMatch != null ? Long.valueOf(ifMatch.replace("W/", "").replace("\"", "").trim()) : null;
+            Optional<Product> patched = productService.patchProduct(id, fields, expectedVersion,
+                    expectedStock != null ? Integer.valueOf(expectedStock.toString().trim()) : null);
+            return patched.<ResponseEntity<?>>map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    // "Frequently bought together", answered from the in-memory co-occurrence counts.
+    @GetMapping("/{id}/related")
+    public ResponseEntity<?> getRelatedProducts(@PathVariable Long id,
+                                                @RequestParam(defaultValue = "10") int limit,
+                                                @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            List<Long> ids = recommendationService.relatedProductIds(id, Math.max(limit, 0));
+            return sparse(fields, names -> productService.getProductFieldsByIds(ids, names));
+        }
+        return ResponseEntity.ok(recommendationService.relatedProducts(id, Math.max(limit, 0)));
+    }
+
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<Map<String, Object>> getStock(@PathVariable Long id) {
+        Optional<Product> product = productService.getProductById(id);
+        if (product.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("productId", id);
+        response.put("flashSale", product.get().isFlashSale());
+        response.put("stockQuantity", product.get().isFlashSale()
+                ? flashSaleStockService.currentStock(id) : product.get().getStockQuantity());
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private static Map<String, Object> multiGetResponse(List<Long> ids, List<?> products, List<Long> foundIds) {
+        Set<Long> missing = new LinkedHashSet<>(ids);
+        foundIds.forEach(missing::remove);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("products", products);
+        response.put("missingIds", missing);
+        return response;
+    }
+
+    private ResponseEntity<?> sparse(String fields, Function<Set<String>, Object> read) {
+        Set<String> names;
+        try {
+            names = FieldSet.parse(fields, ProductService.FIELDS).names();
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+        Object result = read.apply(names);
+        return result instanceof ResponseEntity<?> response ? response : ResponseEntity.ok(result);
+    }
+
+    private ResponseEntity<Map<String, Object>> badRequest(IllegalArgumentException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
+}
@@ -2,6 +2,8 @@ package com.ecommerce.klu.controller;
 
 import com.ecommerce.klu.model.Seller;
 import com.ecommerce.klu.service.SellerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +17,8 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:2030/reactecommerceapi")
 public class SellerController {
 
+    private static final Logger log = LoggerFactory.getLogger(SellerController.class);
+
     @Autowired
     private SellerService sellerService;
 
@@ -48,19 +52,17 @@ public class SellerController {
         String email = credentials.get("email");
         String password = credentials.get("password");
 
-        System.out.println("Seller login attempt - Email: " + email + ", Password: " + password);
-
         Optional<Seller> sellerOpt = sellerService.login(email, password);
 
         if (sellerOpt.isPresent()) {
             Seller seller = sellerOpt.get();
-            System.out.println("Seller login successful for: " + seller.getEmail());
+            log.info("Seller login successful, sellerId={}", seller.getId());
             response.put("success", true);
             response.put("message", "Login successful");
             response.put("seller", seller);
             return ResponseEntity.ok(response);
         } else {
-            System.out.println("Seller login failed for email: " + email);
+            log.info("Seller login failed for email={}", email);
             response.put("success", false);
             response.put("message", "Invalid email or password");
             return ResponseEntity.badRequest().body(response);
@@ -70,9 +72,11 @@ public class SellerController {
     @GetMapping
     public ResponseEntity<List<Seller>> getAllSellers() {
         List<Seller> sellers = sellerService.getAllSellers();
-        System.out.println("Total sellers in database: " + sellers.size());
-        for (Seller seller : sellers) {
-            System.out.println("Seller: ID=" + seller.getId() + ", Email=" + seller.getEmail() + ", Username=" + seller.getUsername());
+        if (log.isDebugEnabled()) {
+            log.debug("Total sellers in database: {}", sellers.size());
+            for (Seller seller : sellers) {
+                log.debug("Seller: id={}, username={}", seller.getId(), seller.getUsername());
+            }
         }
         return ResponseEntity.ok(sellers);
     }
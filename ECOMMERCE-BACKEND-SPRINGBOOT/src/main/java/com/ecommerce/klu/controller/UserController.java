@@ -2,6 +2,8 @@ package com.ecommerce.klu.controller;
 
 import com.ecommerce.klu.model.User;
 import com.ecommerce.klu.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +17,8 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:2030/reactecommerceapi")
 public class UserController {
 
+    private static final Logger log = LoggerFactory.getLogger(UserController.class);
+
     @Autowired
     private UserService userService;
 
@@ -48,19 +52,17 @@ public class UserController {
         String email = credentials.get("email");
         String password = credentials.get("password");
 
-        System.out.println("User login attempt - Email: " + email);
-
         Optional<User> userOpt = userService.login(email, password);
 
         if (userOpt.isPresent()) {
             User user = userOpt.get();
-            System.out.println("User login successful - User ID: " + user.getId() + ", Username: " + user.getUsername());
+            log.info("User login successful, userId={}", user.getId());
             response.put("success", true);
             response.put("message", "Login successful");
             response.put("user", user);
             return ResponseEntity.ok(response);
         } else {
-            System.out.println("User login failed - Invalid credentials for email: " + email);
+            log.info("User login failed for email={}", email);
             response.put("success", false);
             response.put("message", "Invalid email or password");
             return ResponseEntity.badRequest().body(response);
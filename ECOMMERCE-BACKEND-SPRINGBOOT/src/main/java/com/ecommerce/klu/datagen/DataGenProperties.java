@@ -0,0 +1,61 @@
+package com.ecommerce.klu.datagen;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.datagen")
+public class DataGenProperties {
+
+    private int users = 100_000;
+    private int sellers = 1_000;
+    private int products = 50_000;
+    private int cartItems = 200_000;
+    private int orders = 1_000_000;
+    private int maxItemsPerOrder = 5;
+    private int orderHistoryDays = 730;
+    private int batchSize = 5_000;
+    // Zipf exponents: how strongly a few products, buyers and sellers dominate.
+    private double productSkew = 1.1;
+    private double buyerSkew = 0.9;
+    private double sellerSkew = 1.2;
+    private long seed = 42;
+    private boolean exitWhenDone = true;
+
+    public int getUsers() { return users; }
+    public void setUsers(int users) { this.users = users; }
+
+    public int getSellers() { return sellers; }
+    public void setSellers(int sellers) { this.sellers = sellers; }
+
+    public int getProducts() { return products; }
+    public void setProducts(int products) { this.products = products; }
+
+    public int getCartItems() { return cartItems; }
+    public void setCartItems(int cartItems) { this.cartItems = cartItems; }
+
+    public int getOrders() { return orders; }
+    public void setOrders(int orders) { this.orders = orders; }
+
+    public int getMaxItemsPerOrder() { return maxItemsPerOrder; }
+    public void setMaxItemsPerOrder(int maxItemsPerOrder) { this.maxItemsPerOrder = maxItemsPerOrder; }
+
+    public int getOrderHistoryDays() { return orderHistoryDays; }
+    public void setOrderHistoryDays(int orderHistoryDays) { this.orderHistoryDays = orderHistoryDays; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public double getProductSkew() { return productSkew; }
+    public void setProductSkew(double productSkew) { this.productSkew = productSkew; }
+
+    public double getBuyerSkew() { return buyerSkew; }
+    public void setBuyerSkew(double buyerSkew) { this.buyerSkew = buyerSkew; }
+
+    public double getSellerSkew() { return sellerSkew; }
+    public void setSellerSkew(double sellerSkew) { this.sellerSkew = sellerSkew; }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public boolean isExitWhenDone() { return exitWhenDone; }
+    public void setExitWhenDone(boolean exitWhenDone) { this.exitWhenDone = exitWhenDone; }
+}
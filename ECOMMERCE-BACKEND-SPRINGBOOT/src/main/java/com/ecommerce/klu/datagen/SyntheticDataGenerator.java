@@ -0,0 +1,285 @@
+package com.ecommerce.klu.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fills users, sellers, products, cart_items, orders and order_items with synthetic rows for
+ * scale testing. Popularity is Zipf-distributed: a few products appear in most orders, a few
+ * users place most orders and a few sellers own most products. Rows are written with JDBC
+ * batches, one transaction per batch, with ids assigned up front so child rows can reference
+ * their parents without reading anything back.
+ *
+ * Runs only under the "datagen" profile and appends to whatever is already in the tables.
+ */
+@Component
+@Profile("datagen")
+@EnableConfigurationProperties(DataGenProperties.class)
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Priya", "Rahul", "Ananya", "Vikram", "Sneha", "Arjun",
+            "Kavya", "Rohan", "Meera", "John", "Emma", "Liam", "Olivia", "Noah", "Ava", "Mateo", "Sofia"};
+    private static final String[] LAST_NAMES = {"Sharma", "Reddy", "Patel", "Iyer", "Khan", "Singh", "Nair",
+            "Gupta", "Smith", "Johnson", "Garcia", "Brown", "Lee", "Martin"};
+    private static final String[] CITIES = {"Hyderabad", "Vijayawada", "Bengaluru", "Chennai", "Mumbai", "Delhi",
+            "Pune", "Kolkata"};
+    private static final String[] CATEGORIES = {"Electronics", "Fashion", "Home", "Books", "Sports", "Beauty",
+            "Toys", "Grocery", "Automotive", "Furniture"};
+    private static final String[] BRANDS = {"Acme", "Zenith", "Nova", "Orbit", "Apex", "Lumen", "Vertex", "Pulse",
+            "Summit", "Harbor", "Quartz", "Echo"};
+    private static final String[] NOUNS = {"Headphones", "Backpack", "Lamp", "Novel", "Sneakers", "Serum",
+            "Puzzle", "Coffee", "Charger", "Chair", "Watch", "Bottle", "Keyboard", "Jacket", "Blender"};
+    private static final String[] ADJECTIVES = {"Wireless", "Classic", "Compact", "Premium", "Eco", "Smart",
+            "Ultra", "Vintage", "Portable", "Deluxe"};
+    private static final String[] PAYMENT_METHODS = {"CARD", "UPI", "COD", "NETBANKING"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataGenProperties properties;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Override
+    public void run(String... args) {
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(properties.getSeed());
+        LocalDateTime now = LocalDateTime.now();
+
+        long firstUserId = nextId("users");
+        long firstSellerId = nextId("sellers");
+        long firstProductId = nextId("products");
+
+        long rows = insertUsers(firstUserId, random, now);
+        rows += insertSellers(firstSellerId, random, now);
+
+        long[] priceCents = new long[properties.getProducts()];
+        rows += insertProducts(firstProductId, firstSellerId, priceCents, random, now);
+
+        ZipfSampler productPopularity = new ZipfSampler(properties.getProducts(), properties.getProductSkew());
+        ZipfSampler buyerActivity = new ZipfSampler(properties.getUsers(), properties.getBuyerSkew());
+        int[] productByRank = permutation(properties.getProducts(), random);
+        int[] userByRank = permutation(properties.getUsers(), random);
+
+        rows += insertCartItems(nextId("cart_items"), firstUserId, firstProductId,
+                productPopularity, productByRank, buyerActivity, userByRank, random);
+        rows += insertOrders(nextId("orders"), nextId("order_items"), firstUserId, firstProductId, priceCents,
+                productPopularity, productByRank, buyerActivity, userByRank, random, now);
+
+        resetIdentities();
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Generated {} rows in {}s ({} rows/s)", rows, String.format("%.1f", seconds),
+                Math.round(rows / Math.max(seconds, 1e-3)));
+
+        if (properties.isExitWhenDone()) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    private long insertUsers(long firstId, SplittableRandom random, LocalDateTime now) {
+        String sql = "INSERT INTO users (id, username, email, password, first_name, last_name, phone, address, role, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        return insertRows("users", sql, properties.getUsers(), i -> {
+            long id = firstId + i;
+            return new Object[]{id, "user" + id, "user" + id + "@example.com", "password",
+                    pick(FIRST_NAMES, random), pick(LAST_NAMES, random), phone(random), address(random),
+                    "USER", timestamp(now.minusDays(random.nextInt(1095)))};
+        });
+    }
+
+    private long insertSellers(long firstId, SplittableRandom random, LocalDateTime now) {
+        String sql = "INSERT INTO sellers (id, username, email, password, first_name, last_name, phone, address, "
+                + "business_name, business_address, role, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        return insertRows("sellers", sql, properties.getSellers(), i -> {
+            long id = firstId + i;
+            return new Object[]{id, "seller" + id, "seller" + id + "@example.com", "password",
+                    pick(FIRST_NAMES, random), pick(LAST_NAMES, random), phone(random), address(random),
+                    pick(BRANDS, random) + " Traders " + id, address(random), "SELLER",
+                    timestamp(now.minusDays(random.nextInt(1095)))};
+        });
+    }
+
+    private long insertProducts(long firstId, long firstSellerId, long[] priceCents,
+                                SplittableRandom random, LocalDateTime now) {
+        ZipfSampler sellerSize = new ZipfSampler(properties.getSellers(), properties.getSellerSkew());
+        String sql = "INSERT INTO products (id, name, description, price, stock_quantity, image_url, category, brand, "
+                + "created_at, updated_at, seller_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        return insertRows("products", sql, properties.getProducts(), i -> {
+            long id = firstId + i;
+            // Log-normal prices: mostly a few hundred, with a long tail of expensive items.
+            priceCents[i] = Math.max(4_900, Math.round(Math.exp(10.5 + random.nextDouble() * 2.5 - 1.25)));
+            String name = pick(ADJECTIVES, random) + " " + pick(NOUNS, random) + " " + id;
+            LocalDateTime created = now.minusDays(random.nextInt(730));
+            return new Object[]{id, name, "Synthetic product " + name, BigDecimal.valueOf(priceCents[i], 2),
+                    random.nextInt(1_000), "https://picsum.photos/seed/" + id + "/400", pick(CATEGORIES, random),
+                    pick(BRANDS, random), timestamp(created), timestamp(created),
+                    firstSellerId + sellerSize.next(random)};
+        });
+    }
+
+    private long insertCartItems(long firstId, long firstUserId, long firstProductId,
+                                 ZipfSampler productPopularity, int[] productByRank,
+                                 ZipfSampler buyerActivity, int[] userByRank, SplittableRandom random) {
+        String sql = "INSERT INTO cart_items (id, user_id, product_id, quantity) VALUES (?, ?, ?, ?)";
+        return insertRows("cart_items", sql, properties.getCartItems(), i -> new Object[]{
+                firstId + i,
+                firstUserId + userByRank[buyerActivity.next(random)],
+                firstProductId + productByRank[productPopularity.next(random)],
+                1 + random.nextInt(3)});
+    }
+
+    private long insertOrders(long firstOrderId, long firstItemId, long firstUserId, long firstProductId,
+                              long[] priceCents, ZipfSampler productPopularity, int[] productByRank,
+                              ZipfSampler buyerActivity, int[] userByRank, SplittableRandom random,
+                              LocalDateTime now) {
+        String orderSql = "INSERT INTO orders (id, user_id, order_date, status, total_amount, shipping_address, "
+                + "payment_method) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String itemSql = "INSERT INTO order_items (id, order_id, product_id, quantity, price) VALUES (?, ?, ?, ?, ?)";
+        int total = properties.getOrders();
+        int batchSize = properties.getBatchSize();
+        long historyMinutes = properties.getOrderHistoryDays() * 24L * 60L;
+        long nextItemId = firstItemId;
+        long items = 0;
+
+        for (int from = 0; from < total; from += batchSize) {
+            int to = Math.min(total, from + batchSize);
+            List<Object[]> orderRows = new ArrayList<>(to - from);
+            List<Object[]> itemRows = new ArrayList<>((to - from) * 3);
+            for (int i = from; i < to; i++) {
+                long orderId = firstOrderId + i;
+                // Square the draw so recent days see more orders than two years ago.
+                double age = random.nextDouble();
+                long minutesAgo = (long) (age * age * historyMinutes);
+                int itemCount = 1 + (int) Math.min(properties.getMaxItemsPerOrder() - 1,
+                        Math.floor(-Math.log(1 - random.nextDouble()) * 1.2));
+                long totalCents = 0;
+                for (int n = 0; n < itemCount; n++) {
+                    int product = productByRank[productPopularity.next(random)];
+                    int quantity = random.nextInt(10) == 0 ? 2 + random.nextInt(3) : 1;
+                    totalCents += priceCents[product] * quantity;
+                    itemRows.add(new Object[]{nextItemId++, orderId, firstProductId + product, quantity,
+                            BigDecimal.valueOf(priceCents[product], 2)});
+                }
+                orderRows.add(new Object[]{orderId, firstUserId + userByRank[buyerActivity.next(random)],
+                        timestamp(now.minusMinutes(minutesAgo)), status(minutesAgo, random),
+                        BigDecimal.valueOf(totalCents, 2), address(random), pick(PAYMENT_METHODS, random)});
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(orderSql, orderRows);
+                jdbcTemplate.batchUpdate(itemSql, itemRows);
+            });
+            items += itemRows.size();
+            logProgress("orders", to, total);
+        }
+        return total + items;
+    }
+
+    private long insertRows(String table, String sql, int count, RowSource source) {
+        int batchSize = properties.getBatchSize();
+        for (int from = 0; from < count; from += batchSize) {
+            int to = Math.min(count, from + batchSize);
+            List<Object[]> batch = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                batch.add(source.row(i));
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+            logProgress(table, to, count);
+        }
+        return count;
+    }
+
+    private void logProgress(String table, int done, int total) {
+        int batchSize = properties.getBatchSize();
+        int step = Math.max(batchSize, total / 10 / batchSize * batchSize);
+        if (done == total || done % step == 0) {
+            log.info("{}: {}/{}", table, done, total);
+        }
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    private void resetIdentities() {
+        // MySQL moves AUTO_INCREMENT past explicitly inserted ids on its own; H2 does not.
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(product)) {
+            return;
+        }
+        for (String table : new String[]{"users", "sellers", "products", "cart_items", "orders", "order_items"}) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId(table));
+        }
+    }
+
+    private static String status(long minutesAgo, SplittableRandom random) {
+        long days = minutesAgo / (24 * 60);
+        int roll = random.nextInt(100);
+        if (days > 14) {
+            return roll < 92 ? "DELIVERED" : "CANCELLED";
+        }
+        if (days > 3) {
+            return roll < 60 ? "DELIVERED" : roll < 90 ? "SHIPPED" : "CANCELLED";
+        }
+        return roll < 40 ? "PENDING" : roll < 75 ? "CONFIRMED" : roll < 95 ? "SHIPPED" : "CANCELLED";
+    }
+
+    private static int[] permutation(int n, SplittableRandom random) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+        return values;
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String phone(SplittableRandom random) {
+        return "9" + (100_000_000L + random.nextLong(900_000_000L));
+    }
+
+    private static String address(SplittableRandom random) {
+        return (1 + random.nextInt(999)) + " Main Road, " + pick(CITIES, random);
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return Timestamp.valueOf(value);
+    }
+
+    private interface RowSource {
+        Object[] row(int index);
+    }
+}
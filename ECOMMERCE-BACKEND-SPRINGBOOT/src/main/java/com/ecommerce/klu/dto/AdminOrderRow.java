@@ -0,0 +1,43 @@
+package com.ecommerce.klu.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class AdminOrderRow {
+    private Long id;
+    private Long userId;
+    private String userEmail;
+    private String status;
+    private BigDecimal totalAmount;
+    private LocalDateTime orderDate;
+
+    public AdminOrderRow() {}
+
+    public AdminOrderRow(Long id, Long userId, String userEmail, String status, BigDecimal totalAmount,
+                         LocalDateTime orderDate) {
+        this.id = id;
+        this.userId = userId;
+        this.userEmail = userEmail;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.orderDate = orderDate;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getUserEmail() { return userEmail; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
+}
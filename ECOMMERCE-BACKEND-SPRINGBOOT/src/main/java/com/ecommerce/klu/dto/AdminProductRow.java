@@ -0,0 +1,59 @@
+package com.ecommerce.klu.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class AdminProductRow {
+    private Long id;
+    private String name;
+    private String category;
+    private String brand;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private Long sellerId;
+    private String sellerBusinessName;
+    private LocalDateTime createdAt;
+
+    public AdminProductRow() {}
+
+    public AdminProductRow(Long id, String name, String category, String brand, BigDecimal price,
+                           Integer stockQuantity, Long sellerId, String sellerBusinessName,
+                           LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.brand = brand;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.sellerId = sellerId;
+        this.sellerBusinessName = sellerBusinessName;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getBrand() { return brand; }
+    public void setBrand(String brand) { this.brand = brand; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+
+    public Integer getStockQuantity() { return stockQuantity; }
+    public void setStockQuantity(Integer stockQuantity) { this.stockQuantity = stockQuantity; }
+
+    public Long getSellerId() { return sellerId; }
+    public void setSellerId(Long sellerId) { this.sellerId = sellerId; }
+
+    public String getSellerBusinessName() { return sellerBusinessName; }
+    public void setSellerBusinessName(String sellerBusinessName) { this.sellerBusinessName = sellerBusinessName; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
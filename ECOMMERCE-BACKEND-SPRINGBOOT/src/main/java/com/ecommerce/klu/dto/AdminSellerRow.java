@@ -0,0 +1,47 @@
+package com.ecommerce.klu.dto;
+
+import java.time.LocalDateTime;
+
+public class AdminSellerRow {
+    private Long id;
+    private String username;
+    private String email;
+    private String businessName;
+    private String firstName;
+    private String lastName;
+    private LocalDateTime createdAt;
+
+    public AdminSellerRow() {}
+
+    public AdminSellerRow(Long id, String username, String email, String businessName, String firstName,
+                          String lastName, LocalDateTime createdAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.businessName = businessName;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getBusinessName() { return businessName; }
+    public void setBusinessName(String businessName) { this.businessName = businessName; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.klu.dto;
+
+public class AutocompleteSuggestion {
+    private String text;
+    // PRODUCT, BRAND or CATEGORY; productId is only set for products.
+    private String type;
+    private Long productId;
+
+    public AutocompleteSuggestion() {}
+
+    public AutocompleteSuggestion(String text, String type, Long productId) {
+        this.text = text;
+        this.type = type;
+        this.productId = productId;
+    }
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+}
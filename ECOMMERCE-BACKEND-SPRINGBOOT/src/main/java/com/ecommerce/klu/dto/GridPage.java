@@ -0,0 +1,42 @@
+package com.ecommerce.klu.dto;
+
+import java.util.List;
+
+public class GridPage<T> {
+    private List<T> items;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    // Exact when totalExact is set; otherwise an estimate (table statistics or a capped count).
+    private long total;
+    private boolean totalExact;
+
+    public GridPage() {}
+
+    public GridPage(List<T> items, int page, int size, boolean hasNext, long total, boolean totalExact) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.total = total;
+        this.totalExact = totalExact;
+    }
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public boolean isTotalExact() { return totalExact; }
+    public void setTotalExact(boolean totalExact) { this.totalExact = totalExact; }
+}
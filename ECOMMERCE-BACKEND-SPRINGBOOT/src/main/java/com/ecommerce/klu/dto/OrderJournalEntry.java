@@ -0,0 +1,58 @@
+package com.ecommerce.klu.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class OrderJournalEntry {
+    // Position of this entry in the journal; read from the next one at nextOffset.
+    private long offset;
+    private long nextOffset;
+    // ORDER_CREATED or STATUS_CHANGED.
+    private String type;
+    private Long orderId;
+    private Long userId;
+    private String previousStatus;
+    private String status;
+    private BigDecimal totalAmount;
+    private LocalDateTime at;
+
+    public OrderJournalEntry() {}
+
+    public OrderJournalEntry(String type, Long orderId, Long userId, String previousStatus, String status,
+                             BigDecimal totalAmount, LocalDateTime at) {
+        this.type = type;
+        this.orderId = orderId;
+        this.userId = userId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.at = at;
+    }
+
+    public long getOffset() { return offset; }
+    public void setOffset(long offset) { this.offset = offset; }
+
+    public long getNextOffset() { return nextOffset; }
+    public void setNextOffset(long nextOffset) { this.nextOffset = nextOffset; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(String previousStatus) { this.previousStatus = previousStatus; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public LocalDateTime getAt() { return at; }
+    public void setAt(LocalDateTime at) { this.at = at; }
+}
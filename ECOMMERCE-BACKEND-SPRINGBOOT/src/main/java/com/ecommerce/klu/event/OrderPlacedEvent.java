@@ -0,0 +1,21 @@
+package com.ecommerce.klu.event;
+
+import com.ecommerce.klu.dto.OrderDTO;
+
+/**
+ * Published by OrderService when an order is placed, carrying the snapshot written to
+ * order_views. Listeners that keep in-memory models should use @TransactionalEventListener so
+ * they only see orders that committed.
+ */
+public class OrderPlacedEvent {
+
+    private final OrderDTO order;
+
+    public OrderPlacedEvent(OrderDTO order) {
+        this.order = order;
+    }
+
+    public OrderDTO getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.klu.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by OrderService when an order's status is overwritten.
+ */
+public class OrderStatusChangedEvent {
+
+    private final Long orderId;
+    private final Long userId;
+    private final String previousStatus;
+    private final String status;
+    private final LocalDateTime changedAt;
+
+    public OrderStatusChangedEvent(Long orderId, Long userId, String previousStatus, String status, LocalDateTime changedAt) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.changedAt = changedAt;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
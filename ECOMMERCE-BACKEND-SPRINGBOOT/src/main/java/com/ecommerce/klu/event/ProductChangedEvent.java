@@ -0,0 +1,43 @@
+package com.ecommerce.klu.event;
+
+import com.ecommerce.klu.model.Product;
+
+/**
+ * Published by ProductService and SellerService when a product is created, edited or deleted.
+ * product is the saved state, or null when the product was deleted.
+ *
+ * CacheInvalidationService republishes the event, with remote set, for writes other instances
+ * made; those are already recorded and aren't logged again.
+ */
+public class ProductChangedEvent {
+
+    private final Long productId;
+    private final Product product;
+    private final boolean remote;
+
+    public ProductChangedEvent(Long productId, Product product) {
+        this(productId, product, false);
+    }
+
+    public ProductChangedEvent(Long productId, Product product, boolean remote) {
+        this.productId = productId;
+        this.product = product;
+        this.remote = remote;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.klu.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_user_date", columnList = "user_id, order_date")
+})
+public class ArchivedOrder {
+    // Keeps the id the order had in the hot table.
+    @Id
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    // Still set when the user is soft-deleted and user loads as null.
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private Long userId;
+
+    private LocalDateTime orderDate;
+    private String status;
+    private BigDecimal totalAmount;
+    private String shippingAddress;
+    private String paymentMethod;
+    private LocalDateTime archivedAt = LocalDateTime.now();
+
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+    private List<ArchivedOrderItem> orderItems;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public Long getUserId() { return userId; }
+
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public String getShippingAddress() { return shippingAddress; }
+    public void setShippingAddress(String shippingAddress) { this.shippingAddress = shippingAddress; }
+
+    public String getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+
+    public List<ArchivedOrderItem> getOrderItems() { return orderItems; }
+    public void setOrderItems(List<ArchivedOrderItem> orderItems) { this.orderItems = orderItems; }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.klu.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "order_items_archive")
+public class ArchivedOrderItem {
+    @Id
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "order_id")
+    private ArchivedOrder order;
+
+    @ManyToOne
+    @JoinColumn(name = "product_id")
+    private Product product;
+
+    // Still set when the product itself is soft-deleted and product loads as null.
+    @Column(name = "product_id", insertable = false, updatable = false)
+    private Long productId;
+
+    private Integer quantity;
+    private BigDecimal price;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public ArchivedOrder getOrder() { return order; }
+    public void setOrder(ArchivedOrder order) { this.order = order; }
+
+    public Product getProduct() { return product; }
+    public void setProduct(Product product) { this.product = product; }
+
+    public Long getProductId() { return productId; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+}
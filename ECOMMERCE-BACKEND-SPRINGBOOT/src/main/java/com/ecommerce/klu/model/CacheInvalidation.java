@@ -0,0 +1,43 @@
+package com.ecommerce.klu.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One committed product write, for the other instances to drop their cached copies.
+@Entity
+@Table(name = "cache_invalidations",
+        indexes = @Index(name = "idx_cache_invalidations_created", columnList = "created_at"))
+public class CacheInvalidation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    // The instance that made the write, which has already evicted its own copy.
+    @Column(nullable = false, length = 64)
+    private String node;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public CacheInvalidation() {
+    }
+
+    public CacheInvalidation(Long productId, String node) {
+        this.productId = productId;
+        this.node = node;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getNode() { return node; }
+    public void setNode(String node) { this.node = node; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -6,7 +6,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_date", columnList = "user_id, order_date"),
+        @Index(name = "idx_orders_status_date", columnList = "status, order_date"),
+        @Index(name = "idx_orders_date", columnList = "order_date")
+})
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,6 +20,10 @@ public class Order {
     @JoinColumn(name = "user_id")
     private User user;
 
+    // Still set when the user is soft-deleted and user loads as null.
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private Long userId;
+
     private LocalDateTime orderDate = LocalDateTime.now();
     private String status = "PENDING";
     private BigDecimal totalAmount;
@@ -31,6 +39,8 @@ public class Order {
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 
+    public Long getUserId() { return userId; }
+
     public LocalDateTime getOrderDate() { return orderDate; }
     public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
 
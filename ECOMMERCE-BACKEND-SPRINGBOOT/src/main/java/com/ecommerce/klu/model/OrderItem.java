@@ -18,6 +18,10 @@ public class OrderItem {
     @JoinColumn(name = "product_id")
     private Product product;
 
+    // Still set when the product itself is soft-deleted and product loads as null.
+    @Column(name = "product_id", insertable = false, updatable = false)
+    private Long productId;
+
     private Integer quantity;
     private BigDecimal price;
 
@@ -30,6 +34,8 @@ public class OrderItem {
     public Product getProduct() { return product; }
     public void setProduct(Product product) { this.product = product; }
 
+    public Long getProductId() { return productId; }
+
     public Integer getQuantity() { return quantity; }
     public void setQuantity(Integer quantity) { this.quantity = quantity; }
 
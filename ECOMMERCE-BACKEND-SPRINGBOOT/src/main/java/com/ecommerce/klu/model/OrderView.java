@@ -0,0 +1,55 @@
+package com.ecommerce.klu.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+// Read model for order history and detail views: the OrderDTO as it was at checkout,
+// serialized once, plus the columns the reads filter and sort on.
+@Entity
+@Table(name = "order_views", indexes = {
+        @Index(name = "idx_order_views_user_date", columnList = "user_id, order_date")
+})
+public class OrderView {
+    // Same id as the order, in the hot table or the archive.
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_date")
+    private LocalDateTime orderDate;
+
+    private String status;
+
+    // The OrderDTO as JSON. Without a length, @Lob maps to MySQL's 255-byte TINYTEXT.
+    @Lob
+    @Column(nullable = false, length = 16_777_215)
+    private String payload;
+
+    @ElementCollection
+    @CollectionTable(name = "order_view_sellers", joinColumns = @JoinColumn(name = "order_id"),
+            indexes = @Index(name = "idx_order_view_sellers_seller", columnList = "seller_id, order_id"))
+    @Column(name = "seller_id")
+    private Set<Long> sellerIds = new HashSet<>();
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public Set<Long> getSellerIds() { return sellerIds; }
+    public void setSellerIds(Set<Long> sellerIds) { this.sellerIds = sellerIds; }
+}
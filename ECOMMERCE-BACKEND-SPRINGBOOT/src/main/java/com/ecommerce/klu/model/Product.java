@@ -2,12 +2,23 @@ package com.ecommerce.klu.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@DynamicUpdate
+@SQLRestriction("deleted_at IS NULL")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_deleted", columnList = "deleted_at"),
+        @Index(name = "idx_products_created", columnList = "created_at"),
+        @Index(name = "idx_products_category_created", columnList = "category, created_at"),
+        @Index(name = "idx_products_name", columnList = "name"),
+        @Index(name = "idx_products_price", columnList = "price")
+})
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,6 +34,27 @@ public class Product {
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Soft delete: rows with a deletedAt are hidden from every query (@SQLRestriction) until
+    // SoftDeletePurgeService removes or anonymises them. Written only by those bulk updates.
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime purgedAt;
+
+    // Optimistic lock over the catalog fields; sales don't move it. Clients send the version
+    // they read with PUT/PATCH and get 409 if the row has moved on since.
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    // Switched only through FlashSaleStockService, never by saving the entity.
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("false")
+    private boolean flashSale;
+
     @ManyToOne
     @JoinColumn(name = "seller_id")
     private Seller seller;
@@ -59,6 +91,9 @@ public class Product {
     public String getBrand() { return brand; }
     public void setBrand(String brand) { this.brand = brand; }
 
+    public boolean isFlashSale() { return flashSale; }
+    public void setFlashSale(boolean flashSale) { this.flashSale = flashSale; }
+
     public Seller getSeller() { return seller; }
     public void setSeller(Seller seller) { this.seller = seller; }
 
@@ -68,6 +103,15 @@ public class Product {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+
+    public LocalDateTime getPurgedAt() { return purgedAt; }
+    public void setPurgedAt(LocalDateTime purgedAt) { this.purgedAt = purgedAt; }
+
     public List<OrderItem> getOrderItems() { return orderItems; }
     public void setOrderItems(List<OrderItem> orderItems) { this.orderItems = orderItems; }
 
@@ -0,0 +1,31 @@
+package com.ecommerce.klu.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "product_stock_shards",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_shards_product_shard", columnNames = {"product_id", "shard_index"}))
+public class ProductStockShard {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "product_id")
+    private Product product;
+
+    private Integer shardIndex;
+    private Integer quantity;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Product getProduct() { return product; }
+    public void setProduct(Product product) { this.product = product; }
+
+    public Integer getShardIndex() { return shardIndex; }
+    public void setShardIndex(Integer shardIndex) { this.shardIndex = shardIndex; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
@@ -2,11 +2,19 @@ package com.ecommerce.klu.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "sellers")
+@SQLRestriction("deleted_at IS NULL")
+@Table(name = "sellers", indexes = {
+        @Index(name = "idx_sellers_deleted", columnList = "deleted_at"),
+        @Index(name = "idx_sellers_created", columnList = "created_at"),
+        @Index(name = "idx_sellers_email", columnList = "email"),
+        @Index(name = "idx_sellers_username", columnList = "username"),
+        @Index(name = "idx_sellers_business_name", columnList = "business_name")
+})
 public class Seller {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,6 +32,15 @@ public class Seller {
     private String role = "SELLER";
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Soft delete: rows with a deletedAt are hidden from every query (@SQLRestriction) until
+    // SoftDeletePurgeService removes or anonymises them. Written only by those bulk updates.
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime purgedAt;
+
     @OneToMany(mappedBy = "seller", cascade = CascadeType.ALL)
     @JsonIgnore
     private List<Product> products;
@@ -64,6 +81,12 @@ public class Seller {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+
+    public LocalDateTime getPurgedAt() { return purgedAt; }
+    public void setPurgedAt(LocalDateTime purgedAt) { this.purgedAt = purgedAt; }
+
     public List<Product> getProducts() { return products; }
     public void setProducts(List<Product> products) { this.products = products; }
 }
\ No newline at end of file
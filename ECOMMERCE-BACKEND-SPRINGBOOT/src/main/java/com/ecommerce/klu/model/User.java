@@ -2,11 +2,18 @@ package com.ecommerce.klu.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@SQLRestriction("deleted_at IS NULL")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_deleted", columnList = "deleted_at"),
+        @Index(name = "idx_users_created", columnList = "created_at"),
+        @Index(name = "idx_users_email", columnList = "email"),
+        @Index(name = "idx_users_username", columnList = "username")
+})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,6 +31,15 @@ public class User {
     private String role = "USER";
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Soft delete: rows with a deletedAt are hidden from every query (@SQLRestriction) until
+    // SoftDeletePurgeService removes or anonymises them. Written only by those bulk updates.
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime purgedAt;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
     private List<com.ecommerce.klu.model.Order> orders;
@@ -62,6 +78,12 @@ public class User {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+
+    public LocalDateTime getPurgedAt() { return purgedAt; }
+    public void setPurgedAt(LocalDateTime purgedAt) { this.purgedAt = purgedAt; }
+
     public List<com.ecommerce.klu.model.Order> getOrders() { return orders; }
     public void setOrders(List<com.ecommerce.klu.model.Order> orders) { this.orders = orders; }
 
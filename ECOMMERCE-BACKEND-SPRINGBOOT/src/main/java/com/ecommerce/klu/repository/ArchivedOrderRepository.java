@@ -0,0 +1,28 @@
+package com.ecommerce.klu.repository;
+
+import com.ecommerce.klu.model.ArchivedOrder;
+import com.ecommerce.klu.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    List<ArchivedOrder> findByUserOrderByOrderDateDesc(User user);
+    List<ArchivedOrder> findByUserOrderByOrderDateDesc(User user, Pageable pageable);
+    Optional<ArchivedOrder> findFirstByUserOrderByOrderDateDesc(User user);
+    List<ArchivedOrder> findByStatus(String status);
+
+    @Query("SELECT o.id, o.orderDate FROM ArchivedOrder o WHERE o.user = :user ORDER BY o.orderDate DESC")
+    List<Object[]> findIdsAndDatesByUser(@Param("user") User user, Pageable pageable);
+
+    @Query("SELECT DISTINCT o FROM ArchivedOrder o JOIN o.orderItems oi JOIN oi.product p WHERE p.seller.id = :sellerId ORDER BY o.orderDate DESC")
+    List<ArchivedOrder> findOrdersBySellerId(@Param("sellerId") Long sellerId);
+
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.id > :afterId AND NOT EXISTS (SELECT v.id FROM OrderView v WHERE v.id = o.id) ORDER BY o.id")
+    List<ArchivedOrder> findWithoutView(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.klu.repository;
+
+import com.ecommerce.klu.model.CacheInvalidation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    @Query("SELECT COALESCE(MAX(i.id), 0) FROM CacheInvalidation i")
+    long findMaxId();
+
+    @Query("SELECT i FROM CacheInvalidation i WHERE i.id > :afterId ORDER BY i.id")
+    List<CacheInvalidation> findAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT i FROM CacheInvalidation i WHERE i.id > :afterId AND i.id < :beforeId ORDER BY i.id")
+    List<CacheInvalidation> findBetween(@Param("afterId") Long afterId, @Param("beforeId") Long beforeId);
+
+    @Modifying
+    @Query("DELETE FROM CacheInvalidation i WHERE i.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -4,7 +4,11 @@ import com.ecommerce.klu.model.CartItem;
 import com.ecommerce.klu.model.Product;
 import com.ecommerce.klu.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +17,16 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     List<CartItem> findByUser(User user);
     Optional<CartItem> findByUserAndProduct(User user, Product product);
     void deleteByUser(User user);
+
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.product.id IN :productIds")
+    int deleteByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM cart_items WHERE product_id IN (SELECT id FROM products WHERE seller_id = :sellerId)", nativeQuery = true)
+    int deleteBySellerId(@Param("sellerId") Long sellerId);
+
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.user.id IN :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
 }
\ No newline at end of file
@@ -1,9 +1,18 @@
 package com.ecommerce.klu.repository;
 
+import com.ecommerce.klu.model.Order;
 import com.ecommerce.klu.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.order IN :orders")
+    int deleteByOrderIn(@Param("orders") Collection<Order> orders);
+}
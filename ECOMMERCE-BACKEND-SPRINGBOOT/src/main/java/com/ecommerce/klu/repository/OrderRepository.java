@@ -2,10 +2,13 @@ package com.ecommerce.klu.repository;
 
 import com.ecommerce.klu.model.Order;
 import com.ecommerce.klu.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,7 +16,15 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUser(User user);
     List<Order> findByStatus(String status);
     List<Order> findByUserOrderByOrderDateDesc(User user);
+    List<Order> findByUserOrderByOrderDateDesc(User user, Pageable pageable);
+    List<Order> findByStatusInAndOrderDateBeforeOrderByOrderDateAsc(Collection<String> statuses, LocalDateTime before, Pageable pageable);
     
+    @Query("SELECT o.id, o.orderDate FROM Order o WHERE o.user = :user ORDER BY o.orderDate DESC")
+    List<Object[]> findIdsAndDatesByUser(@Param("user") User user, Pageable pageable);
+
     @Query("SELECT DISTINCT o FROM Order o JOIN o.orderItems oi JOIN oi.product p WHERE p.seller.id = :sellerId ORDER BY o.orderDate DESC")
     List<Order> findOrdersBySellerId(@Param("sellerId") Long sellerId);
-}
\ No newline at end of file
+
+    @Query("SELECT o FROM Order o WHERE o.id > :afterId AND NOT EXISTS (SELECT v.id FROM OrderView v WHERE v.id = o.id) ORDER BY o.id")
+    List<Order> findWithoutView(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.klu.repository;
+
+import com.ecommerce.klu.model.OrderView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Long> {
+
+    @Query("SELECT v.payload FROM OrderView v WHERE v.id = :id")
+    Optional<String> findPayloadById(@Param("id") Long id);
+
+    @Query("SELECT v.payload FROM OrderView v WHERE v.userId = :userId ORDER BY v.orderDate DESC, v.id DESC")
+    List<String> findPayloadsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT v.payload FROM OrderView v WHERE v.userId = :userId ORDER BY v.orderDate DESC, v.id DESC")
+    List<String> findPayloadsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT v.payload FROM OrderView v JOIN v.sellerIds s WHERE s = :sellerId ORDER BY v.orderDate DESC, v.id DESC")
+    List<String> findPayloadsBySellerId(@Param("sellerId") Long sellerId);
+
+    @Query("SELECT v FROM OrderView v WHERE v.userId IN :userIds AND v.id > :afterId ORDER BY v.id")
+    List<OrderView> findByUserIds(@Param("userIds") Collection<Long> userIds, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT v FROM OrderView v JOIN v.sellerIds s WHERE s IN :sellerIds AND v.id > :afterId ORDER BY v.id")
+    List<OrderView> findBySellerIds(@Param("sellerIds") Collection<Long> sellerIds, @Param("afterId") Long afterId, Pageable pageable);
+}
@@ -3,7 +3,12 @@ package com.ecommerce.klu.repository;
 import com.ecommerce.klu.model.Product;
 import com.ecommerce.klu.model.Seller;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,4 +18,58 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByNameContainingIgnoreCase(String name);
     List<Product> findBySeller(Seller seller);
     List<Product> findByStockQuantityGreaterThan(Integer quantity);
-}
\ No newline at end of file
+
+    // Sales leave the version alone: a seller's price edit must not conflict with every checkout.
+    // Entity updates never write stock_quantity unless it changed (@DynamicUpdate), and seller
+    // stock edits go through setStock, which is checked against the stock the seller saw.
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.updatedAt = :now "
+            + "WHERE p.id = :id AND p.stockQuantity >= :quantity AND p.flashSale = false")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity, p.updatedAt = :now "
+            + "WHERE p.id = :id AND p.flashSale = false")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = :stock, p.updatedAt = :now "
+            + "WHERE p.id = :id AND p.stockQuantity = :expected AND p.flashSale = false")
+    int setStock(@Param("id") Long id, @Param("stock") int stock, @Param("expected") int expected,
+                 @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT stock_quantity FROM products WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Integer lockStockQuantity(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.flashSale = :flashSale, p.stockQuantity = :stock, p.updatedAt = :now, "
+            + "p.version = p.version + 1 WHERE p.id = :id")
+    int setFlashSale(@Param("id") Long id, @Param("flashSale") boolean flashSale, @Param("stock") int stock,
+                     @Param("now") LocalDateTime now);
+
+    // Soft delete and purge work on the raw table: the entity's @SQLRestriction hides deleted rows.
+    @Modifying
+    @Query(value = "UPDATE products SET deleted_at = :now WHERE id = :id AND deleted_at IS NULL", nativeQuery = true)
+    int softDelete(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Query("SELECT p.id FROM Product p WHERE p.seller.id = :sellerId")
+    List<Long> findIdsBySellerId(@Param("sellerId") Long sellerId);
+
+    @Modifying
+    @Query(value = "UPDATE products SET deleted_at = :now WHERE seller_id = :sellerId AND deleted_at IS NULL", nativeQuery = true)
+    int softDeleteBySeller(@Param("sellerId") Long sellerId, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT id FROM products WHERE deleted_at < :cutoff AND purged_at IS NULL ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findPurgeable(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    // Products still referenced by order lines stay behind as hidden tombstones.
+    @Modifying
+    @Query(value = "DELETE FROM products WHERE id IN (:ids)"
+            + " AND NOT EXISTS (SELECT 1 FROM order_items oi WHERE oi.product_id = products.id)"
+            + " AND NOT EXISTS (SELECT 1 FROM order_items_archive ai WHERE ai.product_id = products.id)", nativeQuery = true)
+    int deleteUnreferenced(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE products SET purged_at = :now WHERE id IN (:ids)", nativeQuery = true)
+    int markPurged(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.klu.repository;
+
+import com.ecommerce.klu.model.ProductStockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Long> {
+
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.quantity = s.quantity - :quantity "
+            + "WHERE s.product.id = :productId AND s.shardIndex = :shard AND s.quantity >= :quantity")
+    int decrement(@Param("productId") Long productId, @Param("shard") int shard, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.quantity = s.quantity + :quantity "
+            + "WHERE s.product.id = :productId AND s.shardIndex = :shard")
+    int increment(@Param("productId") Long productId, @Param("shard") int shard, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.quantity = :quantity WHERE s.product.id = :productId AND s.shardIndex = :shard")
+    int setQuantity(@Param("productId") Long productId, @Param("shard") int shard, @Param("quantity") int quantity);
+
+    // First shard at or after fromShard that can cover the quantity and is not locked by another
+    // transaction; the returned row stays locked until commit. Never waits.
+    @Query(value = "SELECT shard_index FROM product_stock_shards WHERE product_id = :productId "
+            + "AND shard_index >= :fromShard AND quantity >= :quantity ORDER BY shard_index LIMIT 1 "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Integer> lockAvailableShard(@Param("productId") Long productId, @Param("fromShard") int fromShard,
+                                     @Param("quantity") int quantity);
+
+    // Returns (shard_index, quantity) rows with every shard of the product locked.
+    @Query(value = "SELECT shard_index, quantity FROM product_stock_shards WHERE product_id = :productId "
+            + "ORDER BY shard_index FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockShards(@Param("productId") Long productId);
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM ProductStockShard s WHERE s.product.id = :productId")
+    long sumQuantity(@Param("productId") Long productId);
+
+    @Query("SELECT s.product.id, COUNT(s) FROM ProductStockShard s GROUP BY s.product.id")
+    List<Object[]> countShardsByProduct();
+
+    @Query("SELECT COUNT(s) FROM ProductStockShard s WHERE s.product.id = :productId")
+    int countByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM ProductStockShard s WHERE s.product.id = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM ProductStockShard s WHERE s.product.id IN :productIds")
+    int deleteByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    // Leaves the row alone when it already holds the shard total.
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = (SELECT COALESCE(SUM(s.quantity), 0) FROM ProductStockShard s "
+            + "WHERE s.product.id = :productId), p.updatedAt = :now WHERE p.id = :productId AND p.flashSale = true "
+            + "AND (p.stockQuantity IS NULL OR p.stockQuantity <> (SELECT COALESCE(SUM(s2.quantity), 0) "
+            + "FROM ProductStockShard s2 WHERE s2.product.id = :productId))")
+    int reconcileProductStock(@Param("productId") Long productId, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,169 @@
+package com.ecommerce.klu.repository;
+
+import com.ecommerce.klu.dto.CatalogProduct;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking product reads over R2DBC for the reactive catalog. Queries are plain SQL on the
+ * products table, so soft-deleted rows are filtered here rather than by the entity's
+ * {@code @SQLRestriction}. Rows are fetched fetch-size at a time and only as fast as the
+ * subscriber asks for them.
+ *
+ * The connection pool is private to this class rather than a ConnectionFactory bean, so it
+ * doesn't take part in Spring Boot's R2DBC auto-configuration next to the JPA DataSource. Unless
+ * app.reactive-catalog.r2dbc.url is set, it connects to the database of spring.datasource.url.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "app.reactive-catalog", name = "enabled", havingValue = "true")
+public class ReactiveProductReader {
+
+    private static final String COLUMNS = "SELECT id, name, description, price, stock_quantity, image_url, category, "
+            + "brand, seller_id, flash_sale, version, created_at, updated_at FROM products WHERE deleted_at IS NULL";
+
+    // '!' rather than a backslash: MySQL's default sql_mode reads a backslash inside a string
+    // literal as an escape, so ESCAPE '\' would not even parse there.
+    static final String NAME_LIKE = " AND LOWER(name) LIKE :pattern ESCAPE '!'";
+
+    @Value("${app.reactive-catalog.r2dbc.url:}")
+    private String url;
+
+    @Value("${spring.datasource.url}")
+    private String jdbcUrl;
+
+    @Value("${app.reactive-catalog.r2dbc.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${app.reactive-catalog.r2dbc.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Value("${app.reactive-catalog.r2dbc.pool-size:10}")
+    private int poolSize;
+
+    @Value("${app.reactive-catalog.fetch-size:256}")
+    private int fetchSize;
+
+    private ConnectionPool pool;
+
+    private DatabaseClient databaseClient;
+
+    @PostConstruct
+    void open() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url.isBlank() ? r2dbcUrl(jdbcUrl) : url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive-catalog")
+                .initialSize(0)
+                .maxSize(poolSize)
+                .maxIdleTime(Duration.ofMinutes(10))
+                .build());
+        databaseClient = DatabaseClient.create(pool);
+    }
+
+    // The R2DBC URL for the database a JDBC URL points at. H2 takes its settings as an options
+    // parameter; for the network drivers the JDBC query parameters (driver tuning such as
+    // rewriteBatchedStatements) are dropped.
+    static String r2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl.startsWith("jdbc:h2:")) {
+            String[] parts = jdbcUrl.substring("jdbc:h2:".length()).split(";", 2);
+            int colon = parts[0].indexOf(':');
+            if (colon < 0) {
+                throw new IllegalStateException("Cannot derive an R2DBC URL from " + jdbcUrl
+                        + "; set app.reactive-catalog.r2dbc.url");
+            }
+            String url = "r2dbc:h2:" + parts[0].substring(0, colon) + ":///" + parts[0].substring(colon + 1);
+            return parts.length > 1 ? url + "?options=" + parts[1] : url;
+        }
+        if (jdbcUrl.startsWith("jdbc:mysql:") || jdbcUrl.startsWith("jdbc:mariadb:")
+                || jdbcUrl.startsWith("jdbc:postgresql:")) {
+            int query = jdbcUrl.indexOf('?');
+            return "r2dbc:" + jdbcUrl.substring("jdbc:".length(), query < 0 ? jdbcUrl.length() : query);
+        }
+        throw new IllegalStateException("Cannot derive an R2DBC URL from " + jdbcUrl
+                + "; set app.reactive-catalog.r2dbc.url");
+    }
+
+    @PreDestroy
+    void close() {
+        pool.dispose();
+    }
+
+    public Flux<CatalogProduct> findAll() {
+        return select(COLUMNS + " ORDER BY id").map(this::map).all();
+    }
+
+    public Mono<CatalogProduct> findById(long id) {
+        return select(COLUMNS + " AND id = :id").bind("id", id).map(this::map).first();
+    }
+
+    public Flux<CatalogProduct> findByCategory(String category) {
+        return select(COLUMNS + " AND category = :category ORDER BY id").bind("category", category).map(this::map).all();
+    }
+
+    public Flux<CatalogProduct> findByBrand(String brand) {
+        return select(COLUMNS + " AND brand = :brand ORDER BY id").bind("brand", brand).map(this::map).all();
+    }
+
+    public Flux<CatalogProduct> findBySeller(long sellerId) {
+        return select(COLUMNS + " AND seller_id = :sellerId ORDER BY id").bind("sellerId", sellerId).map(this::map).all();
+    }
+
+    // Same match as ProductRepository.findByNameContainingIgnoreCase: the keyword is taken literally.
+    public Flux<CatalogProduct> searchByName(String keyword) {
+        return select(COLUMNS + NAME_LIKE + " ORDER BY id").bind("pattern", likePattern(keyword)).map(this::map).all();
+    }
+
+    static String likePattern(String keyword) {
+        return "%" + keyword.toLowerCase().replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
+    public Flux<CatalogProduct> findAvailable() {
+        return select(COLUMNS + " AND stock_quantity > 0 ORDER BY id").map(this::map).all();
+    }
+
+    public Mono<Boolean> sellerExists(long sellerId) {
+        return databaseClient.sql("SELECT id FROM sellers WHERE id = :id AND deleted_at IS NULL")
+                .bind("id", sellerId)
+                .map(row -> row.get(0, Long.class))
+                .first()
+                .hasElement();
+    }
+
+    private DatabaseClient.GenericExecuteSpec select(String sql) {
+        return databaseClient.sql(sql).filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)));
+    }
+
+    private CatalogProduct map(Readable row) {
+        CatalogProduct product = new CatalogProduct();
+        product.setId(row.get("id", Long.class));
+        product.setName(row.get("name", String.class));
+        product.setDescription(row.get("description", String.class));
+        product.setPrice(row.get("price", BigDecimal.class));
+        product.setStockQuantity(row.get("stock_quantity", Integer.class));
+        product.setImageUrl(row.get("image_url", String.class));
+        product.setCategory(row.get("category", String.class));
+        product.setBrand(row.get("brand", String.class));
+        product.setSellerId(row.get("seller_id", Long.class));
+        product.setFlashSale(Boolean.TRUE.equals(row.get("flash_sale", Boolean.class)));
+        product.setVersion(row.get("version", Long.class));
+        product.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        product.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return product;
+    }
+}
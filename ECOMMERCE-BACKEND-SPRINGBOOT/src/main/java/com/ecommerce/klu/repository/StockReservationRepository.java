@@ -0,0 +1,63 @@
+package com.ecommerce.klu.repository;
+
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.StockReservation;
+import com.ecommerce.klu.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.user = :user AND r.product = :product")
+    Optional<StockReservation> lockByUserAndProduct(@Param("user") User user, @Param("product") Product product);
+
+    // Creates an empty reservation unless the user already has one for the product. Concurrent
+    // callers wait on the unique key instead of failing on it.
+    @Modifying
+    @Query(value = "INSERT INTO stock_reservations (user_id, product_id, quantity, created_at, expires_at) "
+            + "VALUES (:userId, :productId, 0, :now, :expiresAt) ON DUPLICATE KEY UPDATE user_id = user_id", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("productId") Long productId,
+                       @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.user = :user ORDER BY r.product.id")
+    List<StockReservation> lockByUser(@Param("user") User user);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.id IN :ids AND r.expiresAt <= :now ORDER BY r.id")
+    List<StockReservation> lockExpired(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query("SELECT r.id FROM StockReservation r WHERE r.expiresAt <= :cutoff ORDER BY r.expiresAt")
+    List<Long> findIdsExpiringBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.product.id = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.product.id IN :productIds")
+    int deleteByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.user.id IN :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM stock_reservations WHERE product_id IN (SELECT id FROM products WHERE seller_id = :sellerId)", nativeQuery = true)
+    int deleteBySellerId(@Param("sellerId") Long sellerId);
+
+    @Query("SELECT r.id, r.expiresAt FROM StockReservation r WHERE r.id > :afterId ORDER BY r.id")
+    List<Object[]> findDeadlines(@Param("afterId") Long afterId, Pageable pageable);
+}
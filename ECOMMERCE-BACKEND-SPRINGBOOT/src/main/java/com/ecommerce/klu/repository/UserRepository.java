@@ -2,7 +2,13 @@ package com.ecommerce.klu.repository;
 
 import com.ecommerce.klu.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +18,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmailAndPassword(String email, String password);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Soft delete and purge work on the raw table: the entity's @SQLRestriction hides deleted rows.
+    @Modifying
+    @Query(value = "UPDATE users SET deleted_at = :now WHERE id = :id AND deleted_at IS NULL", nativeQuery = true)
+    int softDelete(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT id FROM users WHERE deleted_at < :cutoff AND purged_at IS NULL ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findPurgeable(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id IN (:ids) AND NOT EXISTS (SELECT 1 FROM orders o WHERE o.user_id = users.id) AND NOT EXISTS (SELECT 1 FROM orders_archive a WHERE a.user_id = users.id)", nativeQuery = true)
+    int deleteUnreferenced(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE users SET username = CONCAT('deleted-user-', id), email = CONCAT('deleted-user-', id, '@invalid'), password = NULL, first_name = NULL, last_name = NULL, phone = NULL, address = NULL, purged_at = :now WHERE id IN (:ids)", nativeQuery = true)
+    int anonymize(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+}
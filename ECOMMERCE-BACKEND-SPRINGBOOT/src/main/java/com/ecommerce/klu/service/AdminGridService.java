@@ -0,0 +1,254 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.AdminOrderRow;
+import com.ecommerce.klu.dto.AdminProductRow;
+import com.ecommerce.klu.dto.AdminSellerRow;
+import com.ecommerce.klu.dto.AdminUserRow;
+import com.ecommerce.klu.dto.GridPage;
+import com.ecommerce.klu.model.Order;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.Seller;
+import com.ecommerce.klu.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Paged admin grids. Each grid selects a constructor projection (no entity graphs), sorts and
+ * filters only on whitelisted, indexed columns, and fetches one row past the page to know
+ * whether there is a next page without counting.
+ *
+ * The total is exact when the page reaches the end of the result. Otherwise it is an estimate:
+ * table statistics for an unfiltered grid (MySQL), or a count capped at count-cap for filtered
+ * ones. Estimates are cached for count-ttl.
+ */
+@Service
+public class AdminGridService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.admin.grid.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${app.admin.grid.count-cap:10000}")
+    private int countCap;
+
+    @Value("${app.admin.grid.count-ttl:60s}")
+    private Duration countTtl;
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    private final Grid<User, AdminUserRow> users = new Grid<>("users", User.class, AdminUserRow.class,
+            root -> List.of(root.get("id"), root.get("username"), root.get("email"), root.get("firstName"),
+                    root.get("lastName"), root.get("role"), root.get("createdAt")),
+            Map.of("id", "id", "createdAt", "createdAt", "email", "email", "username", "username"),
+            Map.of("email", prefix("email"), "username", prefix("username")));
+
+    private final Grid<Seller, AdminSellerRow> sellers = new Grid<>("sellers", Seller.class, AdminSellerRow.class,
+            root -> List.of(root.get("id"), root.get("username"), root.get("email"), root.get("businessName"),
+                    root.get("firstName"), root.get("lastName"), root.get("createdAt")),
+            Map.of("id", "id", "createdAt", "createdAt", "email", "email", "businessName", "businessName"),
+            Map.of("email", prefix("email"), "username", prefix("username"), "businessName", prefix("businessName")));
+
+    private final Grid<Product, AdminProductRow> products = new Grid<>("products", Product.class, AdminProductRow.class,
+            root -> {
+                From<Product, Seller> seller = root.join("seller", JoinType.LEFT);
+                return List.of(root.get("id"), root.get("name"), root.get("category"), root.get("brand"),
+                        root.get("price"), root.get("stockQuantity"), seller.get("id"), seller.get("businessName"),
+                        root.get("createdAt"));
+            },
+            Map.of("id", "id", "createdAt", "createdAt", "name", "name", "price", "price"),
+            Map.of("category", equal(root -> root.get("category")), "sellerId", equal(root -> root.get("seller").get("id")),
+                    "name", prefix("name")));
+
+    private final Grid<Order, AdminOrderRow> orders = new Grid<>("orders", Order.class, AdminOrderRow.class,
+            root -> {
+                From<Order, User> user = root.join("user", JoinType.LEFT);
+                return List.of(root.get("id"), user.get("id"), user.get("email"), root.get("status"),
+                        root.get("totalAmount"), root.get("orderDate"));
+            },
+            Map.of("id", "id", "orderDate", "orderDate"),
+            Map.of("status", equal(root -> root.get("status")), "userId", equal(root -> root.get("user").get("id"))));
+
+    @Transactional(readOnly = true)
+    public GridPage<AdminUserRow> users(int page, int size, String sort, String direction, Map<String, String> filters) {
+        return query(users, page, size, sort, direction, filters);
+    }
+
+    @Transactional(readOnly = true)
+    public GridPage<AdminSellerRow> sellers(int page, int size, String sort, String direction, Map<String, String> filters) {
+        return query(sellers, page, size, sort, direction, filters);
+    }
+
+    @Transactional(readOnly = true)
+    public GridPage<AdminProductRow> products(int page, int size, String sort, String direction, Map<String, String> filters) {
+        return query(products, page, size, sort, direction, filters);
+    }
+
+    @Transactional(readOnly = true)
+    public GridPage<AdminOrderRow> orders(int page, int size, String sort, String direction, Map<String, String> filters) {
+        return query(orders, page, size, sort, direction, filters);
+    }
+
+    private <E, R> GridPage<R> query(Grid<E, R> grid, int page, int size, String sort, String direction,
+                                     Map<String, String> filters) {
+        page = Math.max(page, 0);
+        size = Math.max(1, Math.min(size, maxPageSize));
+        String sortAttribute = grid.sortable.get(sort == null ? "id" : sort);
+        if (sortAttribute == null) {
+            throw new IllegalArgumentException("Cannot sort " + grid.name + " by " + sort + "; use one of " + grid.sortable.keySet());
+        }
+        boolean ascending = "asc".equalsIgnoreCase(direction);
+        Map<String, String> applied = applicableFilters(grid, filters);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> cq = cb.createQuery(grid.rowType);
+        Root<E> root = cq.from(grid.entityType);
+        cq.select(cb.construct(grid.rowType, grid.columns.apply(root).toArray(Selection[]::new)));
+        cq.where(predicates(grid, cb, root, applied));
+        Path<?> sortPath = root.get(sortAttribute);
+        Path<?> idPath = root.get("id");
+        // Ties on the sort column are broken by id so pages don't overlap or skip rows.
+        cq.orderBy(ascending ? cb.asc(sortPath) : cb.desc(sortPath), ascending ? cb.asc(idPath) : cb.desc(idPath));
+
+        List<R> rows = entityManager.createQuery(cq)
+                .setFirstResult(page * size)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = new ArrayList<>(rows.subList(0, size));
+        }
+
+        if (!hasNext && (!rows.isEmpty() || page == 0)) {
+            return new GridPage<>(rows, page, size, false, (long) page * size + rows.size(), true);
+        }
+        long estimate = Math.max(estimateTotal(grid, applied), (long) page * size + rows.size() + (hasNext ? 1 : 0));
+        return new GridPage<>(rows, page, size, hasNext, estimate, false);
+    }
+
+    private <E, R> Map<String, String> applicableFilters(Grid<E, R> grid, Map<String, String> filters) {
+        // Sorted so equivalent requests share a cached count.
+        Map<String, String> applied = new TreeMap<>();
+        if (filters != null) {
+            filters.forEach((name, value) -> {
+                if (grid.filters.containsKey(name) && value != null && !value.isBlank()) {
+                    applied.put(name, value.trim());
+                }
+            });
+        }
+        return applied;
+    }
+
+    private <E, R> Predicate[] predicates(Grid<E, R> grid, CriteriaBuilder cb, Root<E> root, Map<String, String> filters) {
+        List<Predicate> predicates = new ArrayList<>();
+        filters.forEach((name, value) -> predicates.add(grid.filters.get(name).apply(cb, root, value)));
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private <E, R> long estimateTotal(Grid<E, R> grid, Map<String, String> filters) {
+        String key = grid.name + filters;
+        long now = System.nanoTime();
+        CachedCount cached = counts.get(key);
+        if (cached != null && now - cached.computedAt < countTtl.toNanos()) {
+            return cached.value;
+        }
+        Long value = filters.isEmpty() ? tableStatistics(grid.name) : null;
+        if (value == null) {
+            value = cappedCount(grid, filters);
+        }
+        if (counts.size() >= 1000) {
+            counts.clear();
+        }
+        counts.put(key, new CachedCount(value, now));
+        return value;
+    }
+
+    // InnoDB's row estimate; null where information_schema has no such column (H2).
+    private Long tableStatistics(String table) {
+        try {
+            return jdbcTemplate.queryForObject("SELECT TABLE_ROWS FROM information_schema.TABLES"
+                    + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Long.class, table);
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    // SELECT COUNT(*) FROM (SELECT id ... LIMIT cap): the database stops at the cap and only
+    // the count comes back.
+    private <E, R> long cappedCount(Grid<E, R> grid, Map<String, String> filters) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        JpaCriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        JpaSubQuery<Long> matching = cq.subquery(Long.class);
+        Root<E> root = matching.from(grid.entityType);
+        Path<Long> id = root.get("id");
+        id.alias("id");
+        matching.select(id);
+        matching.where(predicates(grid, cb, root, filters));
+        matching.fetch(countCap);
+        cq.from(matching);
+        cq.select(cb.count());
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    private static <E> Filter<E> prefix(String attribute) {
+        return (cb, root, value) -> {
+            String escaped = value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            return cb.like(root.get(attribute), escaped + "%", '\\');
+        };
+    }
+
+    private static <E> Filter<E> equal(Function<Root<E>, Path<?>> path) {
+        return (cb, root, value) -> {
+            Path<?> target = path.apply(root);
+            Class<?> type = target.getJavaType();
+            try {
+                Object converted = type == Long.class ? Long.valueOf(value)
+                        : type == Integer.class ? Integer.valueOf(value) : value;
+                return cb.equal(target, converted);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for filter: " + value);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface Filter<E> {
+        Predicate apply(CriteriaBuilder cb, Root<E> root, String value);
+    }
+
+    private record Grid<E, R>(String name, Class<E> entityType, Class<R> rowType,
+                              Function<Root<E>, List<Selection<?>>> columns,
+                              Map<String, String> sortable, Map<String, Filter<E>> filters) {
+    }
+
+    private record CachedCount(long value, long computedAt) {
+    }
+}
@@ -0,0 +1,364 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.AutocompleteSuggestion;
+import com.ecommerce.klu.dto.OrderItemDTO;
+import com.ecommerce.klu.event.OrderPlacedEvent;
+import com.ecommerce.klu.event.ProductChangedEvent;
+import com.ecommerce.klu.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Search-box suggestions from an in-memory trie over product names, brands and categories.
+ * Every phrase is indexed from the start of each of its words ("galaxy" finds "Samsung Galaxy
+ * S21"), and every trie node keeps its own top-K suggestions by popularity, so a lookup is a
+ * walk down the typed prefix plus a copy of at most K entries.
+ *
+ * Popularity is units sold plus one for products, and the sum over their products for brands
+ * and categories. Product edits and sales only recompute the top lists on the paths of the
+ * phrases involved.
+ */
+@Service
+public class AutocompleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteService.class);
+
+    // Prefixes longer than this are matched on their first MAX_KEY_LENGTH characters.
+    private static final int MAX_KEY_LENGTH = 32;
+
+    private static final int MAX_WORDS_INDEXED = 6;
+
+    private static final Suggestion[] NONE = new Suggestion[0];
+
+    private static final Comparator<Suggestion> BY_POPULARITY = Comparator.comparingLong((Suggestion s) -> -s.weight)
+            .thenComparing(s -> s.text)
+            .thenComparing(s -> s.productId == null ? 0 : s.productId);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.autocomplete.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.autocomplete.top-k:10}")
+    private int topK;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Everything below is guarded by lock.
+    private final Node root = new Node();
+    private final Map<Long, IndexedProduct> products = new HashMap<>();
+    private final Map<String, Suggestion> groups = new HashMap<>();
+    private boolean bulkLoading;
+
+    public List<AutocompleteSuggestion> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (prefix.length() > MAX_KEY_LENGTH) {
+            prefix = prefix.substring(0, MAX_KEY_LENGTH);
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            List<AutocompleteSuggestion> suggestions = new ArrayList<>(Math.min(limit, node.top.length));
+            for (int i = 0; i < node.top.length && i < limit; i++) {
+                Suggestion s = node.top[i];
+                suggestions.add(new AutocompleteSuggestion(s.text, s.type, s.productId));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Product product = event.getProduct();
+        lock.writeLock().lock();
+        try {
+            long units = remove(event.getProductId());
+            if (product != null) {
+                add(product.getId(), product.getName(), product.getBrand(), product.getCategory(), units);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (OrderItemDTO item : event.getOrder().getOrderItems()) {
+                IndexedProduct indexed = products.get(item.getProductId());
+                if (indexed != null && item.getQuantity() != null) {
+                    addWeight(indexed.suggestion, item.getQuantity());
+                    addWeight(indexed.brand, item.getQuantity());
+                    addWeight(indexed.category, item.getQuantity());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        Map<Long, Long> units = new HashMap<>();
+        for (String items : List.of("order_items", "order_items_archive")) {
+            jdbcTemplate.query("SELECT product_id, SUM(quantity) FROM " + items + " GROUP BY product_id",
+                    (RowCallbackHandler) row -> units.merge(row.getLong(1), row.getLong(2), Long::sum));
+        }
+        lock.writeLock().lock();
+        try {
+            // Top lists are built once at the end rather than along every path as phrases go in.
+            bulkLoading = true;
+            jdbcTemplate.query("SELECT id, name, brand, category FROM products WHERE deleted_at IS NULL",
+                    (RowCallbackHandler) row -> {
+                        long id = row.getLong(1);
+                        remove(id);
+                        add(id, row.getString(2), row.getString(3), row.getString(4), units.getOrDefault(id, 0L));
+                    });
+            bulkLoading = false;
+            rebuild(root);
+            log.info("Indexed {} products for autocomplete in {} ms", products.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Long id, String name, String brand, String category, long units) {
+        if (normalize(name).isEmpty()) {
+            return;
+        }
+        IndexedProduct indexed = new IndexedProduct();
+        indexed.suggestion = new Suggestion(name.trim(), "PRODUCT", id, units + 1);
+        index(indexed.suggestion);
+        indexed.brand = joinGroup("BRAND", brand, units + 1);
+        indexed.category = joinGroup("CATEGORY", category, units + 1);
+        products.put(id, indexed);
+    }
+
+    // Unindexes a product and returns its units sold so a re-index keeps its popularity.
+    private long remove(Long id) {
+        IndexedProduct indexed = products.remove(id);
+        if (indexed == null) {
+            return 0;
+        }
+        unindex(indexed.suggestion);
+        leaveGroup(indexed.brand, indexed.suggestion.weight);
+        leaveGroup(indexed.category, indexed.suggestion.weight);
+        return indexed.suggestion.weight - 1;
+    }
+
+    private Suggestion joinGroup(String type, String text, long weight) {
+        if (normalize(text).isEmpty()) {
+            return null;
+        }
+        String key = type + ":" + normalize(text);
+        Suggestion group = groups.get(key);
+        if (group == null) {
+            group = new Suggestion(text.trim(), type, null, weight);
+            group.members = 1;
+            groups.put(key, group);
+            index(group);
+        } else {
+            group.members++;
+            addWeight(group, weight);
+        }
+        return group;
+    }
+
+    private void leaveGroup(Suggestion group, long weight) {
+        if (group == null) {
+            return;
+        }
+        if (--group.members == 0) {
+            groups.remove(group.type + ":" + normalize(group.text));
+            unindex(group);
+        } else {
+            addWeight(group, -weight);
+        }
+    }
+
+    private void addWeight(Suggestion suggestion, long delta) {
+        if (suggestion == null || delta == 0) {
+            return;
+        }
+        suggestion.weight += delta;
+        for (String key : suggestion.keys) {
+            refresh(path(key, false));
+        }
+    }
+
+    private void index(Suggestion suggestion) {
+        for (String key : suggestion.keys) {
+            List<Node> path = path(key, true);
+            path.get(path.size() - 1).terminals.add(suggestion);
+            refresh(path);
+        }
+    }
+
+    private void unindex(Suggestion suggestion) {
+        for (String key : suggestion.keys) {
+            List<Node> path = path(key, false);
+            if (path.size() == key.length() + 1) {
+                path.get(path.size() - 1).terminals.remove(suggestion);
+            }
+            refresh(path);
+            // Drop nodes left with nothing under them, deepest first.
+            for (int i = path.size() - 1; i > 0; i--) {
+                Node node = path.get(i);
+                if (!node.terminals.isEmpty() || !node.children.isEmpty()) {
+                    break;
+                }
+                path.get(i - 1).children.remove(key.charAt(i - 1));
+            }
+        }
+    }
+
+    // Nodes from the root along key; stops early if a node is missing and create is false.
+    private List<Node> path(String key, boolean create) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                if (!create) {
+                    break;
+                }
+                child = new Node();
+                node.children.put(key.charAt(i), child);
+            }
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    // Rebuilds the top lists bottom-up: each node's list is its own phrases plus its children's lists.
+    private void refresh(List<Node> path) {
+        if (bulkLoading) {
+            return;
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            computeTop(path.get(i));
+        }
+    }
+
+    private void rebuild(Node node) {
+        for (Node child : node.children.values()) {
+            rebuild(child);
+        }
+        computeTop(node);
+    }
+
+    private void computeTop(Node node) {
+        Set<Suggestion> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+        candidates.addAll(node.terminals);
+        for (Node child : node.children.values()) {
+            Collections.addAll(candidates, child.top);
+        }
+        node.top = candidates.isEmpty() ? NONE
+                : candidates.stream().sorted(BY_POPULARITY).limit(topK).toArray(Suggestion[]::new);
+    }
+
+    // Lower-case, letters and digits only, single spaces between words.
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            } else if (normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        return normalized.toString().trim();
+    }
+
+    // The phrase from each word start onwards, cut to MAX_KEY_LENGTH.
+    private static List<String> keys(String text) {
+        String normalized = normalize(text);
+        List<String> keys = new ArrayList<>();
+        int start = 0;
+        while (start >= 0 && keys.size() < MAX_WORDS_INDEXED) {
+            String key = normalized.substring(start, Math.min(normalized.length(), start + MAX_KEY_LENGTH)).trim();
+            if (!key.isEmpty() && !keys.contains(key)) {
+                keys.add(key);
+            }
+            int space = normalized.indexOf(' ', start);
+            start = space < 0 ? -1 : space + 1;
+        }
+        return keys;
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Suggestion> terminals = new ArrayList<>(1);
+        private Suggestion[] top = NONE;
+    }
+
+    private static class Suggestion {
+        private final String text;
+        private final String type;
+        private final Long productId;
+        private final List<String> keys;
+        private long weight;
+        private int members;
+
+        Suggestion(String text, String type, Long productId, long weight) {
+            this.text = text;
+            this.type = type;
+            this.productId = productId;
+            this.keys = keys(text);
+            this.weight = weight;
+        }
+    }
+
+    private static class IndexedProduct {
+        private Suggestion suggestion;
+        private Suggestion brand;
+        private Suggestion category;
+    }
+}
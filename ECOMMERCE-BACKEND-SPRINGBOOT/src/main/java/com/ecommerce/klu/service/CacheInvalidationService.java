@@ -0,0 +1,226 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.event.ProductChangedEvent;
+import com.ecommerce.klu.model.CacheInvalidation;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.repository.CacheInvalidationRepository;
+import com.ecommerce.klu.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Keeps the per-instance product state (ProductCache, the autocomplete index) coherent when
+ * several backend instances share the database, without a message broker. Every product write
+ * adds a cache_invalidations row in its own transaction. Every instance polls the table for
+ * rows other instances wrote, re-reads those products and republishes ProductChangedEvent
+ * locally.
+ *
+ * Staleness is bounded: a poll that starts at time S sees every write committed before S, so
+ * after it succeeds ProductCache may serve entries until S + max-staleness. If polls keep
+ * failing the cache is bypassed from then on until one succeeds.
+ *
+ * Rows are read in id order. Ids are assigned at insert, just before commit, so a lower id can
+ * become visible after a higher one; such a gap is re-read on every poll until it fills or
+ * gap-timeout passes (a rolled-back write leaves a gap for good).
+ */
+@Service
+public class CacheInvalidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    @Autowired
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache-invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache-invalidation.node-id:}")
+    private String nodeId;
+
+    @Value("${app.cache-invalidation.max-staleness:5s}")
+    private Duration maxStaleness;
+
+    @Value("${app.cache-invalidation.gap-timeout:10s}")
+    private Duration gapTimeout;
+
+    @Value("${app.cache-invalidation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.cache-invalidation.retention:1h}")
+    private Duration retention;
+
+    private Timer lag;
+
+    // Poll state, guarded by this. Every row up to cursor has been applied or given up on;
+    // applied holds the applied ids above it, highest is the largest of those.
+    private long cursor;
+    private long highest;
+    private final TreeSet<Long> applied = new TreeSet<>();
+    private Long gapNoticedAt;
+
+    private volatile long lastPollStartedAt = System.nanoTime();
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        if (nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        lag = Timer.builder("cache.invalidations.lag")
+                .description("Time from a write on another instance to its eviction here")
+                .register(meterRegistry);
+        meterRegistry.gauge("cache.invalidations.poll.age", this,
+                service -> (System.nanoTime() - service.lastPollStartedAt) / 1e9);
+        long started = System.nanoTime();
+        // Caches start empty, so earlier writes don't matter.
+        synchronized (this) {
+            cursor = cacheInvalidationRepository.findMaxId();
+            highest = cursor;
+        }
+        lastPollStartedAt = started;
+        productCache.coherentUntil(started + maxStaleness.toNanos());
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // Runs just before the write's transaction commits, so the row commits (or rolls back) with it.
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (enabled && !event.isRemote()) {
+            cacheInvalidationRepository.save(new CacheInvalidation(event.getProductId(), nodeId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache-invalidation.poll-interval-ms:1000}")
+    public void scheduledPoll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            poll();
+        } catch (DataAccessException e) {
+            log.warn("Could not poll cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    // Applies the rows that became visible since the last poll; returns the number of products
+    // other instances changed.
+    public synchronized int poll() {
+        long started = System.nanoTime();
+        List<CacheInvalidation> rows = new ArrayList<>();
+        if (!applied.isEmpty()) {
+            rows.addAll(cacheInvalidationRepository.findBetween(cursor, highest));
+        }
+        long after = highest;
+        List<CacheInvalidation> batch;
+        do {
+            batch = cacheInvalidationRepository.findAfter(after, PageRequest.of(0, batchSize));
+            rows.addAll(batch);
+            if (!batch.isEmpty()) {
+                after = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize);
+
+        Set<Long> productIds = new LinkedHashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (CacheInvalidation row : rows) {
+            if (!applied.add(row.getId())) {
+                continue;
+            }
+            highest = Math.max(highest, row.getId());
+            if (!nodeId.equals(row.getNode())) {
+                productIds.add(row.getProductId());
+                lag.record(Duration.between(row.getCreatedAt(), now));
+            }
+        }
+        if (!productIds.isEmpty()) {
+            republish(productIds);
+        }
+        advanceCursor(started);
+        lastPollStartedAt = started;
+        productCache.coherentUntil(started + maxStaleness.toNanos());
+        return productIds.size();
+    }
+
+    @Scheduled(cron = "${app.cache-invalidation.purge-cron:0 */10 * * * *}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> cacheInvalidationRepository.deleteCreatedBefore(cutoff));
+        log.debug("Purged {} cache invalidations", deleted);
+    }
+
+    // Loads the current rows in one transaction so the events' listeners run after it commits.
+    private void republish(Set<Long> productIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Product> products = new HashMap<>();
+            productRepository.findAllById(productIds).forEach(product -> products.put(product.getId(), product));
+            productIds.forEach(id -> eventPublisher.publishEvent(new ProductChangedEvent(id, products.get(id), true)));
+        });
+    }
+
+    private void advanceCursor(long now) {
+        while (!applied.isEmpty()) {
+            long first = applied.first();
+            if (first == cursor + 1) {
+                applied.pollFirst();
+                cursor = first;
+                gapNoticedAt = null;
+                continue;
+            }
+            if (gapNoticedAt == null) {
+                gapNoticedAt = now;
+            }
+            if (now - gapNoticedAt < gapTimeout.toNanos()) {
+                break;
+            }
+            log.debug("Giving up on cache invalidation ids {} to {}", cursor + 1, first - 1);
+            cursor = first - 1;
+            gapNoticedAt = null;
+        }
+    }
+}
@@ -17,11 +17,20 @@ public class CartService {
     @Autowired
     private CartItemRepository cartItemRepository;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
     public List<CartItem> getCartItemsByUser(User user) {
-        return cartItemRepository.findByUser(user);
+        // A product soft-deleted while this cart was being read loads as null; leave it out.
+        return cartItemRepository.findByUser(user).stream()
+                .filter(cartItem -> cartItem.getProduct() != null)
+                .toList();
     }
 
     public CartItem addToCart(User user, Product product, Integer quantity) {
+        if (!stockReservationService.reserve(user, product, quantity)) {
+            throw new InsufficientStockException(product.getId());
+        }
         Optional<CartItem> existingCartItem = cartItemRepository.findByUserAndProduct(user, product);
 
         if (existingCartItem.isPresent()) {
@@ -41,6 +50,11 @@ public class CartService {
         Optional<CartItem> cartItemOpt = cartItemRepository.findById(cartItemId);
         if (cartItemOpt.isPresent()) {
             CartItem cartItem = cartItemOpt.get();
+            int change = quantity - cartItem.getQuantity();
+            if (change > 0 && !stockReservationService.reserve(cartItem.getUser(), cartItem.getProduct(), change)) {
+                throw new InsufficientStockException(cartItem.getProduct().getId());
+            }
+            stockReservationService.release(cartItem.getUser(), cartItem.getProduct(), -change);
             cartItem.setQuantity(quantity);
             return cartItemRepository.save(cartItem);
         }
@@ -48,10 +62,14 @@ public class CartService {
     }
 
     public void removeFromCart(Long cartItemId) {
-        cartItemRepository.deleteById(cartItemId);
+        cartItemRepository.findById(cartItemId).ifPresent(cartItem -> {
+            stockReservationService.release(cartItem.getUser(), cartItem.getProduct(), cartItem.getQuantity());
+            cartItemRepository.delete(cartItem);
+        });
     }
 
     public void clearCart(User user) {
+        stockReservationService.releaseAll(user);
         cartItemRepository.deleteByUser(user);
     }
 }
\ No newline at end of file
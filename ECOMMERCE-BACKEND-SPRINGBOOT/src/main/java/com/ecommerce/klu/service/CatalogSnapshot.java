@@ -0,0 +1,193 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.Seller;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary file of product rows:
+ * [magic][format][database][writtenAt][since][count][crc32c of body][body], where the body is
+ * count products of fixed-order fields (strings and decimals length-prefixed, -1 for null). The
+ * seller is stored as its id only. {@code database} identifies the database the rows came from,
+ * so a file is never restored against another one that happens to share its ids.
+ *
+ * {@code since} is the snapshot's version: every row reflects the database as of at least that
+ * time, so a reader is current once it has re-read the products updated or deleted since then.
+ * Files are written to a temporary name and renamed into place. They are read into a heap
+ * buffer rather than mapped: a mapping stays open until it is garbage collected, and on Windows
+ * an open mapping makes the next write's rename over the file fail.
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x50434154; // "PCAT"
+    private static final int FORMAT = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 16 + 8 + 12 + 4 + 4;
+
+    private CatalogSnapshot() {
+    }
+
+    public record Contents(UUID database, Instant writtenAt, LocalDateTime since, List<Product> products) {
+    }
+
+    public static void write(Path file, UUID database, LocalDateTime since, List<Product> products) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(products.size() * 256);
+        DataOutputStream out = new DataOutputStream(body);
+        for (Product product : products) {
+            out.writeLong(product.getId());
+            writeString(out, product.getName());
+            writeString(out, product.getDescription());
+            writeDecimal(out, product.getPrice());
+            out.writeInt(product.getStockQuantity() == null ? -1 : product.getStockQuantity());
+            writeString(out, product.getImageUrl());
+            writeString(out, product.getCategory());
+            writeString(out, product.getBrand());
+            out.writeLong(product.getSeller() == null ? -1 : product.getSeller().getId());
+            out.writeBoolean(product.isFlashSale());
+            out.writeLong(product.getVersion() == null ? -1 : product.getVersion());
+            writeTime(out, product.getCreatedAt());
+            writeTime(out, product.getUpdatedAt());
+        }
+        out.flush();
+        byte[] bytes = body.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(FORMAT);
+        header.putLong(database.getMostSignificantBits()).putLong(database.getLeastSignificantBits());
+        header.putLong(Instant.now().toEpochMilli());
+        header.putLong(since.toEpochSecond(ZoneOffset.UTC)).putInt(since.getNano());
+        header.putInt(products.size()).putInt((int) crc.getValue()).flip();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header, ByteBuffer.wrap(bytes)};
+            while (buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Products come back with only the seller id set on their Seller.
+    public static Contents read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                throw new IOException(file + " is not a catalog snapshot of format " + FORMAT);
+            }
+            UUID database = new UUID(buffer.getLong(), buffer.getLong());
+            Instant writtenAt = Instant.ofEpochMilli(buffer.getLong());
+            LocalDateTime since = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            int count = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice());
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new IOException(file + " fails its checksum");
+            }
+            List<Product> products = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Product product = new Product();
+                product.setId(buffer.getLong());
+                product.setName(readString(buffer));
+                product.setDescription(readString(buffer));
+                product.setPrice(readDecimal(buffer));
+                int stock = buffer.getInt();
+                product.setStockQuantity(stock < 0 ? null : stock);
+                product.setImageUrl(readString(buffer));
+                product.setCategory(readString(buffer));
+                product.setBrand(readString(buffer));
+                long sellerId = buffer.getLong();
+                if (sellerId >= 0) {
+                    Seller seller = new Seller();
+                    seller.setId(sellerId);
+                    product.setSeller(seller);
+                }
+                product.setFlashSale(buffer.get() != 0);
+                long version = buffer.getLong();
+                product.setVersion(version < 0 ? null : version);
+                product.setCreatedAt(readTime(buffer));
+                product.setUpdatedAt(readTime(buffer));
+                products.add(product);
+            }
+            return new Contents(database, writtenAt, since, products);
+        } catch (BufferUnderflowException e) {
+            throw new IOException(file + " is truncated", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        buffer.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), buffer.getInt());
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value == null ? Long.MIN_VALUE : value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value == null ? 0 : value.getNano());
+    }
+
+    private static LocalDateTime readTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,190 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.Seller;
+import com.ecommerce.klu.repository.SellerRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Warm start for ProductCache. The cached products are written to a CatalogSnapshot file on an
+ * interval and at shutdown. On startup the file is read back before the web server takes
+ * traffic. The restored ids are then checked against the products table in id batches:
+ * products gone since are dropped, products updated since the snapshot's version are re-read
+ * in one query, and the rest go straight into the cache.
+ *
+ * A snapshot written against another database (another spring.datasource.url or user, say the
+ * embedded profile's H2 file and MySQL sharing app.data-dir) is ignored.
+ *
+ * Restored entries count as loaded at restore time, so like any other entry they are served
+ * for the cache's ttl and then re-read: a warm start saves the burst of misses right after
+ * startup, not the reads after it. Keeping them longer would let their stock counts grow older
+ * than ttl, which is what bounds the staleness of every cached entry.
+ *
+ * Any problem with the file or the database while restoring only means a cold start.
+ */
+@Service
+// Invalidation polling starts from the last row before the restore reads products.updated_at,
+// so a write made during the restore is caught by one or the other.
+@DependsOn("cacheInvalidationService")
+public class CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private static final int CHECK_BATCH_SIZE = 1000;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${app.catalog-snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.catalog-snapshot.file:${app.data-dir}/catalog-snapshot.bin}")
+    private Path file;
+
+    @Value("${spring.datasource.url}")
+    private String databaseUrl;
+
+    @Value("${spring.datasource.username:}")
+    private String databaseUser;
+
+    @Value("${app.catalog-snapshot.max-age:1d}")
+    private Duration maxAge;
+
+    // Margin for clocks of the instances that wrote products.updated_at.
+    @Value("${app.catalog-snapshot.clock-skew:5s}")
+    private Duration clockSkew;
+
+    @PostConstruct
+    void load() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            restore();
+        } catch (IOException | DataAccessException e) {
+            log.warn("Starting with a cold product cache: {}", e.getMessage());
+        }
+    }
+
+    // Returns the number of products put into the cache (restored or re-read).
+    public int restore() throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        CatalogSnapshot.Contents contents = CatalogSnapshot.read(file);
+        if (!contents.database().equals(database())) {
+            log.info("Ignoring catalog snapshot {} written against another database", file);
+            return 0;
+        }
+        if (contents.writtenAt().isBefore(Instant.now().minus(maxAge))) {
+            log.info("Ignoring catalog snapshot written at {}", contents.writtenAt());
+            return 0;
+        }
+
+        Set<Long> current = new HashSet<>();
+        Set<Long> changed = new HashSet<>();
+        Set<Long> sellerIds = new HashSet<>();
+        List<Product> snapshot = contents.products();
+        for (int from = 0; from < snapshot.size(); from += CHECK_BATCH_SIZE) {
+            List<Long> ids = snapshot.subList(from, Math.min(from + CHECK_BATCH_SIZE, snapshot.size())).stream()
+                    .map(Product::getId).toList();
+            jdbcTemplate.query("SELECT id, updated_at FROM products WHERE id IN (:ids) AND deleted_at IS NULL",
+                    Map.of("ids", ids), (RowCallbackHandler) row -> {
+                        Timestamp updatedAt = row.getTimestamp(2);
+                        if (updatedAt != null && updatedAt.toLocalDateTime().isBefore(contents.since())) {
+                            current.add(row.getLong(1));
+                        } else {
+                            changed.add(row.getLong(1));
+                        }
+                    });
+        }
+        for (Product product : snapshot) {
+            if (current.contains(product.getId()) && product.getSeller() != null) {
+                sellerIds.add(product.getSeller().getId());
+            }
+        }
+        Map<Long, Seller> sellers = new HashMap<>();
+        sellerRepository.findAllById(sellerIds).forEach(seller -> sellers.put(seller.getId(), seller));
+
+        List<Product> restored = new ArrayList<>(current.size());
+        for (Product product : snapshot) {
+            if (!current.contains(product.getId())) {
+                continue;
+            }
+            if (product.getSeller() != null) {
+                Seller seller = sellers.get(product.getSeller().getId());
+                if (seller == null) {
+                    continue;
+                }
+                product.setSeller(seller);
+            }
+            restored.add(product);
+        }
+        productCache.warm(restored);
+        int reread = productCache.getAll(new ArrayList<>(changed)).size();
+        log.info("Warmed the product cache from {}: {} restored, {} re-read, {} dropped in {} ms", file,
+                restored.size(), reread, snapshot.size() - restored.size() - reread,
+                (System.nanoTime() - started) / 1_000_000);
+        return restored.size() + reread;
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog-snapshot.interval-ms:300000}",
+            initialDelayString = "${app.catalog-snapshot.interval-ms:300000}")
+    public void writeSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        // Cached entries were read from the database at most ttl ago.
+        LocalDateTime since = LocalDateTime.now().minus(productCache.ttl()).minus(clockSkew);
+        List<Product> products = productCache.entries();
+        try {
+            CatalogSnapshot.write(file, database(), since, products);
+            log.debug("Wrote {} products to the catalog snapshot", products.size());
+        } catch (IOException e) {
+            log.warn("Could not write the catalog snapshot to {}: {}", file, e.getMessage());
+        }
+    }
+
+    // A name-based UUID rather than the URL itself, which may carry credentials.
+    private UUID database() {
+        return UUID.nameUUIDFromBytes((databaseUser + "@" + databaseUrl).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @PreDestroy
+    void writeOnShutdown() {
+        writeSnapshot();
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.klu.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel of ids with deadlines (epoch millis). Adding is O(1) and each tick only
+ * looks at one slot, so tracking hundreds of thousands of pending expiries costs nothing
+ * between ticks. Re-adding an id with a later deadline leaves the old registration behind;
+ * callers must treat returned ids as candidates and re-check the real deadline.
+ */
+public class ExpiryWheel {
+
+    private final long tickMillis;
+    private final List<Map<Long, Long>> slots;
+    private long lastTick;
+
+    public ExpiryWheel(int slotCount, long tickMillis, long now) {
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new HashMap<>());
+        }
+        this.lastTick = now / tickMillis;
+    }
+
+    public synchronized void add(long id, long deadline) {
+        // File under the first tick boundary at or after the deadline, so the entry is due by
+        // the time its slot comes round, and never into a slot the cursor has already passed.
+        long tick = Math.max((deadline + tickMillis - 1) / tickMillis, lastTick + 1);
+        slots.get((int) (tick % slots.size())).put(id, deadline);
+    }
+
+    public synchronized List<Long> advance(long now) {
+        List<Long> due = new ArrayList<>();
+        long currentTick = now / tickMillis;
+        long ticks = Math.min(currentTick - lastTick, slots.size());
+        for (long t = 1; t <= ticks; t++) {
+            Iterator<Map.Entry<Long, Long>> entries = slots.get((int) ((lastTick + t) % slots.size())).entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Long, Long> entry = entries.next();
+                if (entry.getValue() <= now) {
+                    due.add(entry.getKey());
+                    entries.remove();
+                }
+            }
+        }
+        lastTick = Math.max(lastTick, currentTick);
+        return due;
+    }
+
+    public synchronized int size() {
+        int size = 0;
+        for (Map<Long, Long> slot : slots) {
+            size += slot.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,267 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.ProductStockShard;
+import com.ecommerce.klu.repository.ProductRepository;
+import com.ecommerce.klu.repository.ProductStockShardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Flash-sale mode for hot products: the product's stock is split over N rows in
+ * product_stock_shards and each purchase decrements one randomly chosen shard, so concurrent
+ * checkouts lock different rows instead of queueing on the single products row.
+ *
+ * When no unlocked shard can cover a purchase, all shards are locked and the remaining
+ * stock is spread evenly again. products.stock_quantity is kept as the reconciled total
+ * (refreshed on a short schedule) so catalog reads still see roughly the right number.
+ *
+ * A rebalance waits for the shard locks only while its transaction holds no shard yet. A
+ * group-commit batch keeps the shards its earlier orders took until it commits, and two batches
+ * blocking on each other's shards would deadlock, so a transaction that already holds one locks
+ * with NOWAIT instead, retries briefly, and otherwise fails the purchase with
+ * CannotAcquireLockException (the batch then places that order on its own).
+ */
+@Service
+public class FlashSaleStockService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlashSaleStockService.class);
+
+    // Transaction resource key, bound while the transaction holds a shard lock.
+    private static final Object SHARDS_HELD = new Object();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.flash-sale.default-shards:16}")
+    private int defaultShards;
+
+    @Value("${app.flash-sale.max-shards:256}")
+    private int maxShards;
+
+    @Value("${app.flash-sale.rebalance-attempts:5}")
+    private int rebalanceAttempts;
+
+    @Value("${app.flash-sale.rebalance-retry-ms:5}")
+    private long rebalanceRetryMillis;
+
+    // Shard count by product id for every product currently in flash-sale mode.
+    private final Map<Long, Integer> shardCounts = new ConcurrentHashMap<>();
+
+    public boolean isActive(Long productId) {
+        return shardCounts.containsKey(productId);
+    }
+
+    public int defaultShards() {
+        return defaultShards;
+    }
+
+    // Returns null when the product has no shards, i.e. its stock lives on the products row.
+    @Transactional
+    public Boolean decrement(Long productId, int quantity) {
+        Integer shards = shardCounts.get(productId);
+        if (shards == null) {
+            return null;
+        }
+        // Start at a random shard and skip rows other checkouts hold, so a purchase usually
+        // locks exactly one shard; see the class comment for the rebalance.
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        List<Integer> shard = shardRepository.lockAvailableShard(productId, start, quantity);
+        if (shard.isEmpty() && start > 0) {
+            shard = shardRepository.lockAvailableShard(productId, 0, quantity);
+        }
+        if (!shard.isEmpty() && shardRepository.decrement(productId, shard.get(0), quantity) == 1) {
+            holdingShards();
+            return true;
+        }
+        return rebalanceAndTake(productId, quantity);
+    }
+
+    @Transactional
+    public boolean increment(Long productId, int quantity) {
+        Integer shards = shardCounts.get(productId);
+        if (shards == null) {
+            return false;
+        }
+        if (shardRepository.increment(productId, ThreadLocalRandom.current().nextInt(shards), quantity) == 1) {
+            return true;
+        }
+        shardCounts.remove(productId);
+        return false;
+    }
+
+    private Boolean rebalanceAndTake(Long productId, int quantity) {
+        List<Object[]> shards = TransactionSynchronizationManager.hasResource(SHARDS_HELD)
+                ? lockShardsWithoutWaiting(productId) : shardRepository.lockShards(productId);
+        if (shards.isEmpty()) {
+            // Flash sale ended on another instance.
+            shardCounts.remove(productId);
+            return null;
+        }
+        long total = 0;
+        for (Object[] shard : shards) {
+            total += ((Number) shard[1]).longValue();
+        }
+        if (total < quantity) {
+            return false;
+        }
+        holdingShards();
+        long remaining = total - quantity;
+        int count = shards.size();
+        for (int i = 0; i < count; i++) {
+            int index = ((Number) shards.get(i)[0]).intValue();
+            int share = (int) (remaining / count + (i < remaining % count ? 1 : 0));
+            shardRepository.setQuantity(productId, index, share);
+        }
+        return true;
+    }
+
+    // Notes on the transaction that it holds shard locks until it completes.
+    private void holdingShards() {
+        if (TransactionSynchronizationManager.hasResource(SHARDS_HELD)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(SHARDS_HELD, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SHARDS_HELD);
+            }
+        });
+    }
+
+    // Runs on the transaction's connection through JDBC: a lock failure raised by Hibernate would
+    // mark the whole transaction rollback-only, and the retry needs it to carry on. Drivers report
+    // a NOWAIT miss as a lock or a timeout error, so both count.
+    private List<Object[]> lockShardsWithoutWaiting(Long productId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return jdbcTemplate.query("SELECT shard_index, quantity FROM product_stock_shards WHERE product_id = ? "
+                        + "ORDER BY shard_index FOR UPDATE NOWAIT",
+                        (row, i) -> new Object[] {row.getInt(1), row.getInt(2)}, productId);
+            } catch (PessimisticLockingFailureException | QueryTimeoutException e) {
+                if (attempt >= rebalanceAttempts) {
+                    throw new CannotAcquireLockException("Shards of product " + productId + " are locked", e);
+                }
+                try {
+                    Thread.sleep(rebalanceRetryMillis * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new CannotAcquireLockException("Interrupted while locking shards of product " + productId, e);
+                }
+            }
+        }
+    }
+
+    @Transactional
+    public int enable(Long productId, int shards) {
+        int count = Math.max(1, Math.min(shards, maxShards));
+        Integer stock = productRepository.lockStockQuantity(productId);
+        if (stock == null) {
+            throw new IllegalArgumentException("Product " + productId + " not found");
+        }
+        int existing = shardRepository.countByProductId(productId);
+        if (existing > 0) {
+            shardCounts.put(productId, existing);
+            return existing;
+        }
+
+        Product product = productRepository.getReferenceById(productId);
+        for (int i = 0; i < count; i++) {
+            ProductStockShard shard = new ProductStockShard();
+            shard.setProduct(product);
+            shard.setShardIndex(i);
+            shard.setQuantity(stock / count + (i < stock % count ? 1 : 0));
+            shardRepository.save(shard);
+        }
+        productRepository.setFlashSale(productId, true, stock, LocalDateTime.now());
+        shardCounts.put(productId, count);
+        log.info("Flash sale enabled for product {}: {} units over {} shards", productId, stock, count);
+        return count;
+    }
+
+    @Transactional
+    public int disable(Long productId) {
+        productRepository.lockStockQuantity(productId);
+        List<Object[]> shards = shardRepository.lockShards(productId);
+        int total = 0;
+        for (Object[] shard : shards) {
+            total += ((Number) shard[1]).intValue();
+        }
+        if (!shards.isEmpty()) {
+            shardRepository.deleteByProductId(productId);
+            productRepository.setFlashSale(productId, false, total, LocalDateTime.now());
+            log.info("Flash sale disabled for product {}: {} units left", productId, total);
+        }
+        shardCounts.remove(productId);
+        return total;
+    }
+
+    @Transactional(readOnly = true)
+    public long currentStock(Long productId) {
+        return shardRepository.sumQuantity(productId);
+    }
+
+    // Re-reads this product's shard count; used when the products row says the product has
+    // been switched to flash-sale mode by another instance.
+    @Transactional(readOnly = true)
+    public boolean refresh(Long productId) {
+        int shards = shardRepository.countByProductId(productId);
+        if (shards > 0) {
+            shardCounts.put(productId, shards);
+            return true;
+        }
+        shardCounts.remove(productId);
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.flash-sale.reconcile-interval-ms:1000}", initialDelay = 1000)
+    public void reconcile() {
+        try {
+            Map<Long, Integer> current = new HashMap<>();
+            for (Object[] row : shardRepository.countShardsByProduct()) {
+                current.put((Long) row[0], ((Number) row[1]).intValue());
+            }
+            shardCounts.keySet().retainAll(current.keySet());
+            shardCounts.putAll(current);
+
+            LocalDateTime now = LocalDateTime.now();
+            for (Long productId : current.keySet()) {
+                transactionTemplate.executeWithoutResult(status -> shardRepository.reconcileProductStock(productId, now));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not reconcile flash-sale stock: {}", e.getMessage());
+        }
+    }
+}
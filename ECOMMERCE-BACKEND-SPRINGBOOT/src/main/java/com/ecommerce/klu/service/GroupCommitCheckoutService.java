@@ -0,0 +1,194 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.OrderDTO;
+import com.ecommerce.klu.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for checkouts. When enabled, concurrent checkout requests are queued and a
+ * batcher thread places everything that arrives within a short window in one transaction, so
+ * N orders share one commit (and one log flush) instead of paying for N. Each order runs under
+ * its own savepoint, so an order that fails is rolled back alone and its caller gets the error.
+ *
+ * If the batch transaction itself cannot commit, every request in it is retried on its own, as
+ * is an order that failed for a lock it could not get without waiting (possibly held by its own
+ * batch's earlier orders).
+ */
+@Service
+public class GroupCommitCheckoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitCheckoutService.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${app.checkout.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.checkout.group-commit.window-ms:5}")
+    private long windowMillis;
+
+    @Value("${app.checkout.group-commit.max-batch:64}")
+    private int maxBatch;
+
+    @Value("${app.checkout.group-commit.workers:2}")
+    private int workers;
+
+    @Value("${app.checkout.group-commit.timeout-ms:10000}")
+    private long timeoutMillis;
+
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+    private volatile boolean running;
+
+    public GroupCommitCheckoutService(MeterRegistry meterRegistry) {
+        this.batchSizes = DistributionSummary.builder("checkout.group_commit.batch_size").register(meterRegistry);
+        this.fallbacks = Counter.builder("checkout.group_commit.fallbacks").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            Thread thread = new Thread(this::runBatcher, "checkout-group-commit-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+    }
+
+    public OrderDTO placeOrder(User user, String shippingAddress, String paymentMethod) {
+        try {
+            return submit(user, shippingAddress, paymentMethod).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Checkout did not complete within " + timeoutMillis + "ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for checkout", e);
+        }
+    }
+
+    // The order, or the reason it wasn't placed. A batched checkout carries on (and may still
+    // commit) after a caller stops waiting for it.
+    public CompletableFuture<OrderDTO> submit(User user, String shippingAddress, String paymentMethod) {
+        if (!running) {
+            try {
+                return CompletableFuture.completedFuture(orderService.createOrderDTO(user, shippingAddress, paymentMethod));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        Request request = new Request(user, shippingAddress, paymentMethod);
+        queue.add(request);
+        return request.result;
+    }
+
+    public Duration timeout() {
+        return Duration.ofMillis(timeoutMillis);
+    }
+
+    private void runBatcher() {
+        List<Request> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMillis);
+                while (batch.size() < maxBatch) {
+                    long wait = deadline - System.nanoTime();
+                    Request next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                execute(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.forEach(request -> request.result.completeExceptionally(
+                        new IllegalStateException("Checkout batcher stopped")));
+                batch.clear();
+            }
+        }
+    }
+
+    private void execute(List<Request> batch) {
+        batchSizes.record(batch.size());
+        try {
+            orderService.createOrdersDTO(batch);
+        } catch (RuntimeException e) {
+            fallbacks.increment();
+            log.warn("Group commit of {} checkouts failed ({}), placing them one by one", batch.size(), e.getMessage());
+            batch.forEach(this::placeAlone);
+            return;
+        }
+        for (Request request : batch) {
+            if (request.failure instanceof PessimisticLockingFailureException) {
+                placeAlone(request);
+            } else if (request.failure != null) {
+                request.result.completeExceptionally(request.failure);
+            } else {
+                request.result.complete(request.order);
+            }
+        }
+    }
+
+    private void placeAlone(Request request) {
+        try {
+            request.result.complete(orderService.createOrderDTO(request.user, request.shippingAddress, request.paymentMethod));
+        } catch (RuntimeException failure) {
+            request.result.completeExceptionally(failure);
+        }
+    }
+
+    public static final class Request {
+        final User user;
+        final String shippingAddress;
+        final String paymentMethod;
+        final CompletableFuture<OrderDTO> result = new CompletableFuture<>();
+        OrderDTO order;
+        RuntimeException failure;
+
+        Request(User user, String shippingAddress, String paymentMethod) {
+            this.user = user;
+            this.shippingAddress = shippingAddress;
+            this.paymentMethod = paymentMethod;
+        }
+    }
+}
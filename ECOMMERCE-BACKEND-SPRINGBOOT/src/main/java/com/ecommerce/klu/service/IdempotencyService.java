@@ -0,0 +1,191 @@
+package com.ecommerce.klu.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the responses of recent requests that carried an Idempotency-Key header so that
+ * client retries are answered from memory instead of re-running the transactional work.
+ *
+ * The store is bounded (least recently used keys are evicted first) and entries expire after
+ * the configured TTL; a key is never evicted or expired while its attempt is still running.
+ * A retry that arrives meanwhile waits for that attempt's response. Only 2xx/4xx responses are
+ * remembered; an attempt that is known to have failed frees the key so the client can try again.
+ *
+ * executeAsync is for work that can outlive its request (a group-commit checkout): if the
+ * caller stops waiting, the key stays reserved until the work's outcome is known, so a retry
+ * can't place the order a second time.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    // Guarded by itself.
+    private final Map<String, Entry> entries;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long inFlightWaitMillis;
+
+    public IdempotencyService(@Value("${app.idempotency.max-entries:100000}") int maxEntries,
+                              @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.idempotency.in-flight-wait:10s}") Duration inFlightWait) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.inFlightWaitMillis = inFlightWait.toMillis();
+        this.entries = new LinkedHashMap<>(1024, 0.75f, true);
+    }
+
+    // Runs action synchronously; an exception from it means the work did not happen.
+    public <T> ResponseEntity<T> execute(String scope, String key, String fingerprint,
+                                         Supplier<ResponseEntity<T>> action) {
+        return executeAsync(scope, key, fingerprint, () -> {
+            try {
+                return CompletableFuture.completedFuture(action.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }, Duration.ZERO);
+    }
+
+    // Starts action and waits up to wait for its outcome. A future that completes exceptionally
+    // means the work did not happen. If the wait runs out the caller gets 503 and the key stays
+    // reserved (retries wait or get 409) until the outcome arrives.
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> executeAsync(String scope, String key, String fingerprint,
+                                              Supplier<CompletableFuture<ResponseEntity<T>>> action, Duration wait) {
+        if (key == null || key.isBlank()) {
+            return await(action.get(), wait);
+        }
+        String storeKey = scope + ":" + key;
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            entry = entries.get(storeKey);
+            if (entry == null || (entry.isExpired(System.currentTimeMillis()) && entry.response.isDone())) {
+                entry = new Entry(fingerprint, System.currentTimeMillis() + ttlMillis);
+                entries.put(storeKey, entry);
+                evictIfFull();
+                owner = true;
+            }
+        }
+
+        if (!owner) {
+            if (!Objects.equals(entry.fingerprint, fingerprint)) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+            }
+            return (ResponseEntity<T>) replay(entry);
+        }
+
+        Entry reserved = entry;
+        CompletableFuture<ResponseEntity<T>> outcome;
+        try {
+            outcome = action.get();
+        } catch (RuntimeException e) {
+            outcome = CompletableFuture.failedFuture(e);
+        }
+        outcome.whenComplete((response, failure) -> {
+            if (failure != null || response.getStatusCode().is5xxServerError()) {
+                forget(storeKey, reserved);
+            }
+            if (failure != null) {
+                reserved.response.completeExceptionally(failure);
+            } else {
+                reserved.response.complete(response);
+            }
+        });
+        return await(outcome, wait);
+    }
+
+    private static <T> ResponseEntity<T> await(CompletableFuture<ResponseEntity<T>> outcome, Duration wait) {
+        try {
+            return outcome.isDone() ? outcome.get() : outcome.get(wait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    // Least recently used first, skipping keys whose attempt is still running. Called holding entries.
+    private void evictIfFull() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            if (eldest.next().response.isDone()) {
+                eldest.remove();
+            }
+        }
+    }
+
+    private ResponseEntity<?> replay(Entry entry) {
+        try {
+            ResponseEntity<?> original = entry.response.get(inFlightWaitMillis, TimeUnit.MILLISECONDS);
+            return ResponseEntity.status(original.getStatusCode())
+                    .headers(original.getHeaders())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(original.getBody());
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (ExecutionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    private void forget(String storeKey, Entry entry) {
+        synchronized (entries) {
+            entries.remove(storeKey, entry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.isExpired(now) && entry.response.isDone());
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.OrderItemDTO;
+import com.ecommerce.klu.event.OrderPlacedEvent;
+import com.ecommerce.klu.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Best-seller and trending rankings over the last hour, day and week, overall and per category,
+ * fed by committed orders and rebuilt from the last week of order_items at startup.
+ *
+ * Each window is a ring of time buckets (hour: 12 x 5 min, day: 24 x 1 h, week: 28 x 6 h) and
+ * each bucket holds one SpaceSavingSketch per category, so memory depends on the number of
+ * buckets, categories and sketch counters, never on the catalog. A query sums the sketches of
+ * the buckets still inside the window; the oldest bucket slides out whole, so a window covers
+ * between (buckets - 1) and buckets bucket-lengths of history.
+ *
+ * Units sold are estimates: a product can be over-counted by at most the smallest counter of
+ * each sketch it passed through, and products outside the top capacity per bucket are dropped.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+
+    // Sketch key for the all-categories ranking.
+    private static final String ALL = "";
+
+    public enum Window {
+        HOUR(Duration.ofHours(1), 12),
+        DAY(Duration.ofDays(1), 24),
+        WEEK(Duration.ofDays(7), 28);
+
+        private final long bucketMillis;
+        private final int buckets;
+
+        Window(Duration length, int buckets) {
+            this.bucketMillis = length.toMillis() / buckets;
+            this.buckets = buckets;
+        }
+
+        public static Window of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown window " + name + "; use hour, day or week");
+            }
+        }
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.leaderboards.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.leaderboards.counters-per-bucket:100}")
+    private int countersPerBucket;
+
+    @Value("${app.leaderboards.max-limit:50}")
+    private int maxLimit;
+
+    // Guarded by this.
+    private final Map<Window, Ring> rings = new HashMap<>();
+
+    // Orders up to this id were loaded by the bootstrap; their events must not count twice.
+    private volatile long bootstrappedUpTo = Long.MAX_VALUE;
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (!enabled || event.getOrder().getId() <= bootstrappedUpTo) {
+            return;
+        }
+        long placedAt = epochMillis(event.getOrder().getOrderDate());
+        for (OrderItemDTO item : event.getOrder().getOrderItems()) {
+            if (item.getProductId() != null && item.getQuantity() != null) {
+                record(item.getProductId(), item.getProductCategory(), item.getQuantity(), placedAt);
+            }
+        }
+    }
+
+    // Product ids by estimated units sold in the window, best first.
+    public List<Long> bestsellerIds(Window window, String category, int limit) {
+        Map<Long, Long> units = units(window, category, System.currentTimeMillis());
+        return top(units, limit);
+    }
+
+    // Product ids selling fastest relative to their usual rate: units sold in the window minus
+    // what the next longer window's average would predict for it. Week has no longer window.
+    public List<Long> trendingIds(Window window, String category, int limit) {
+        if (window == Window.WEEK) {
+            throw new IllegalArgumentException("Trending is available for the hour and day windows");
+        }
+        Window baseline = window == Window.HOUR ? Window.DAY : Window.WEEK;
+        long now = System.currentTimeMillis();
+        Map<Long, Long> recent = units(window, category, now);
+        Map<Long, Long> usual = units(baseline, category, now);
+        double share = (double) (window.bucketMillis * window.buckets) / (baseline.bucketMillis * baseline.buckets);
+        Map<Long, Double> lift = new HashMap<>();
+        recent.forEach((id, count) -> {
+            double expected = usual.getOrDefault(id, 0L) * share;
+            if (count > expected) {
+                lift.put(id, count - expected);
+            }
+        });
+        return top(lift, limit);
+    }
+
+    public List<Product> bestsellers(Window window, String category, int limit) {
+        return productService.getProductsByIds(bestsellerIds(window, category, clamp(limit)));
+    }
+
+    public List<Product> trending(Window window, String category, int limit) {
+        return productService.getProductsByIds(trendingIds(window, category, clamp(limit)));
+    }
+
+    private int clamp(int limit) {
+        return Math.max(0, Math.min(limit, maxLimit));
+    }
+
+    private synchronized void record(long productId, String category, int quantity, long placedAt) {
+        for (Window window : Window.values()) {
+            Ring ring = rings.computeIfAbsent(window, Ring::new);
+            Map<String, SpaceSavingSketch> bucket = ring.bucket(placedAt, System.currentTimeMillis());
+            if (bucket == null) {
+                continue;
+            }
+            bucket.computeIfAbsent(ALL, key -> new SpaceSavingSketch(countersPerBucket)).add(productId, quantity);
+            if (category != null && !category.isBlank()) {
+                bucket.computeIfAbsent(category, key -> new SpaceSavingSketch(countersPerBucket)).add(productId, quantity);
+            }
+        }
+    }
+
+    private synchronized Map<Long, Long> units(Window window, String category, long now) {
+        Map<Long, Long> units = new HashMap<>();
+        Ring ring = rings.get(window);
+        if (ring == null) {
+            return units;
+        }
+        String key = category == null || category.isBlank() ? ALL : category;
+        long current = now / window.bucketMillis;
+        for (int slot = 0; slot < window.buckets; slot++) {
+            if (ring.epochs[slot] > current - window.buckets && ring.epochs[slot] <= current) {
+                SpaceSavingSketch sketch = ring.sketches.get(slot).get(key);
+                if (sketch != null) {
+                    sketch.forEach((id, count, error) -> units.merge(id, count, Long::sum));
+                }
+            }
+        }
+        return units;
+    }
+
+    // Highest scores first; ties go to the lower id so the order is stable.
+    private static <V extends Comparable<V>> List<Long> top(Map<Long, V> scores, int limit) {
+        Comparator<Map.Entry<Long, V>> byScore = Map.Entry.comparingByValue();
+        return scores.entrySet().stream()
+                .sorted(byScore.reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(Math.max(limit, 0))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time == null ? System.currentTimeMillis() : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!enabled) {
+            return;
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM orders", Long.class);
+        long upTo = maxId == null ? 0 : maxId;
+        bootstrappedUpTo = upTo;
+        long started = System.nanoTime();
+        int[] items = {0};
+        LocalDateTime since = LocalDateTime.now().minus(Duration.ofDays(7));
+        jdbcTemplate.query("SELECT oi.product_id, p.category, oi.quantity, o.order_date FROM order_items oi"
+                        + " JOIN orders o ON o.id = oi.order_id JOIN products p ON p.id = oi.product_id"
+                        + " WHERE o.order_date >= ? AND o.id <= ?",
+                (RowCallbackHandler) row -> {
+                    Timestamp orderDate = row.getTimestamp(4);
+                    record(row.getLong(1), row.getString(2), row.getInt(3),
+                            orderDate == null ? System.currentTimeMillis() : orderDate.getTime());
+                    items[0]++;
+                }, Timestamp.valueOf(since), upTo);
+        log.info("Loaded leaderboards from {} order items in {} ms", items[0], (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static class Ring {
+
+        private final Window window;
+        private final long[] epochs;
+        private final List<Map<String, SpaceSavingSketch>> sketches = new ArrayList<>();
+
+        Ring(Window window) {
+            this.window = window;
+            this.epochs = new long[window.buckets];
+            for (int i = 0; i < window.buckets; i++) {
+                epochs[i] = Long.MIN_VALUE;
+                sketches.add(new HashMap<>());
+            }
+        }
+
+        // The bucket for a sale at placedAt, recycling its slot if it still holds an older
+        // bucket; null if the sale has already slid out of the window.
+        Map<String, SpaceSavingSketch> bucket(long placedAt, long now) {
+            long epoch = placedAt / window.bucketMillis;
+            if (epoch <= now / window.bucketMillis - window.buckets) {
+                return null;
+            }
+            int slot = (int) Math.floorMod(epoch, (long) window.buckets);
+            if (epochs[slot] > epoch) {
+                return null;
+            }
+            if (epochs[slot] < epoch) {
+                epochs[slot] = epoch;
+                sketches.get(slot).values().forEach(SpaceSavingSketch::clear);
+            }
+            return sketches.get(slot);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommerce.klu.service;
+
+/**
+ * Open-addressing map from long keys to int counts, backed by two flat arrays: about 12 bytes
+ * per slot instead of the ~80 a HashMap<Long, Integer> entry costs with its boxed key, value
+ * and node. Key 0 marks an empty slot, so it cannot be stored (entity ids start at 1).
+ * Not thread-safe.
+ */
+public class LongIntHashMap {
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    public LongIntHashMap() {
+        this(8);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 4 / 3) - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    public int get(long key) {
+        int slot = find(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    // Adds delta to the key's count (starting from 0) and returns the new count.
+    public int addTo(long key, int delta) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        int slot = find(key);
+        if (keys[slot] == key) {
+            return values[slot] += delta;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > keys.length * 3 / 4) {
+            rehash(keys.length * 2, 0);
+        }
+        return delta;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Drops every entry whose count is below minValue.
+    public void removeBelow(int minValue) {
+        rehash(keys.length, minValue);
+    }
+
+    public void forEach(Entry consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity, int minValue) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0 && oldValues[i] >= minValue) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @FunctionalInterface
+    public interface Entry {
+        void accept(long key, int value);
+    }
+}
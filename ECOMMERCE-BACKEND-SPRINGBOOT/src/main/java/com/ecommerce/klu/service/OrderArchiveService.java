@@ -0,0 +1,137 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.ArchivedOrder;
+import com.ecommerce.klu.model.ArchivedOrderItem;
+import com.ecommerce.klu.model.Order;
+import com.ecommerce.klu.model.OrderItem;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.User;
+import com.ecommerce.klu.repository.OrderItemRepository;
+import com.ecommerce.klu.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves completed orders older than the configured age out of the hot orders/order_items
+ * tables into orders_archive/order_items_archive. Each batch is its own transaction so a run
+ * never holds locks on more than batch-size orders at a time.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.orders.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.orders.archive.after-days:180}")
+    private int afterDays;
+
+    @Value("${app.orders.archive.statuses:DELIVERED,CANCELLED}")
+    private List<String> statuses;
+
+    @Value("${app.orders.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.orders.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(cron = "${app.orders.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archiveCompletedOrders();
+        }
+    }
+
+    public int archiveCompletedOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        int archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+        }
+        if (archived > 0) {
+            log.info("Archived {} orders placed before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Order> orders = orderRepository.findByStatusInAndOrderDateBeforeOrderByOrderDateAsc(
+                statuses, cutoff, PageRequest.of(0, batchSize));
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        // Archive rows keep their hot-table ids, so persist directly instead of save()'s merge
+        // round-trip; the items cascade from the order.
+        for (Order order : orders) {
+            entityManager.persist(toArchive(order));
+        }
+        entityManager.flush();
+
+        orderItemRepository.deleteByOrderIn(orders);
+        orderRepository.deleteAllInBatch(orders);
+        return orders.size();
+    }
+
+    private ArchivedOrder toArchive(Order order) {
+        ArchivedOrder archived = new ArchivedOrder();
+        archived.setId(order.getId());
+        // Soft-deleted users and products load as null; keep the references by id.
+        archived.setUser(loadedOrReference(order.getUser(), User.class, order.getUserId()));
+        archived.setOrderDate(order.getOrderDate());
+        archived.setStatus(order.getStatus());
+        archived.setTotalAmount(order.getTotalAmount());
+        archived.setShippingAddress(order.getShippingAddress());
+        archived.setPaymentMethod(order.getPaymentMethod());
+
+        List<ArchivedOrderItem> items = new ArrayList<>();
+        if (order.getOrderItems() != null) {
+            for (OrderItem orderItem : order.getOrderItems()) {
+                ArchivedOrderItem item = new ArchivedOrderItem();
+                item.setId(orderItem.getId());
+                item.setOrder(archived);
+                item.setProduct(loadedOrReference(orderItem.getProduct(), Product.class, orderItem.getProductId()));
+                item.setQuantity(orderItem.getQuantity());
+                item.setPrice(orderItem.getPrice());
+                items.add(item);
+            }
+        }
+        archived.setOrderItems(items);
+        return archived;
+    }
+
+    private <T> T loadedOrReference(T loaded, Class<T> type, Long id) {
+        if (loaded != null || id == null) {
+            return loaded;
+        }
+        return entityManager.getReference(type, id);
+    }
+}
@@ -0,0 +1,301 @@
+package com.ecommerce.klu.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of byte records in memory-mapped segment files. A record is
+ * [int length][int crc32c][payload] and is addressed by its offset in the log as a whole: each
+ * segment is named after the offset of its first byte, and a new one starts where the previous
+ * one ended once the next record doesn't fit.
+ *
+ * Appends are plain writes into the mapping; force() makes them durable and is meant to be
+ * called on a timer, so a crash can lose at most the records since the last force. On open,
+ * the newest segment is scanned and cut at the first record that is incomplete or fails its
+ * checksum. Only one process may have a journal directory open (enforced with a file lock).
+ */
+public class OrderJournal implements AutoCloseable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SUFFIX = ".journal";
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    // Guarded by this.
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private boolean dirty;
+    // Files of expired segments still waiting to be deleted. A mapping is only released when its
+    // buffer is garbage collected, and Windows refuses to delete a mapped file, so deletes that
+    // fail are retried on the next call.
+    private final List<Path> expired = new ArrayList<>();
+
+    public OrderJournal(Path dir, int segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(dir);
+        lockChannel = FileChannel.open(dir.resolve("journal.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null;
+        }
+        if (acquired == null) {
+            lockChannel.close();
+            throw new IOException("Journal directory " + dir + " is in use by another writer");
+        }
+        lock = acquired;
+
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                String name = file.getFileName().toString();
+                long base = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                segments.put(base, new Segment(base, file));
+            }
+        }
+        if (segments.isEmpty()) {
+            active = createSegment(0);
+        } else {
+            for (Segment segment : segments.values()) {
+                segment.end = segment.scan(segment != segments.lastEntry().getValue());
+            }
+            active = segments.lastEntry().getValue();
+            active.mapForWrite(segmentBytes);
+            // Zero whatever a torn write left behind the last good record.
+            for (int i = active.end; i < Math.min(active.end + HEADER_BYTES, active.buffer.capacity()); i++) {
+                active.buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    public synchronized long append(byte[] payload) {
+        int size = HEADER_BYTES + payload.length;
+        if (size > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes exceeds the segment size");
+        }
+        if (active.end + size > active.buffer.capacity()) {
+            roll();
+        }
+        int position = active.end;
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        active.buffer.put(position + HEADER_BYTES, payload);
+        active.buffer.putInt(position + 4, (int) crc.getValue());
+        // Length last: a reader (or recovery) never sees a length whose payload isn't written.
+        active.buffer.putInt(position, payload.length);
+        active.end = position + size;
+        dirty = true;
+        notifyAll();
+        return active.base + position;
+    }
+
+    // Records from offset on, at most max of them; offset must be a record boundary (or the end).
+    public List<Record> read(long offset, int max) {
+        List<Record> records = new ArrayList<>();
+        Map.Entry<Long, Segment> entry;
+        synchronized (this) {
+            if (offset < firstOffset() || offset > endOffset()) {
+                throw new IllegalArgumentException("Offset " + offset + " is outside the journal ["
+                        + firstOffset() + ", " + endOffset() + "]");
+            }
+            entry = segments.floorEntry(offset);
+        }
+        while (entry != null && records.size() < max) {
+            Segment segment = entry.getValue();
+            MappedByteBuffer buffer = segment.mapForRead();
+            int end = segment.end;
+            int position = (int) (offset - segment.base);
+            while (position + HEADER_BYTES <= end && records.size() < max) {
+                int length = buffer.getInt(position);
+                int next = position + HEADER_BYTES + length;
+                if (length <= 0 || next > end) {
+                    throw new IllegalArgumentException("No record starts at offset " + (segment.base + position));
+                }
+                byte[] payload = new byte[length];
+                buffer.get(position + HEADER_BYTES, payload);
+                CRC32C crc = new CRC32C();
+                crc.update(payload);
+                if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                    throw new IllegalArgumentException("No record starts at offset " + (segment.base + position));
+                }
+                records.add(new Record(segment.base + position, segment.base + next, payload));
+                position = next;
+            }
+            offset = segment.base + position;
+            synchronized (this) {
+                entry = segments.higherEntry(segment.base);
+            }
+        }
+        return records;
+    }
+
+    // Blocks until a record exists at or after offset, or the timeout passes.
+    public synchronized void awaitAppend(long offset, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+        while (endOffset() <= offset && remaining > 0) {
+            wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+    }
+
+    public synchronized long firstOffset() {
+        return segments.firstKey();
+    }
+
+    public synchronized long endOffset() {
+        return active.base + active.end;
+    }
+
+    // The fsync runs outside the lock so appends don't wait for the disk.
+    public void force() {
+        MappedByteBuffer buffer;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            buffer = active.buffer;
+        }
+        buffer.force();
+    }
+
+    // Drops closed segments last written before cutoff, oldest first; the active one is kept.
+    // Their files are deleted once no longer mapped (see expired).
+    public synchronized int deleteSegmentsBefore(Instant cutoff) {
+        int deleted = 0;
+        while (segments.size() > 1) {
+            Segment oldest = segments.firstEntry().getValue();
+            try {
+                FileTime modified = Files.getLastModifiedTime(oldest.file);
+                if (!modified.toInstant().isBefore(cutoff)) {
+                    break;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            segments.remove(oldest.base);
+            oldest.buffer = null;
+            expired.add(oldest.file);
+            deleted++;
+        }
+        expired.removeIf(OrderJournal::tryDelete);
+        return deleted;
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        active.buffer.force();
+        lock.release();
+        lockChannel.close();
+    }
+
+    private static boolean tryDelete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void roll() {
+        active.buffer.force();
+        dirty = false;
+        active = createSegment(active.base + active.end);
+    }
+
+    private Segment createSegment(long base) {
+        Segment segment = new Segment(base, dir.resolve(String.format("%020d%s", base, SUFFIX)));
+        segment.mapForWrite(segmentBytes);
+        segments.put(base, segment);
+        return segment;
+    }
+
+    public record Record(long offset, long nextOffset, byte[] payload) {
+    }
+
+    private static class Segment {
+
+        private final long base;
+        private final Path file;
+        private volatile MappedByteBuffer buffer;
+        // Bytes in use; records live in [0, end).
+        private volatile int end;
+
+        Segment(long base, Path file) {
+            this.base = base;
+            this.file = file;
+        }
+
+        void mapForWrite(int size) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        MappedByteBuffer mapForRead() {
+            MappedByteBuffer mapped = buffer;
+            if (mapped == null) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    buffer = mapped;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return mapped;
+        }
+
+        // Finds the end of the last good record. Closed segments were cut cleanly, so only the
+        // newest one needs its checksums verified.
+        int scan(boolean closed) {
+            MappedByteBuffer mapped = mapForRead();
+            int position = 0;
+            while (position + HEADER_BYTES <= mapped.capacity()) {
+                int length = mapped.getInt(position);
+                if (length <= 0 || position + HEADER_BYTES + length > mapped.capacity()) {
+                    break;
+                }
+                if (!closed) {
+                    byte[] payload = new byte[length];
+                    mapped.get(position + HEADER_BYTES, payload);
+                    CRC32C crc = new CRC32C();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != mapped.getInt(position + 4)) {
+                        break;
+                    }
+                }
+                position += HEADER_BYTES + length;
+            }
+            buffer = null;
+            return position;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.OrderDTO;
+import com.ecommerce.klu.dto.OrderJournalEntry;
+import com.ecommerce.klu.event.OrderPlacedEvent;
+import com.ecommerce.klu.event.OrderStatusChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Audit trail of order state: every committed checkout and status change is appended to an
+ * OrderJournal (memory-mapped segment files) as a JSON entry, forced to disk every
+ * fsync-interval, and kept for the retention period. Entries can be replayed from any offset,
+ * or tailed by waiting for entries past the end.
+ */
+@Service
+public class OrderJournalService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderJournalService.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.journal.dir:${app.data-dir}/order-journal}")
+    private Path dir;
+
+    @Value("${app.journal.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    @Value("${app.journal.retention:30d}")
+    private Duration retention;
+
+    @Value("${app.journal.max-read:1000}")
+    private int maxRead;
+
+    @Value("${app.journal.max-wait:30s}")
+    private Duration maxWait;
+
+    private volatile OrderJournal journal;
+
+    private Counter appended;
+
+    @PostConstruct
+    void open() {
+        appended = Counter.builder("orders.journal.appended").register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        try {
+            journal = new OrderJournal(dir, segmentBytes);
+            log.info("Order journal open at {} (offsets {}..{})", dir.toAbsolutePath(), journal.firstOffset(), journal.endOffset());
+        } catch (IOException e) {
+            // Orders must not fail because the audit trail can't be written.
+            log.warn("Order journal disabled: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        OrderJournal open = journal;
+        journal = null;
+        if (open != null) {
+            open.close();
+        }
+    }
+
+    public boolean isOpen() {
+        return journal != null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        OrderDTO order = event.getOrder();
+        append(new OrderJournalEntry("ORDER_CREATED", order.getId(), order.getUserId(), null, order.getStatus(),
+                order.getTotalAmount(), order.getOrderDate()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        append(new OrderJournalEntry("STATUS_CHANGED", event.getOrderId(), event.getUserId(), event.getPreviousStatus(),
+                event.getStatus(), null, event.getChangedAt()));
+    }
+
+    private void append(OrderJournalEntry entry) {
+        OrderJournal open = journal;
+        if (open == null) {
+            return;
+        }
+        try {
+            open.append(objectMapper.writeValueAsBytes(entry));
+            appended.increment();
+        } catch (JsonProcessingException e) {
+            log.error("Could not journal {} for order {}", entry.getType(), entry.getOrderId(), e);
+        }
+    }
+
+    // Entries from offset on (at most limit). When there are none yet, waits up to wait for the
+    // next one to be appended, so a client can tail the journal by polling with the last nextOffset.
+    public List<OrderJournalEntry> read(long offset, int limit, Duration wait) throws InterruptedException {
+        OrderJournal open = requireOpen();
+        long waitMillis = Math.min(wait.toMillis(), maxWait.toMillis());
+        if (waitMillis > 0) {
+            open.awaitAppend(offset, waitMillis);
+        }
+        List<OrderJournalEntry> entries = new ArrayList<>();
+        for (OrderJournal.Record record : open.read(offset, Math.max(1, Math.min(limit, maxRead)))) {
+            try {
+                OrderJournalEntry entry = objectMapper.readValue(record.payload(), OrderJournalEntry.class);
+                entry.setOffset(record.offset());
+                entry.setNextOffset(record.nextOffset());
+                entries.add(entry);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unreadable journal entry at offset " + record.offset(), e);
+            }
+        }
+        return entries;
+    }
+
+    public long firstOffset() {
+        return requireOpen().firstOffset();
+    }
+
+    public long endOffset() {
+        return requireOpen().endOffset();
+    }
+
+    private OrderJournal requireOpen() {
+        OrderJournal open = journal;
+        if (open == null) {
+            throw new IllegalStateException("The order journal is not enabled");
+        }
+        return open;
+    }
+
+    @Scheduled(fixedDelayString = "${app.journal.fsync-interval-ms:200}")
+    public void fsync() {
+        OrderJournal open = journal;
+        if (open != null) {
+            open.force();
+        }
+    }
+
+    @Scheduled(cron = "${app.journal.retention-cron:0 45 * * * *}")
+    public void applyRetention() {
+        OrderJournal open = journal;
+        if (open != null) {
+            int deleted = open.deleteSegmentsBefore(Instant.now().minus(retention));
+            if (deleted > 0) {
+                log.info("Deleted {} order journal segments older than {}", deleted, retention);
+            }
+        }
+    }
+}
@@ -2,84 +2,302 @@ package com.ecommerce.klu.service;
 
 import com.ecommerce.klu.dto.OrderDTO;
 import com.ecommerce.klu.dto.OrderItemDTO;
+import com.ecommerce.klu.event.OrderPlacedEvent;
+import com.ecommerce.klu.event.OrderStatusChangedEvent;
 import com.ecommerce.klu.model.*;
+import com.ecommerce.klu.repository.ArchivedOrderRepository;
 import com.ecommerce.klu.repository.OrderRepository;
 import com.ecommerce.klu.repository.OrderItemRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
+    private static final Comparator<OrderDTO> NEWEST_FIRST =
+            Comparator.comparing(OrderDTO::getOrderDate, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    // OrderDTO fields that come from the orders row (and its user) alone: JSON name -> JPQL path.
+    private static final Map<String, String> HEADER_COLUMNS = new LinkedHashMap<>();
+    static {
+        HEADER_COLUMNS.put("id", "o.id");
+        HEADER_COLUMNS.put("userId", "o.userId");
+        HEADER_COLUMNS.put("userFirstName", "u.firstName");
+        HEADER_COLUMNS.put("userLastName", "u.lastName");
+        HEADER_COLUMNS.put("userEmail", "u.email");
+        HEADER_COLUMNS.put("shippingAddress", "o.shippingAddress");
+        HEADER_COLUMNS.put("paymentMethod", "o.paymentMethod");
+        HEADER_COLUMNS.put("status", "o.status");
+        HEADER_COLUMNS.put("totalAmount", "o.totalAmount");
+        HEADER_COLUMNS.put("orderDate", "o.orderDate");
+    }
+
+    public static final Set<String> HEADER_FIELDS = Collections.unmodifiableSet(HEADER_COLUMNS.keySet());
+
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
     private OrderItemRepository orderItemRepository;
 
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
     @Autowired
     private CartService cartService;
 
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private OrderViewService orderViewService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.orders.views.backfill-batch-size:500}")
+    private int viewBackfillBatchSize;
+
+    // Events of the order createOrdersDTO is placing under a savepoint. Rolling the savepoint
+    // back would not unregister the listeners' transaction synchronizations, so the events are
+    // only published once the order's savepoint has been released.
+    private final ThreadLocal<List<Object>> heldEvents = new ThreadLocal<>();
+
+    // Hot table only, as entities; the DTO reads below include archived orders.
+    @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<OrderDTO> getAllOrdersDTO() {
-        return orderRepository.findAll().stream()
+        List<OrderDTO> orders = orderRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        archivedOrderRepository.findAll().stream()
+                .map(this::convertArchivedToDTO)
+                .forEach(orders::add);
+        return orders;
+    }
+
+    // Sparse reads (fields=) of HEADER_FIELDS only: those columns are selected, and users are
+    // joined only for the user name and email. Archived orders follow the hot ones.
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllOrderHeaders(Collection<String> fields) {
+        List<Map<String, Object>> rows = selectHeaders("Order", fields, null, Map.of());
+        rows.addAll(selectHeaders("ArchivedOrder", fields, null, Map.of()));
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getOrderHeadersByStatus(String status, Collection<String> fields) {
+        List<Map<String, Object>> rows = selectHeaders("Order", fields, "o.status = :status", Map.of("status", status));
+        rows.addAll(selectHeaders("ArchivedOrder", fields, "o.status = :status", Map.of("status", status)));
+        return rows;
     }
 
+    private List<Map<String, Object>> selectHeaders(String entity, Collection<String> fields, String condition,
+                                                    Map<String, Object> params) {
+        StringJoiner select = new StringJoiner(", ", "SELECT ", " FROM " + entity + " o");
+        boolean joinUser = false;
+        for (String field : fields) {
+            String column = HEADER_COLUMNS.get(field);
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown field '" + field + "'");
+            }
+            joinUser |= column.startsWith("u.");
+            select.add(column + " AS " + field);
+        }
+        StringBuilder jpql = new StringBuilder(select.toString());
+        if (joinUser) {
+            jpql.append(" LEFT JOIN o.user u");
+        }
+        if (condition != null) {
+            jpql.append(" WHERE ").append(condition);
+        }
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        params.forEach(query::setParameter);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : query.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Order> getOrderById(Long id) {
         return orderRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public Optional<OrderDTO> getOrderByIdDTO(Long id) {
-        return orderRepository.findById(id).map(this::convertToDTO);
+        if (orderViewService.isServingReads()) {
+            Optional<OrderDTO> view = orderViewService.findById(id);
+            if (view.isPresent()) {
+                return view;
+            }
+        }
+        Optional<OrderDTO> order = orderRepository.findById(id).map(this::convertToDTO);
+        if (order.isPresent()) {
+            return order;
+        }
+        return archivedOrderRepository.findById(id).map(this::convertArchivedToDTO);
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByUser(User user) {
         return orderRepository.findByUserOrderByOrderDateDesc(user);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByUserDTO(User user) {
-        return orderRepository.findByUserOrderByOrderDateDesc(user).stream()
+        if (orderViewService.isServingReads()) {
+            return orderViewService.findByUser(user.getId());
+        }
+        List<OrderDTO> orders = orderRepository.findByUserOrderByOrderDateDesc(user).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        archivedOrderRepository.findByUserOrderByOrderDateDesc(user).stream()
+                .map(this::convertArchivedToDTO)
+                .forEach(orders::add);
+        orders.sort(NEWEST_FIRST);
+        return orders;
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getOrdersByUserDTO(User user, int page, int size) {
+        if (orderViewService.isServingReads()) {
+            return orderViewService.findByUser(user.getId(), page, size);
+        }
+        int offset = page * size;
+        List<Order> hot = orderRepository.findByUserOrderByOrderDateDesc(user, PageRequest.of(page, size));
+
+        // Recent pages are served from the hot table alone; the archive is only consulted
+        // once the user pages back past orders that are newer than anything archived.
+        Optional<ArchivedOrder> newestArchived = archivedOrderRepository.findFirstByUserOrderByOrderDateDesc(user);
+        if (newestArchived.isEmpty() || (hot.size() == size
+                && !hot.get(hot.size() - 1).getOrderDate().isBefore(newestArchived.get().getOrderDate()))) {
+            return hot.stream().map(this::convertToDTO).collect(Collectors.toList());
+        }
+
+        // Both sides are sorted newest first, so the requested page lies within the first
+        // offset + size rows of each. Only ids and dates are merged; just the page is loaded.
+        PageRequest head = PageRequest.of(0, offset + size);
+        List<PageKey> keys = new ArrayList<>();
+        orderRepository.findIdsAndDatesByUser(user, head)
+                .forEach(row -> keys.add(new PageKey((Long) row[0], (LocalDateTime) row[1], false)));
+        archivedOrderRepository.findIdsAndDatesByUser(user, head)
+                .forEach(row -> keys.add(new PageKey((Long) row[0], (LocalDateTime) row[1], true)));
+        keys.sort(Comparator.comparing(PageKey::orderDate, Comparator.nullsLast(Comparator.reverseOrder())));
+        if (offset >= keys.size()) {
+            return List.of();
+        }
+        List<PageKey> pageKeys = keys.subList(offset, Math.min(offset + size, keys.size()));
+
+        Map<Long, OrderDTO> loaded = new HashMap<>();
+        orderRepository.findAllById(pageKeys.stream().filter(key -> !key.archived()).map(PageKey::id).toList())
+                .forEach(order -> loaded.put(order.getId(), convertToDTO(order)));
+        archivedOrderRepository.findAllById(pageKeys.stream().filter(PageKey::archived).map(PageKey::id).toList())
+                .forEach(order -> loaded.put(order.getId(), convertArchivedToDTO(order)));
+        List<OrderDTO> orders = new ArrayList<>(pageKeys.size());
+        for (PageKey key : pageKeys) {
+            OrderDTO order = loaded.get(key.id());
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    private record PageKey(Long id, LocalDateTime orderDate, boolean archived) {
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByStatus(String status) {
         return orderRepository.findByStatus(status);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByStatusDTO(String status) {
-        return orderRepository.findByStatus(status).stream()
+        List<OrderDTO> orders = orderRepository.findByStatus(status).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        archivedOrderRepository.findByStatus(status).stream()
+                .map(this::convertArchivedToDTO)
+                .forEach(orders::add);
+        return orders;
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getOrdersBySeller(Long sellerId) {
         return orderRepository.findOrdersBySellerId(sellerId);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersBySellerDTO(Long sellerId) {
-        return orderRepository.findOrdersBySellerId(sellerId).stream()
+        if (orderViewService.isServingReads()) {
+            return orderViewService.findBySeller(sellerId);
+        }
+        List<OrderDTO> orders = orderRepository.findOrdersBySellerId(sellerId).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        archivedOrderRepository.findOrdersBySellerId(sellerId).stream()
+                .map(this::convertArchivedToDTO)
+                .forEach(orders::add);
+        orders.sort(NEWEST_FIRST);
+        return orders;
     }
 
     @Transactional
     public Order createOrder(User user, String shippingAddress, String paymentMethod) {
         List<CartItem> cartItems = cartService.getCartItemsByUser(user);
+        takeStock(cartItems, stockReservationService.consume(user));
 
         Order order = new Order();
         order.setUser(user);
@@ -104,17 +322,38 @@ public class OrderService {
             BigDecimal itemTotal = cartItem.getProduct().getPrice()
                     .multiply(BigDecimal.valueOf(cartItem.getQuantity()));
             totalAmount = totalAmount.add(itemTotal);
-
-            productService.updateStock(cartItem.getProduct().getId(), cartItem.getQuantity());
         }
 
         savedOrder.setTotalAmount(totalAmount);
         savedOrder.setOrderItems(orderItems); // Set the orderItems list
         cartService.clearCart(user);
 
-        return orderRepository.save(savedOrder);
+        savedOrder = orderRepository.save(savedOrder);
+        OrderDTO snapshot = convertToDTO(savedOrder);
+        orderViewService.save(snapshot);
+        publish(new OrderPlacedEvent(snapshot));
+        return savedOrder;
     }
 
+    // Reserved quantity is already off the shelf; only the part of the cart whose reservation
+    // lapsed (or was never made) has to be taken from the product rows now.
+    private void takeStock(List<CartItem> cartItems, Map<Long, Integer> reserved) {
+        Map<Long, Integer> wanted = new TreeMap<>();
+        for (CartItem cartItem : cartItems) {
+            wanted.merge(cartItem.getProduct().getId(), cartItem.getQuantity(), Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> entry : wanted.entrySet()) {
+            int missing = entry.getValue() - reserved.getOrDefault(entry.getKey(), 0);
+            if (missing > 0 && !productService.decrementStock(entry.getKey(), missing)) {
+                throw new InsufficientStockException(entry.getKey());
+            }
+            if (missing < 0) {
+                productService.incrementStock(entry.getKey(), -missing);
+            }
+        }
+    }
+
+    @Transactional
     public OrderDTO createOrderDTO(User user, String shippingAddress, String paymentMethod) {
         Order order = createOrder(user, shippingAddress, paymentMethod);
         // Reload the order to ensure OrderItems are fetched
@@ -122,25 +361,129 @@ public class OrderService {
         return reloadedOrder.map(this::convertToDTO).orElse(null);
     }
 
+    // Places a group-commit batch in one transaction. Each order runs under its own JDBC
+    // savepoint (the JPA transaction manager cannot create them with Hibernate), so one that
+    // fails, e.g. out of stock, is rolled back alone and recorded on its request; its events
+    // are dropped with it. A failure inside a nested @Transactional call doesn't doom the batch
+    // because participation failures don't mark the transaction rollback-only (TransactionConfig).
+    @Transactional
+    public void createOrdersDTO(List<GroupCommitCheckoutService.Request> requests) {
+        Session session = entityManager.unwrap(Session.class);
+        for (GroupCommitCheckoutService.Request request : requests) {
+            entityManager.flush();
+            Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+            List<Object> events = new ArrayList<>();
+            heldEvents.set(events);
+            try {
+                request.order = createOrderDTO(request.user, request.shippingAddress, request.paymentMethod);
+                entityManager.flush();
+                session.doWork(connection -> connection.releaseSavepoint(savepoint));
+            } catch (RuntimeException e) {
+                session.doWork(connection -> connection.rollback(savepoint));
+                entityManager.clear();
+                request.failure = e;
+                continue;
+            } finally {
+                heldEvents.remove();
+            }
+            events.forEach(eventPublisher::publishEvent);
+        }
+    }
+
+    private void publish(Object event) {
+        List<Object> held = heldEvents.get();
+        if (held != null) {
+            held.add(event);
+        } else {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    @Transactional
     public Order updateOrderStatus(Long orderId, String status) {
         Optional<Order> orderOpt = orderRepository.findById(orderId);
         if (orderOpt.isPresent()) {
             Order order = orderOpt.get();
+            String previousStatus = order.getStatus();
             order.setStatus(status);
-            return orderRepository.save(order);
+            order = orderRepository.save(order);
+            orderViewService.updateStatus(orderId, status);
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, order.getUserId(), previousStatus, status,
+                    LocalDateTime.now()));
+            return order;
         }
         return null;
     }
 
+    @Transactional
     public OrderDTO updateOrderStatusDTO(Long orderId, String status) {
         Order order = updateOrderStatus(orderId, status);
-        return order != null ? convertToDTO(order) : null;
+        if (order == null) {
+            return null;
+        }
+        return orderViewService.findById(orderId).orElseGet(() -> convertToDTO(order));
     }
 
+    @Transactional
     public void deleteOrder(Long id) {
+        orderViewService.delete(id);
         orderRepository.deleteById(id);
     }
 
+    // Writes views for orders that predate the read model or were inserted directly (datagen),
+    // then lets reads switch over to the views.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOrderViews() {
+        int written = backfillOrderViews(false) + backfillOrderViews(true);
+        if (written > 0) {
+            log.info("Backfilled {} order views", written);
+        }
+        orderViewService.markReady();
+    }
+
+    private int backfillOrderViews(boolean archived) {
+        int written = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<OrderDTO> batch = transactionTemplate.execute(status -> {
+                PageRequest page = PageRequest.of(0, viewBackfillBatchSize);
+                List<OrderDTO> orders = archived
+                        ? archivedOrderRepository.findWithoutView(from, page).stream().map(this::convertArchivedToDTO).toList()
+                        : orderRepository.findWithoutView(from, page).stream().map(this::convertToDTO).toList();
+                orders.forEach(orderViewService::save);
+                return orders;
+            });
+            if (batch == null || batch.isEmpty()) {
+                return written;
+            }
+            written += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    private OrderDTO convertArchivedToDTO(ArchivedOrder order) {
+        List<OrderItemDTO> orderItemDTOs = order.getOrderItems() == null ? List.of() : order.getOrderItems().stream()
+                .map(item -> toOrderItemDTO(item.getId(), item.getProductId(), item.getProduct(), item.getPrice(), item.getQuantity()))
+                .collect(Collectors.toList());
+
+        // user is null once the account is soft-deleted.
+        User user = order.getUser();
+        return new OrderDTO(
+                order.getId(),
+                user != null ? user.getId() : order.getUserId(),
+                user != null ? user.getFirstName() : null,
+                user != null ? user.getLastName() : null,
+                user != null ? user.getEmail() : null,
+                order.getShippingAddress(),
+                order.getPaymentMethod(),
+                order.getStatus(),
+                order.getTotalAmount(),
+                order.getOrderDate(),
+                orderItemDTOs
+        );
+    }
+
     private OrderDTO convertToDTO(Order order) {
         List<OrderItemDTO> orderItemDTOs = null;
         if (order.getOrderItems() != null) {
@@ -151,12 +494,14 @@ public class OrderService {
             orderItemDTOs = List.of(); // Empty list if orderItems is null
         }
 
+        // user is null once the account is soft-deleted.
+        User user = order.getUser();
         return new OrderDTO(
                 order.getId(),
-                order.getUser().getId(),
-                order.getUser().getFirstName(),
-                order.getUser().getLastName(),
-                order.getUser().getEmail(),
+                user != null ? user.getId() : order.getUserId(),
+                user != null ? user.getFirstName() : null,
+                user != null ? user.getLastName() : null,
+                user != null ? user.getEmail() : null,
                 order.getShippingAddress(),
                 order.getPaymentMethod(),
                 order.getStatus(),
@@ -167,23 +512,28 @@ public class OrderService {
     }
 
     private OrderItemDTO convertOrderItemToDTO(OrderItem orderItem) {
-        Product product = orderItem.getProduct();
-        Seller seller = product.getSeller();
+        return toOrderItemDTO(orderItem.getId(), orderItem.getProductId(), orderItem.getProduct(),
+                orderItem.getPrice(), orderItem.getQuantity());
+    }
+
+    // product (or its seller) is null once soft-deleted; the line keeps its id, price and quantity.
+    private OrderItemDTO toOrderItemDTO(Long id, Long productId, Product product, BigDecimal price, Integer quantity) {
+        Seller seller = product != null ? product.getSeller() : null;
 
         return new OrderItemDTO(
-                orderItem.getId(),
-                product.getId(),
-                product.getName(),
-                product.getBrand(),
-                product.getCategory(),
-                product.getImageUrl(),
-                product.getPrice(),
-                orderItem.getPrice(),
-                orderItem.getQuantity(),
-                seller.getId(),
-                seller.getBusinessName(),
-                seller.getFirstName(),
-                seller.getLastName()
+                id,
+                product != null ? product.getId() : productId,
+                product != null ? product.getName() : null,
+                product != null ? product.getBrand() : null,
+                product != null ? product.getCategory() : null,
+                product != null ? product.getImageUrl() : null,
+                product != null ? product.getPrice() : null,
+                price,
+                quantity,
+                seller != null ? seller.getId() : null,
+                seller != null ? seller.getBusinessName() : null,
+                seller != null ? seller.getFirstName() : null,
+                seller != null ? seller.getLastName() : null
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.OrderDTO;
+import com.ecommerce.klu.dto.OrderItemDTO;
+import com.ecommerce.klu.model.OrderView;
+import com.ecommerce.klu.repository.OrderViewRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Denormalized order read model. Every order has an order_views row holding its OrderDTO as
+ * JSON, written at checkout and rewritten on status changes, so history and detail reads are
+ * one indexed lookup with no joins. Items keep the product name, image and seller they had
+ * when the order was placed.
+ *
+ * Reads fall back to the joined path until this instance has finished backfilling views for
+ * orders created before the table existed (or inserted behind the application's back).
+ */
+@Service
+public class OrderViewService {
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.orders.views.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean ready;
+
+    public boolean isServingReads() {
+        return enabled && ready;
+    }
+
+    void markReady() {
+        ready = true;
+    }
+
+    @Transactional
+    public void save(OrderDTO order) {
+        OrderView view = new OrderView();
+        view.setId(order.getId());
+        view.setUserId(order.getUserId());
+        view.setOrderDate(order.getOrderDate());
+        view.setStatus(order.getStatus());
+        view.setPayload(write(order));
+        Set<Long> sellerIds = new HashSet<>();
+        for (OrderItemDTO item : order.getOrderItems()) {
+            if (item.getSellerId() != null) {
+                sellerIds.add(item.getSellerId());
+            }
+        }
+        view.setSellerIds(sellerIds);
+        orderViewRepository.save(view);
+    }
+
+    // Rewrites the status in the stored snapshot; the rest of the snapshot is left as bought.
+    @Transactional
+    public Optional<OrderDTO> updateStatus(Long orderId, String status) {
+        return orderViewRepository.findById(orderId).map(view -> {
+            OrderDTO order = read(view.getPayload());
+            order.setStatus(status);
+            view.setStatus(status);
+            view.setPayload(write(order));
+            return order;
+        });
+    }
+
+    @Transactional
+    public void delete(Long orderId) {
+        orderViewRepository.findById(orderId).ifPresent(orderViewRepository::delete);
+    }
+
+    // Purge support: strips the personal fields of anonymised accounts from their snapshots.
+    @Transactional
+    public int anonymizeUsers(Collection<Long> userIds) {
+        return rewrite(afterId -> orderViewRepository.findByUserIds(userIds, afterId, PageRequest.of(0, 500)), order -> {
+            order.setUserFirstName(null);
+            order.setUserLastName(null);
+            order.setUserEmail(null);
+        });
+    }
+
+    @Transactional
+    public int anonymizeSellers(Collection<Long> sellerIds) {
+        return rewrite(afterId -> orderViewRepository.findBySellerIds(sellerIds, afterId, PageRequest.of(0, 500)), order -> {
+            for (OrderItemDTO item : order.getOrderItems()) {
+                if (sellerIds.contains(item.getSellerId())) {
+                    item.setSellerFirstName(null);
+                    item.setSellerLastName(null);
+                }
+            }
+        });
+    }
+
+    private int rewrite(LongFunction<List<OrderView>> page, Consumer<OrderDTO> change) {
+        int rewritten = 0;
+        long afterId = 0;
+        List<OrderView> views;
+        while (!(views = page.apply(afterId)).isEmpty()) {
+            for (OrderView view : views) {
+                OrderDTO order = read(view.getPayload());
+                change.accept(order);
+                view.setPayload(write(order));
+                afterId = view.getId();
+            }
+            rewritten += views.size();
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return rewritten;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderDTO> findById(Long orderId) {
+        return orderViewRepository.findPayloadById(orderId).map(this::read);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDTO> findByUser(Long userId) {
+        return orderViewRepository.findPayloadsByUserId(userId).stream().map(this::read).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDTO> findByUser(Long userId, int page, int size) {
+        return orderViewRepository.findPayloadsByUserId(userId, PageRequest.of(page, size)).stream()
+                .map(this::read).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDTO> findBySeller(Long sellerId) {
+        return orderViewRepository.findPayloadsBySellerId(sellerId).stream().map(this::read).toList();
+    }
+
+    private String write(OrderDTO order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order " + order.getId(), e);
+        }
+    }
+
+    private OrderDTO read(String payload) {
+        try {
+            return objectMapper.readValue(payload, OrderDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read order view", e);
+        }
+    }
+}
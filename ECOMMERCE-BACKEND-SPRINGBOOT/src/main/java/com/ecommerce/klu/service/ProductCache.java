@@ -0,0 +1,174 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.event.ProductChangedEvent;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * In-memory copies of recently read products for lookups by id (the multi-get endpoint, cart
+ * adds). Ids that aren't cached are loaded together in one query. The cache holds at most
+ * max-entries products, least recently used evicted first.
+ *
+ * Products are evicted when a ProductChangedEvent commits. Stock counts change without that
+ * event (reservations, checkouts, flash sales), so an entry is only served for ttl after it was
+ * loaded: cached stock is at most that old. A load that races with an eviction isn't cached, so
+ * an edit can't be overwritten by the row read just before it.
+ *
+ * With several instances, CacheInvalidationService evicts entries for the other instances'
+ * writes and keeps pushing coherentUntil forward; if it falls behind, nothing is served from or
+ * stored in the cache until it catches up.
+ */
+@Service
+public class ProductCache {
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final long ttlNanos;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Guarded by itself.
+    private final Map<Long, Entry> entries;
+    // Bumped by every eviction; a load only caches its rows if no eviction happened meanwhile.
+    private long evictions;
+    // nanoTime up to which every other instance's committed write is known to have been evicted;
+    // only checked once CacheInvalidationService has set it.
+    private volatile long coherentUntil;
+    private volatile boolean coherenceTracked;
+
+    public ProductCache(ProductRepository productRepository, MeterRegistry meterRegistry,
+                        @Value("${app.product-cache.enabled:true}") boolean enabled,
+                        @Value("${app.product-cache.max-entries:50000}") int maxEntries,
+                        @Value("${app.product-cache.ttl:30s}") Duration ttl) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("products.cache.hits").register(meterRegistry);
+        this.misses = Counter.builder("products.cache.misses").register(meterRegistry);
+        meterRegistry.gauge("products.cache.size", entries, map -> {
+            synchronized (map) {
+                return map.size();
+            }
+        });
+    }
+
+    public Optional<Product> get(Long id) {
+        List<Product> products = getAll(List.of(id));
+        return products.isEmpty() ? Optional.empty() : Optional.of(products.get(0));
+    }
+
+    // The products for ids, in request order with duplicates dropped; ids of missing or deleted
+    // products are left out.
+    public List<Product> getAll(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, Product> found = new HashMap<>();
+        List<Long> toLoad = new ArrayList<>();
+        long now = System.nanoTime();
+        long evictionsBeforeLoad;
+        boolean usable = enabled && (!coherenceTracked || now - coherentUntil < 0);
+        synchronized (entries) {
+            for (Long id : requested) {
+                Entry entry = usable ? entries.get(id) : null;
+                if (entry != null && now - entry.loadedAt < ttlNanos) {
+                    found.put(id, entry.product);
+                } else {
+                    toLoad.add(id);
+                }
+            }
+            evictionsBeforeLoad = evictions;
+        }
+        hits.increment(found.size());
+        if (!toLoad.isEmpty()) {
+            misses.increment(toLoad.size());
+            List<Product> loaded = productRepository.findAllById(toLoad);
+            loaded.forEach(product -> found.put(product.getId(), product));
+            if (usable) {
+                synchronized (entries) {
+                    if (evictions == evictionsBeforeLoad) {
+                        loaded.forEach(product -> entries.put(product.getId(), new Entry(product, now)));
+                    }
+                }
+            }
+        }
+        List<Product> products = new ArrayList<>(found.size());
+        for (Long id : requested) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    // How old a served entry can be.
+    public Duration ttl() {
+        return ttl;
+    }
+
+    // Unexpired entries, least recently used first (for CatalogSnapshotService).
+    public List<Product> entries() {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            List<Product> live = new ArrayList<>(entries.size());
+            for (Entry entry : entries.values()) {
+                if (now - entry.loadedAt < ttlNanos) {
+                    live.add(entry.product);
+                }
+            }
+            return live;
+        }
+    }
+
+    // Adds products known to be current, e.g. restored from a snapshot and caught up.
+    public void warm(List<Product> products) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        synchronized (entries) {
+            products.forEach(product -> entries.put(product.getId(), new Entry(product, now)));
+        }
+    }
+
+    public void coherentUntil(long nanoTime) {
+        coherentUntil = nanoTime;
+        coherenceTracked = true;
+    }
+
+    public void evict(Long id) {
+        synchronized (entries) {
+            entries.remove(id);
+            evictions++;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.getProductId());
+    }
+
+    private record Entry(Product product, long loadedAt) {
+    }
+}
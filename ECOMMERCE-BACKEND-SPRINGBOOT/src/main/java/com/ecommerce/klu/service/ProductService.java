@@ -1,67 +1,335 @@
 package com.ecommerce.klu.service;
 
+import com.ecommerce.klu.event.ProductChangedEvent;
 import com.ecommerce.klu.model.Product;
 import com.ecommerce.klu.model.Seller;
+import com.ecommerce.klu.repository.CartItemRepository;
 import com.ecommerce.klu.repository.ProductRepository;
+import com.ecommerce.klu.repository.StockReservationRepository;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
 
 @Service
 public class ProductService {
 
+    private static final Set<String> PATCHABLE_FIELDS =
+            Set.of("name", "description", "price", "stockQuantity", "imageUrl", "category", "brand");
+
+    // Sparse reads (fields=): JSON name -> JPQL path of the column it is read from.
+    private static final Map<String, String> FIELD_COLUMNS = new LinkedHashMap<>();
+    static {
+        for (String field : List.of("id", "name", "description", "price", "stockQuantity", "imageUrl", "category",
+                "brand", "createdAt", "updatedAt", "version", "flashSale")) {
+            FIELD_COLUMNS.put(field, "p." + field);
+        }
+        FIELD_COLUMNS.put("sellerId", "p.seller.id");
+    }
+
+    public static final Set<String> FIELDS = Collections.unmodifiableSet(FIELD_COLUMNS.keySet());
+
     @Autowired
     private ProductRepository productRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private FlashSaleStockService flashSaleStockService;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
 
+    // Products for the given ids in the same order; ids of missing or deleted products are skipped.
+    @Transactional(readOnly = true)
+    public List<Product> getProductsByIds(List<Long> ids) {
+        Map<Long, Product> byId = new HashMap<>();
+        productRepository.findAllById(ids).forEach(product -> byId.put(product.getId(), product));
+        List<Product> products = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            Product product = byId.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    @Transactional(readOnly = true)
     public List<Product> getProductsByCategory(String category) {
         return productRepository.findByCategory(category);
     }
 
+    @Transactional(readOnly = true)
     public List<Product> getProductsByBrand(String brand) {
         return productRepository.findByBrand(brand);
     }
 
+    @Transactional(readOnly = true)
     public List<Product> getProductsBySeller(Seller seller) {
         return productRepository.findBySeller(seller);
     }
 
+    @Transactional(readOnly = true)
     public List<Product> searchProducts(String keyword) {
         return productRepository.findByNameContainingIgnoreCase(keyword);
     }
 
+    @Transactional(readOnly = true)
     public List<Product> getAvailableProducts() {
         return productRepository.findByStockQuantityGreaterThan(0);
     }
 
+    // The read methods below select only the named FIELDS and return each product as field -> value.
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllProductFields(Collection<String> fields) {
+        return selectFields(fields, null, Map.of());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getProductFieldsById(Long id, Collection<String> fields) {
+        return selectFields(fields, "p.id = :id", Map.of("id", id)).stream().findFirst();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getProductFieldsByIds(List<Long> ids, Collection<String> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Set<String> withId = new LinkedHashSet<>(fields);
+        withId.add("id");
+        Map<Object, Map<String, Object>> byId = new HashMap<>();
+        for (Map<String, Object> row : selectFields(withId, "p.id IN :ids", Map.of("ids", ids))) {
+            byId.put(row.get("id"), row);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            Map<String, Object> row = byId.get(id);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getProductFieldsByCategory(String category, Collection<String> fields) {
+        return selectFields(fields, "p.category = :category", Map.of("category", category));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getProductFieldsByBrand(String brand, Collection<String> fields) {
+        return selectFields(fields, "p.brand = :brand", Map.of("brand", brand));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getProductFieldsBySeller(Seller seller, Collection<String> fields) {
+        return selectFields(fields, "p.seller.id = :sellerId", Map.of("sellerId", seller.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchProductFields(String keyword, Collection<String> fields) {
+        String pattern = "%" + keyword.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return selectFields(fields, "lower(p.name) LIKE :pattern ESCAPE '\\'", Map.of("pattern", pattern));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAvailableProductFields(Collection<String> fields) {
+        return selectFields(fields, "p.stockQuantity > 0", Map.of());
+    }
+
+    private List<Map<String, Object>> selectFields(Collection<String> fields, String condition, Map<String, Object> params) {
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("No fields requested");
+        }
+        StringJoiner select = new StringJoiner(", ", "SELECT ", " FROM Product p");
+        for (String field : fields) {
+            String column = FIELD_COLUMNS.get(field);
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown field '" + field + "'");
+            }
+            select.add(column + " AS " + field);
+        }
+        String jpql = condition == null ? select.toString() : select + " WHERE " + condition;
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql, Tuple.class);
+        params.forEach(query::setParameter);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : query.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Transactional
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        // A null version is what marks the product as new to save().
+        product.setVersion(null);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId(), saved));
+        return saved;
     }
 
+    // PUT: copies the editable fields onto the managed row. With @DynamicUpdate only columns
+    // whose value actually changed are written, and the version check catches concurrent writers.
+    // Stock is left out: a full-object PUT would write back whatever stock the client loaded,
+    // undoing the sales made since. Stock changes go through PATCH with expectedStockQuantity.
+    @Transactional
     public Product updateProduct(Product product) {
+        Product existing = productRepository.findById(product.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Product " + product.getId() + " not found"));
+        checkVersion(existing, product.getVersion());
+        existing.setName(product.getName());
+        existing.setDescription(product.getDescription());
+        existing.setPrice(product.getPrice());
+        existing.setImageUrl(product.getImageUrl());
+        existing.setCategory(product.getCategory());
+        existing.setBrand(product.getBrand());
+        existing.setUpdatedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(new ProductChangedEvent(existing.getId(), existing));
+        return existing;
+    }
+
+    // PATCH: applies only the fields present in the request; returns empty if the product is gone.
+    // Sales don't move the version, so a new stockQuantity is checked on its own: it is written
+    // only if the row still holds expectedStockQuantity, the stock the seller was looking at.
+    @Transactional
+    public Optional<Product> patchProduct(Long id, Map<String, Object> changes, Long expectedVersion,
+                                          Integer expectedStock) {
+        Optional<Product> existing = productRepository.findById(id);
+        if (existing.isEmpty()) {
+            return existing;
+        }
+        Product product = existing.get();
+        checkVersion(product, expectedVersion);
+        for (String field : changes.keySet()) {
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Field " + field + " cannot be patched; use one of " + PATCHABLE_FIELDS);
+            }
+        }
+        Map<String, Object> fields = new HashMap<>(changes);
+        Object stock = fields.remove("stockQuantity");
+        try {
+            objectMapper.updateValue(product, fields);
+        } catch (JsonMappingException e) {
+            throw new IllegalArgumentException("Invalid product fields: " + e.getOriginalMessage());
+        }
+        if (stock != null) {
+            setStock(product, stock, expectedStock);
+        }
         product.setUpdatedAt(LocalDateTime.now());
-        return productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, product));
+        return Optional.of(product);
+    }
+
+    private void setStock(Product product, Object value, Integer expectedStock) {
+        if (product.isFlashSale()) {
+            // The shards hold this product's stock; the reconcile job would overwrite the column.
+            throw new IllegalArgumentException("Stock of product " + product.getId()
+                    + " is managed by its flash sale; end the sale before changing it");
+        }
+        if (expectedStock == null) {
+            throw new IllegalArgumentException("expectedStockQuantity is required to change stockQuantity");
+        }
+        int stock = Integer.parseInt(value.toString().trim());
+        if (stock < 0) {
+            throw new IllegalArgumentException("stockQuantity cannot be negative");
+        }
+        if (productRepository.setStock(product.getId(), stock, expectedStock, LocalDateTime.now()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, product.getId());
+        }
+        // The row already holds it; this keeps the managed copy (and the response) in step.
+        product.setStockQuantity(stock);
+    }
+
+    private void checkVersion(Product product, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, product.getId());
+        }
     }
 
+    // Soft delete: the product disappears from every query at once and leaves carts (its
+    // reservations are dropped, the stock no longer matters). Shards and the row itself are
+    // cleaned up later by SoftDeletePurgeService.
+    @Transactional
     public void deleteProduct(Long id) {
-        productRepository.deleteById(id);
+        if (productRepository.softDelete(id, LocalDateTime.now()) > 0) {
+            stockReservationRepository.deleteByProductId(id);
+            cartItemRepository.deleteByProductIds(List.of(id));
+            eventPublisher.publishEvent(new ProductChangedEvent(id, null));
+        }
+    }
+
+    // Conditional decrement in a single UPDATE: the row lock is held only for the statement,
+    // and stock can never go negative. Returns false when there is not enough left.
+    // Flash-sale products take the stock from one of their shards instead.
+    @Transactional
+    public boolean decrementStock(Long productId, int quantity) {
+        if (flashSaleStockService.isActive(productId)) {
+            Boolean taken = flashSaleStockService.decrement(productId, quantity);
+            if (taken != null) {
+                return taken;
+            }
+        }
+        if (productRepository.decrementStock(productId, quantity, LocalDateTime.now()) == 1) {
+            return true;
+        }
+        // Out of stock, or another instance has just put the product on flash sale.
+        return flashSaleStockService.refresh(productId)
+                && Boolean.TRUE.equals(flashSaleStockService.decrement(productId, quantity));
     }
 
-    public void updateStock(Long productId, Integer quantity) {
-        Optional<Product> productOpt = productRepository.findById(productId);
-        if (productOpt.isPresent()) {
-            Product product = productOpt.get();
-            product.setStockQuantity(product.getStockQuantity() - quantity);
-            productRepository.save(product);
+    @Transactional
+    public void incrementStock(Long productId, int quantity) {
+        if (flashSaleStockService.isActive(productId) && flashSaleStockService.increment(productId, quantity)) {
+            return;
+        }
+        if (productRepository.incrementStock(productId, quantity, LocalDateTime.now()) == 0
+                && flashSaleStockService.refresh(productId)) {
+            flashSaleStockService.increment(productId, quantity);
         }
     }
 }
\ No newline at end of file
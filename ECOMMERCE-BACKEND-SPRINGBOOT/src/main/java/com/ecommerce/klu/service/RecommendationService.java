@@ -0,0 +1,215 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.OrderItemDTO;
+import com.ecommerce.klu.event.OrderPlacedEvent;
+import com.ecommerce.klu.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Frequently bought together": for every product, how many orders also contained each other
+ * product. Counts live in memory in one LongIntHashMap per product and are updated as orders
+ * commit; at startup they are rebuilt from order_items and order_items_archive.
+ *
+ * Reads are served from a per-product top-K list computed on first use and dropped whenever
+ * an order touches the product, so a repeated lookup is a single map get. Products with more
+ * than max-related-per-product partners shed their rarest pairs to keep memory bounded.
+ */
+@Service
+public class RecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
+
+    private static final long[] NONE = new long[0];
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.recommendations.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.recommendations.top-k:20}")
+    private int topK;
+
+    @Value("${app.recommendations.max-basket-size:50}")
+    private int maxBasketSize;
+
+    @Value("${app.recommendations.max-related-per-product:2000}")
+    private int maxRelatedPerProduct;
+
+    @Value("${app.recommendations.bootstrap-batch-size:1000}")
+    private int bootstrapBatchSize;
+
+    // Guarded by this.
+    private final Map<Long, LongIntHashMap> pairs = new HashMap<>();
+
+    private final Map<Long, long[]> related = new ConcurrentHashMap<>();
+
+    // Orders up to this id were loaded by the bootstrap; their events must not count twice.
+    private volatile long bootstrappedUpTo = Long.MAX_VALUE;
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (!enabled || event.getOrder().getId() <= bootstrappedUpTo) {
+            return;
+        }
+        List<Long> basket = new ArrayList<>();
+        for (OrderItemDTO item : event.getOrder().getOrderItems()) {
+            basket.add(item.getProductId());
+        }
+        record(basket);
+    }
+
+    // Products most often bought together with productId, best first; at most top-k of them.
+    public List<Long> relatedProductIds(long productId, int limit) {
+        long[] ids = related.computeIfAbsent(productId, this::computeRelated);
+        List<Long> result = new ArrayList<>(Math.min(limit, ids.length));
+        for (int i = 0; i < ids.length && i < limit; i++) {
+            result.add(ids[i]);
+        }
+        return result;
+    }
+
+    // Like relatedProductIds, resolved to products; deleted products are skipped.
+    public List<Product> relatedProducts(long productId, int limit) {
+        List<Product> products = productService.getProductsByIds(relatedProductIds(productId, topK));
+        return products.size() > limit ? products.subList(0, limit) : products;
+    }
+
+    public synchronized int pairCount() {
+        int count = 0;
+        for (LongIntHashMap partners : pairs.values()) {
+            count += partners.size();
+        }
+        return count;
+    }
+
+    private void record(List<Long> basket) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (Long productId : basket) {
+            if (productId != null && distinct.size() < maxBasketSize) {
+                distinct.add(productId);
+            }
+        }
+        if (distinct.size() < 2) {
+            return;
+        }
+        Long[] products = distinct.toArray(Long[]::new);
+        synchronized (this) {
+            for (Long product : products) {
+                LongIntHashMap partners = pairs.computeIfAbsent(product, id -> new LongIntHashMap());
+                for (Long other : products) {
+                    if (!other.equals(product)) {
+                        partners.addTo(other, 1);
+                    }
+                }
+                if (partners.size() > maxRelatedPerProduct) {
+                    prune(partners);
+                }
+            }
+        }
+        for (Long product : products) {
+            related.remove(product);
+        }
+    }
+
+    // Raises the bar one count at a time until the map is back to three quarters of the cap.
+    private void prune(LongIntHashMap partners) {
+        int minCount = 2;
+        while (partners.size() > maxRelatedPerProduct * 3 / 4) {
+            partners.removeBelow(minCount++);
+        }
+    }
+
+    private synchronized long[] computeRelated(Long productId) {
+        LongIntHashMap partners = pairs.get(productId);
+        if (partners == null) {
+            return NONE;
+        }
+        // Bounded insertion sort: top-k is small, so this beats sorting every partner.
+        long[] ids = new long[Math.min(topK, partners.size())];
+        int[] counts = new int[ids.length];
+        int[] filled = {0};
+        partners.forEach((id, count) -> {
+            int n = filled[0];
+            if (n == ids.length && !ranksAbove(count, id, counts[n - 1], ids[n - 1])) {
+                return;
+            }
+            int i = n == ids.length ? n - 1 : n;
+            while (i > 0 && ranksAbove(count, id, counts[i - 1], ids[i - 1])) {
+                ids[i] = ids[i - 1];
+                counts[i] = counts[i - 1];
+                i--;
+            }
+            ids[i] = id;
+            counts[i] = count;
+            filled[0] = Math.min(n + 1, ids.length);
+        });
+        return Arrays.copyOf(ids, filled[0]);
+    }
+
+    // Higher counts first, then lower ids so the order is stable.
+    private static boolean ranksAbove(int count, long id, int otherCount, long otherId) {
+        return count > otherCount || (count == otherCount && id < otherId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!enabled) {
+            return;
+        }
+        long upTo = Math.max(maxId("orders"), maxId("orders_archive"));
+        bootstrappedUpTo = upTo;
+        long started = System.nanoTime();
+        int orders = load("orders", "order_items", upTo) + load("orders_archive", "order_items_archive", upTo);
+        related.clear();
+        log.info("Loaded co-occurrence pairs from {} orders in {} ms ({} pairs)", orders,
+                (System.nanoTime() - started) / 1_000_000, pairCount());
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    // Reads whole orders at a time: a page of order ids, then every item in that id range.
+    private int load(String orderTable, String itemTable, long upTo) {
+        int loaded = 0;
+        long afterId = 0;
+        while (afterId < upTo) {
+            List<Long> orderIds = jdbcTemplate.queryForList("SELECT id FROM " + orderTable
+                    + " WHERE id > ? AND id <= ? ORDER BY id LIMIT ?", Long.class, afterId, upTo, bootstrapBatchSize);
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            long lastId = orderIds.get(orderIds.size() - 1);
+            Map<Long, List<Long>> baskets = new HashMap<>();
+            jdbcTemplate.query("SELECT order_id, product_id FROM " + itemTable + " WHERE order_id > ? AND order_id <= ?",
+                    (RowCallbackHandler) row -> baskets.computeIfAbsent(row.getLong(1), id -> new ArrayList<>()).add(row.getLong(2)),
+                    afterId, lastId);
+            baskets.values().forEach(this::record);
+            loaded += orderIds.size();
+            afterId = lastId;
+        }
+        return loaded;
+    }
+}
@@ -1,9 +1,16 @@
 package com.ecommerce.klu.service;
 
+import com.ecommerce.klu.event.ProductChangedEvent;
 import com.ecommerce.klu.model.Seller;
+import com.ecommerce.klu.repository.CartItemRepository;
+import com.ecommerce.klu.repository.ProductRepository;
 import com.ecommerce.klu.repository.SellerRepository;
+import com.ecommerce.klu.repository.StockReservationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +20,18 @@ public class SellerService {
     @Autowired
     private SellerRepository sellerRepository;
 
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<Seller> getAllSellers() {
         return sellerRepository.findAll();
     }
@@ -46,8 +65,17 @@ public class SellerService {
         return sellerRepository.save(seller);
     }
 
+    // Soft delete of the seller and, in the same statements, all of their products.
+    @Transactional
     public void deleteSeller(Long id) {
-        sellerRepository.deleteById(id);
+        LocalDateTime now = LocalDateTime.now();
+        if (sellerRepository.softDelete(id, now) > 0) {
+            stockReservationRepository.deleteBySellerId(id);
+            cartItemRepository.deleteBySellerId(id);
+            List<Long> productIds = productRepository.findIdsBySellerId(id);
+            productRepository.softDeleteBySeller(id, now);
+            productIds.forEach(productId -> eventPublisher.publishEvent(new ProductChangedEvent(productId, null)));
+        }
     }
 
     public boolean existsByUsername(String username) {
@@ -0,0 +1,138 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.repository.CartItemRepository;
+import com.ecommerce.klu.repository.ProductRepository;
+import com.ecommerce.klu.repository.ProductStockShardRepository;
+import com.ecommerce.klu.repository.SellerRepository;
+import com.ecommerce.klu.repository.StockReservationRepository;
+import com.ecommerce.klu.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Finishes soft deletes in the background. Deleting a user, seller or product only stamps
+ * deleted_at; once the grace period has passed this job works through those rows in small
+ * batches, one transaction each, so no request ever deletes a large account in one go.
+ *
+ * Rows nothing references any more are deleted. Rows that order history still points at stay
+ * behind as hidden tombstones: products as they are, users and sellers with their personal
+ * fields (and the copies in order_views) anonymised.
+ */
+@Service
+public class SoftDeletePurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(SoftDeletePurgeService.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ProductStockShardRepository stockShardRepository;
+
+    @Autowired
+    private OrderViewService orderViewService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.purge.after:7d}")
+    private Duration after;
+
+    @Value("${app.purge.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.purge.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(cron = "${app.purge.cron:0 15 * * * *}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purge();
+        }
+    }
+
+    // Products first, so a seller whose products have all gone can be deleted in the same run.
+    public int purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(after);
+        return run("products", cutoff, this::purgeProducts)
+                + run("sellers", cutoff, this::purgeSellers)
+                + run("users", cutoff, this::purgeUsers);
+    }
+
+    private int run(String table, LocalDateTime cutoff, Function<LocalDateTime, Integer> batch) {
+        int purged = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer count = transactionTemplate.execute(status -> batch.apply(cutoff));
+            if (count == null || count == 0) {
+                break;
+            }
+            purged += count;
+        }
+        if (purged > 0) {
+            log.info("Purged {} soft-deleted {}", purged, table);
+        }
+        return purged;
+    }
+
+    private int purgeProducts(LocalDateTime cutoff) {
+        List<Long> ids = productRepository.findPurgeable(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        cartItemRepository.deleteByProductIds(ids);
+        stockReservationRepository.deleteByProductIds(ids);
+        stockShardRepository.deleteByProductIds(ids);
+        productRepository.deleteUnreferenced(ids);
+        productRepository.markPurged(ids, LocalDateTime.now());
+        return ids.size();
+    }
+
+    private int purgeSellers(LocalDateTime cutoff) {
+        List<Long> ids = sellerRepository.findPurgeable(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        sellerRepository.deleteUnreferenced(ids);
+        sellerRepository.anonymize(ids, LocalDateTime.now());
+        orderViewService.anonymizeSellers(ids);
+        return ids.size();
+    }
+
+    private int purgeUsers(LocalDateTime cutoff) {
+        List<Long> ids = userRepository.findPurgeable(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // The cart was emptied at delete time; anything left is long expired.
+        cartItemRepository.deleteByUserIds(ids);
+        stockReservationRepository.deleteByUserIds(ids);
+        userRepository.deleteUnreferenced(ids);
+        userRepository.anonymize(ids, LocalDateTime.now());
+        orderViewService.anonymizeUsers(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.klu.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitter sketch over long ids with a fixed number of counters. Once full, an
+ * unseen id takes over the smallest counter and inherits its count as overestimation error, so
+ * any id whose true count exceeds total/capacity is guaranteed to be tracked. Counters sit in an
+ * indexed min-heap, making each update O(log capacity). Not thread-safe.
+ */
+public class SpaceSavingSketch {
+
+    private final long[] ids;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<Long, Integer> positions;
+    private int size;
+
+    public SpaceSavingSketch(int capacity) {
+        ids = new long[capacity];
+        counts = new long[capacity];
+        errors = new long[capacity];
+        positions = new HashMap<>(capacity * 2);
+    }
+
+    public void add(long id, long weight) {
+        Integer position = positions.get(id);
+        if (position != null) {
+            counts[position] += weight;
+            siftDown(position);
+            return;
+        }
+        if (size < ids.length) {
+            ids[size] = id;
+            counts[size] = weight;
+            errors[size] = 0;
+            positions.put(id, size);
+            siftUp(size++);
+            return;
+        }
+        // Evict the minimum (the heap root) and let the new id take over its count.
+        positions.remove(ids[0]);
+        ids[0] = id;
+        errors[0] = counts[0];
+        counts[0] += weight;
+        positions.put(id, 0);
+        siftDown(0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(Counter consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(ids[i], counts[i], errors[i]);
+        }
+    }
+
+    public void clear() {
+        positions.clear();
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (counts[parent] <= counts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        long count = counts[a];
+        long error = errors[a];
+        ids[a] = ids[b];
+        counts[a] = counts[b];
+        errors[a] = errors[b];
+        ids[b] = id;
+        counts[b] = count;
+        errors[b] = error;
+        positions.put(ids[a], a);
+        positions.put(ids[b], b);
+    }
+
+    @FunctionalInterface
+    public interface Counter {
+        void accept(long id, long count, long error);
+    }
+}
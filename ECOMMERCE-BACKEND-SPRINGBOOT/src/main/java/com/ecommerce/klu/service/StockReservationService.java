@@ -0,0 +1,188 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.StockReservation;
+import com.ecommerce.klu.model.User;
+import com.ecommerce.klu.repository.StockReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Holds stock for items sitting in carts. Adding to the cart moves quantity from
+ * products.stock_quantity into a stock_reservations row that expires after the configured TTL;
+ * checkout turns the user's reservations into the sale without touching the product rows again.
+ *
+ * Expiry is driven by an in-memory timing wheel. Each tick collects the due reservations and
+ * gives their stock back with one UPDATE per product for the whole batch. A slower sweep over
+ * the expires_at index catches reservations this instance never saw (created elsewhere, or
+ * before a restart that happened between the reload and the deadline).
+ */
+@Service
+public class StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationService.class);
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Duration ttl;
+    private final int batchSize;
+    private final ExpiryWheel wheel;
+
+    public StockReservationService(@Value("${app.reservations.ttl:15m}") Duration ttl,
+                                   @Value("${app.reservations.tick-ms:1000}") long tickMillis,
+                                   @Value("${app.reservations.wheel-slots:1024}") int wheelSlots,
+                                   @Value("${app.reservations.release-batch-size:500}") int batchSize) {
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+        this.wheel = new ExpiryWheel(wheelSlots, tickMillis, System.currentTimeMillis());
+    }
+
+    @Transactional
+    public boolean reserve(User user, Product product, int quantity) {
+        if (quantity <= 0) {
+            return true;
+        }
+        // Lock order everywhere is reservation rows first, then product rows. The row is created
+        // first so there is always one to lock, even for concurrent first adds.
+        LocalDateTime now = LocalDateTime.now();
+        reservationRepository.insertIfAbsent(user.getId(), product.getId(), now, now.plus(ttl));
+        StockReservation reservation = reservationRepository.lockByUserAndProduct(user, product).orElseThrow();
+        if (!productService.decrementStock(product.getId(), quantity)) {
+            if (reservation.getQuantity() == 0) {
+                reservationRepository.delete(reservation);
+            }
+            return false;
+        }
+        reservation.setQuantity(reservation.getQuantity() + quantity);
+        reservation.setExpiresAt(now.plus(ttl));
+        reservation = reservationRepository.save(reservation);
+        wheel.add(reservation.getId(), toMillis(reservation.getExpiresAt()));
+        return true;
+    }
+
+    @Transactional
+    public void release(User user, Product product, int quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        reservationRepository.lockByUserAndProduct(user, product).ifPresent(reservation -> {
+            int released = Math.min(quantity, reservation.getQuantity());
+            if (released == reservation.getQuantity()) {
+                reservationRepository.delete(reservation);
+            } else {
+                reservation.setQuantity(reservation.getQuantity() - released);
+            }
+            productService.incrementStock(product.getId(), released);
+        });
+    }
+
+    @Transactional
+    public void releaseAll(User user) {
+        List<StockReservation> reservations = reservationRepository.lockByUser(user);
+        for (StockReservation reservation : reservations) {
+            productService.incrementStock(reservation.getProduct().getId(), reservation.getQuantity());
+        }
+        reservationRepository.deleteAllInBatch(reservations);
+    }
+
+    // Takes the user's live reservations for checkout. Returns reserved quantity by product id;
+    // the caller owns that stock from here on (or the surrounding transaction rolls back).
+    @Transactional
+    public Map<Long, Integer> consume(User user) {
+        List<StockReservation> reservations = reservationRepository.lockByUser(user);
+        Map<Long, Integer> reserved = new HashMap<>();
+        for (StockReservation reservation : reservations) {
+            reserved.merge(reservation.getProduct().getId(), reservation.getQuantity(), Integer::sum);
+        }
+        reservationRepository.deleteAllInBatch(reservations);
+        return reserved;
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservations.tick-ms:1000}")
+    public void expireDue() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < due.size(); from += batchSize) {
+            releaseExpired(due.subList(from, Math.min(due.size(), from + batchSize)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservations.sweep-interval-ms:60000}")
+    public void sweepOverdue() {
+        // Give the wheel a tick or two before treating a reservation as missed.
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(5);
+        List<Long> overdue;
+        do {
+            overdue = reservationRepository.findIdsExpiringBefore(cutoff, PageRequest.of(0, batchSize));
+        } while (!overdue.isEmpty() && releaseExpired(overdue) > 0);
+    }
+
+    public int releaseExpired(List<Long> ids) {
+        Integer released = transactionTemplate.execute(status -> {
+            List<StockReservation> expired = reservationRepository.lockExpired(ids, LocalDateTime.now());
+            if (expired.isEmpty()) {
+                return 0;
+            }
+            // Sorted by product id so concurrent batches lock product rows in the same order.
+            Map<Long, Integer> byProduct = new TreeMap<>();
+            for (StockReservation reservation : expired) {
+                byProduct.merge(reservation.getProduct().getId(), reservation.getQuantity(), Integer::sum);
+            }
+            byProduct.forEach(productService::incrementStock);
+            reservationRepository.deleteAllInBatch(expired);
+            return expired.size();
+        });
+        if (released != null && released > 0) {
+            log.debug("Released {} expired stock reservations", released);
+        }
+        return released == null ? 0 : released;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPending() {
+        long afterId = 0;
+        int loaded = 0;
+        List<Object[]> page;
+        do {
+            page = reservationRepository.findDeadlines(afterId, PageRequest.of(0, 10_000));
+            for (Object[] row : page) {
+                afterId = (Long) row[0];
+                wheel.add(afterId, toMillis((LocalDateTime) row[1]));
+            }
+            loaded += page.size();
+        } while (!page.isEmpty());
+        if (loaded > 0) {
+            log.info("Tracking {} pending stock reservations", loaded);
+        }
+    }
+
+    public int pendingCount() {
+        return wheel.size();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
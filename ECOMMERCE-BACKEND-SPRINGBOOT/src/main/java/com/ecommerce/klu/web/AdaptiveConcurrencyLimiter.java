@@ -0,0 +1,107 @@
+package com.ecommerce.klu.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Discovers how many requests the backend can have in flight before latency starts to climb,
+ * using the gradient between the long-term and the current round-trip time:
+ *
+ * <pre>
+ *   gradient = clamp(longRtt / shortRtt, 0.5, 1.0)
+ *   newLimit = limit * gradient + sqrt(limit)
+ * </pre>
+ *
+ * While latency stays at its baseline the limit grows by a small queue allowance; once requests
+ * start queueing (on Tomcat threads or the connection pool) the short-term RTT rises and the
+ * limit shrinks proportionally.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    // Window state, guarded by this.
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing,
+                                      long windowNanos, int minWindowSamples) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.windowNanos = windowNanos;
+        this.minWindowSamples = minWindowSamples;
+        this.windowStart = System.nanoTime();
+    }
+
+    /**
+     * Admits a request if the in-flight count is below {@code share} of the current limit.
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos, boolean sample) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (sample) {
+            onSample(rttNanos, inFlightAtCompletion);
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion) {
+        windowRttSum += rttNanos;
+        windowSamples++;
+
+        long now = System.nanoTime();
+        if (now - windowStart < windowNanos || windowSamples < minWindowSamples) {
+            return;
+        }
+        double shortRtt = (double) windowRttSum / windowSamples;
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+            return;
+        }
+        // Slowly track the baseline; recover faster when latency drops below it.
+        longRtt = shortRtt < longRtt ? longRtt * 0.9 + shortRtt * 0.1 : longRtt * 0.99 + shortRtt * 0.01;
+
+        double current = limit;
+        // An app-limited server (few requests in flight) says nothing about capacity.
+        if (inFlightAtCompletion < current / 2 && shortRtt <= longRtt) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+        double estimate = current * gradient + Math.sqrt(current);
+        double smoothed = current * (1 - smoothing) + estimate * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
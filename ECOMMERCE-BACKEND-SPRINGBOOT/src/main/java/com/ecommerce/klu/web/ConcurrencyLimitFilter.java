@@ -0,0 +1,102 @@
+package com.ecommerce.klu.web;
+
+import com.ecommerce.klu.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load before it queues on Tomcat threads and the connection pool. Checkout and cart
+ * requests may use the whole adaptive limit while browsing and admin listings only get a share
+ * of it, so under overload catalog traffic is turned away first.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    // Tailing the order journal holds the request open for up to app.journal.max-wait by design;
+    // counting it would both use up the limit and read as latency to the limiter.
+    private static final String JOURNAL_TAIL_PATH = "/api/admin/orders/journal";
+
+    static final String BUSY = "{\"success\":false,\"message\":\"Server busy, please retry\"}";
+
+    private final ConcurrencyLimitProperties properties;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<EndpointClass, Counter> shed = new EnumMap<>(EndpointClass.class);
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limiter = new AdaptiveConcurrencyLimiter(properties.getInitialLimit(), properties.getMinLimit(),
+                properties.getMaxLimit(), properties.getSmoothing(),
+                TimeUnit.MILLISECONDS.toNanos(properties.getWindowMillis()), properties.getMinWindowSamples());
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            shed.put(endpointClass, Counter.builder("concurrency.shed")
+                    .tag("endpoint", endpointClass.name().toLowerCase()).register(meterRegistry));
+        }
+        meterRegistry.gauge("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || "OPTIONS".equals(request.getMethod())
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/api/")
+                || request.getRequestURI().equals(request.getContextPath() + JOURNAL_TAIL_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!tryAcquire(EndpointClass.of(request))) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(BUSY);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            // Failed requests are often fast and would make the server look healthier than it is.
+            release(System.nanoTime() - start, !failed && response.getStatus() < 500);
+        }
+    }
+
+    // Also used by ReactiveAdmissionFilter: both servers read the same database, so the reactive
+    // catalog shares this limit and, like catalog requests here, only gets the catalog share.
+    boolean tryAcquire(EndpointClass endpointClass) {
+        if (limiter.tryAcquire(properties.shareFor(endpointClass))) {
+            return true;
+        }
+        shed.get(endpointClass).increment();
+        return false;
+    }
+
+    void release(long elapsedNanos, boolean succeeded) {
+        limiter.release(elapsedNanos, succeeded);
+    }
+
+    boolean isEnabled() {
+        return properties.isEnabled();
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.klu.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Coarse grouping of API endpoints used by the admission-control filters.
+ */
+public enum EndpointClass {
+    CHECKOUT,
+    AUTH,
+    SEARCH,
+    CATALOG,
+    ADMIN,
+    DEFAULT;
+
+    public static EndpointClass of(HttpServletRequest request) {
+        return of(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    public static EndpointClass of(String method, String path) {
+        if (path.startsWith("/api/cart") || ("POST".equals(method) && path.equals("/api/orders"))) {
+            return CHECKOUT;
+        }
+        if (path.endsWith("/login") || path.endsWith("/register")) {
+            return AUTH;
+        }
+        if (path.startsWith("/api/admin")) {
+            return ADMIN;
+        }
+        if (path.startsWith("/api/products/search")) {
+            return SEARCH;
+        }
+        if ("GET".equals(method) && path.startsWith("/api/products")) {
+            return CATALOG;
+        }
+        return DEFAULT;
+    }
+}
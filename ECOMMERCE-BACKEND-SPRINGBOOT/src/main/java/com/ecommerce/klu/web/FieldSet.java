@@ -0,0 +1,94 @@
+package com.ecommerce.klu.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A parsed {@code fields=} request parameter (sparse fieldset): a comma-separated list of the
+ * properties a client wants back, with dotted names selecting inside a nested list
+ * ({@code orderItems.productName}). The id is always included. Unknown names are rejected
+ * with IllegalArgumentException rather than silently producing empty objects.
+ */
+public final class FieldSet {
+
+    private final Set<String> names;
+    // Nested property -> the fields kept inside it; absent means the nested value is kept whole.
+    private final Map<String, Set<String>> nested;
+
+    private FieldSet(Set<String> names, Map<String, Set<String>> nested) {
+        this.names = names;
+        this.nested = nested;
+    }
+
+    public static FieldSet parse(String spec, Set<String> allowed) {
+        return parse(spec, allowed, Map.of());
+    }
+
+    public static FieldSet parse(String spec, Set<String> allowed, Map<String, Set<String>> allowedNested) {
+        Set<String> names = new LinkedHashSet<>();
+        names.add("id");
+        Map<String, Set<String>> nested = new LinkedHashMap<>();
+        Set<String> whole = new LinkedHashSet<>();
+        for (String part : spec.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            int dot = name.indexOf('.');
+            if (dot < 0) {
+                if (!allowed.contains(name)) {
+                    throw new IllegalArgumentException("Unknown field '" + name + "'");
+                }
+                names.add(name);
+                whole.add(name);
+            } else {
+                String parent = name.substring(0, dot);
+                String child = name.substring(dot + 1);
+                Set<String> children = allowedNested.get(parent);
+                if (children == null || !children.contains(child)) {
+                    throw new IllegalArgumentException("Unknown field '" + name + "'");
+                }
+                names.add(parent);
+                nested.computeIfAbsent(parent, k -> new LinkedHashSet<>()).add(child);
+            }
+        }
+        // "orderItems" on its own asks for whole items, whatever else is named under it.
+        whole.forEach(nested::remove);
+        return new FieldSet(Collections.unmodifiableSet(names), nested);
+    }
+
+    // Top-level names in request order, id first.
+    public Set<String> names() {
+        return names;
+    }
+
+    public boolean isWithin(Set<String> fields) {
+        return fields.containsAll(names);
+    }
+
+    // A copy of node (an object, or an array of them) holding only the selected properties.
+    public JsonNode filter(JsonNode node) {
+        if (node.isArray()) {
+            ArrayNode filtered = JsonNodeFactory.instance.arrayNode(node.size());
+            node.forEach(element -> filtered.add(filter(element)));
+            return filtered;
+        }
+        ObjectNode filtered = JsonNodeFactory.instance.objectNode();
+        for (String name : names) {
+            JsonNode value = node.get(name);
+            if (value == null) {
+                continue;
+            }
+            Set<String> children = nested.get(name);
+            filtered.set(name, children == null ? value : new FieldSet(children, Map.of()).filter(value));
+        }
+        return filtered;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.klu.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets one in every {@code rate} events through. Lock-free, so it is safe to consult on every
+ * request before deciding whether to build a log message at all.
+ */
+public class LogSampler {
+
+    private final int rate;
+    private final AtomicLong counter = new AtomicLong();
+
+    public LogSampler(int rate) {
+        this.rate = Math.max(1, rate);
+    }
+
+    public boolean sample() {
+        return rate == 1 || counter.getAndIncrement() % rate == 0;
+    }
+}
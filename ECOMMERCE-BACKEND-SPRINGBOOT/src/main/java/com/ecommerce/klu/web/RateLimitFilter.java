@@ -0,0 +1,182 @@
+package com.ecommerce.klu.web;
+
+import com.ecommerce.klu.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint-class token bucket admission control. Every request is charged against a bucket
+ * for its client IP and, when the request names a user (userId parameter or X-User-Id header),
+ * against a bucket for that user at that IP as well. The user id is whatever the client sent, so
+ * it only narrows the IP's allowance; keying on it alone would let anyone drain another user's
+ * bucket. Rejected requests get 429 with a Retry-After hint; a request rejected for its IP
+ * doesn't use up a token of its user.
+ *
+ * Buckets live in a concurrent map, so admission takes no lock. Full buckets are swept
+ * periodically, and once max-buckets are kept a new one replaces a full bucket if a short scan
+ * finds one, or an arbitrary one otherwise (a dropped bucket starts again full).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Buckets looked at for a full one when making room for a new bucket.
+    private static final int EVICTION_SCAN = 16;
+
+    private final RateLimitProperties properties;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<EndpointClass, Counter> rejectedByUser = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejectedByIp = new EnumMap<>(EndpointClass.class);
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String tag = endpointClass.name().toLowerCase();
+            rejectedByUser.put(endpointClass, Counter.builder("ratelimit.rejected")
+                    .tag("endpoint", tag).tag("key", "user").register(meterRegistry));
+            rejectedByIp.put(endpointClass, Counter.builder("ratelimit.rejected")
+                    .tag("endpoint", tag).tag("key", "ip").register(meterRegistry));
+        }
+        meterRegistry.gauge("ratelimit.buckets", buckets, Map::size);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || "OPTIONS".equals(request.getMethod())
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long wait = admit(EndpointClass.of(request), userId(request.getParameter("userId"), request.getHeader("X-User-Id")),
+                clientIp(request.getHeader("X-Forwarded-For"), request.getRemoteAddr()));
+        if (wait > 0) {
+            reject(response, wait);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // Charges a request to its buckets. Returns 0 if it is admitted, otherwise the nanoseconds
+    // until it would be. Shared with ReactiveAdmissionFilter, so a client's allowance covers
+    // both ports.
+    long admit(EndpointClass endpointClass, String userId, String ip) {
+        RateLimitProperties.Limit limit = properties.limitFor(endpointClass);
+        if (limit == null || limit.getCapacity() <= 0 || limit.getRefillPerSecond() <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+
+        TokenBucket userBucket = null;
+        if (userId != null) {
+            userBucket = bucket(endpointClass + ":user:" + userId + "@" + ip, limit.getCapacity(),
+                    limit.getRefillPerSecond(), now);
+            long wait = userBucket.tryAcquire(now);
+            if (wait > 0) {
+                rejectedByUser.get(endpointClass).increment();
+                return wait;
+            }
+        }
+
+        int multiplier = Math.max(1, properties.getIpMultiplier());
+        long wait = bucket(endpointClass + ":ip:" + ip,
+                limit.getCapacity() * multiplier, limit.getRefillPerSecond() * multiplier, now).tryAcquire(now);
+        if (wait > 0) {
+            if (userBucket != null) {
+                userBucket.refund();
+            }
+            rejectedByIp.get(endpointClass).increment();
+        }
+        return wait;
+    }
+
+    boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    private TokenBucket bucket(String key, long capacity, double refillPerSecond, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        // Concurrent first requests may overshoot max-buckets by a few.
+        while (buckets.size() >= properties.getMaxBuckets()) {
+            if (!evictOne(now)) {
+                break;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerSecond, now));
+    }
+
+    private boolean evictOne(long now) {
+        Iterator<Map.Entry<String, TokenBucket>> entries = buckets.entrySet().iterator();
+        String victim = null;
+        for (int i = 0; i < EVICTION_SCAN && entries.hasNext(); i++) {
+            Map.Entry<String, TokenBucket> entry = entries.next();
+            if (entry.getValue().isFull(now)) {
+                victim = entry.getKey();
+                break;
+            }
+            if (victim == null) {
+                victim = entry.getKey();
+            }
+        }
+        return victim != null && buckets.remove(victim) != null;
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = retryAfterSeconds(waitNanos);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(rejection(retryAfterSeconds));
+    }
+
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    static String rejection(long retryAfterSeconds) {
+        return "{\"success\":false,\"message\":\"Too many requests\",\"retryAfterSeconds\":" + retryAfterSeconds + "}";
+    }
+
+    static String userId(String parameter, String header) {
+        String userId = parameter == null || parameter.isBlank() ? header : parameter;
+        return userId == null || userId.isBlank() ? null : userId.trim();
+    }
+
+    String clientIp(String forwardedFor, String remoteAddr) {
+        if (properties.isTrustForwardedFor() && forwardedFor != null && !forwardedFor.isBlank()) {
+            int comma = forwardedFor.indexOf(',');
+            return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+        }
+        return remoteAddr;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.klu.web;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The servlet filters for requests served by ReactiveCatalogServer, which never pass through
+ * them: the request id and sampled access log of RequestLoggingFilter, then the rate-limit
+ * buckets of RateLimitFilter and the concurrency limit of ConcurrencyLimitFilter, with the same
+ * 429 and 503 responses. The limits are the servlet filters' own, so a client gets one allowance
+ * across both ports. Nothing goes into the MDC: a reactive request moves between threads.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.reactive-catalog", name = "enabled", havingValue = "true")
+public class ReactiveAdmissionFilter implements WebFilter {
+
+    private final RequestLoggingFilter requestLogging;
+    private final RateLimitFilter rateLimit;
+    private final ConcurrencyLimitFilter concurrencyLimit;
+
+    public ReactiveAdmissionFilter(RequestLoggingFilter requestLogging, RateLimitFilter rateLimit,
+                                   ConcurrencyLimitFilter concurrencyLimit) {
+        this.requestLogging = requestLogging;
+        this.rateLimit = rateLimit;
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        String method = request.getMethod().name();
+        String path = request.getPath().pathWithinApplication().value();
+        EndpointClass endpointClass = EndpointClass.of(method, path);
+        boolean limited = !"OPTIONS".equals(method) && path.startsWith("/api/");
+
+        Mono<Void> handled = Mono.defer(() -> admit(exchange, chain, endpointClass, limited));
+        if (!requestLogging.isEnabled()) {
+            return handled;
+        }
+        response.getHeaders().set(RequestLoggingFilter.REQUEST_ID_HEADER,
+                RequestLoggingFilter.requestId(request.getHeaders().getFirst(RequestLoggingFilter.REQUEST_ID_HEADER)));
+        long start = System.nanoTime();
+        return handled.doFinally(signal -> requestLogging.logCompleted(method, path, endpointClass, status(response),
+                (System.nanoTime() - start) / 1_000_000));
+    }
+
+    private Mono<Void> admit(ServerWebExchange exchange, WebFilterChain chain, EndpointClass endpointClass,
+                             boolean limited) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        if (limited && rateLimit.isEnabled()) {
+            HttpHeaders headers = request.getHeaders();
+            long wait = rateLimit.admit(endpointClass,
+                    RateLimitFilter.userId(request.getQueryParams().getFirst("userId"), headers.getFirst("X-User-Id")),
+                    rateLimit.clientIp(headers.getFirst("X-Forwarded-For"), remoteAddr(request)));
+            if (wait > 0) {
+                long retryAfterSeconds = RateLimitFilter.retryAfterSeconds(wait);
+                return reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds,
+                        RateLimitFilter.rejection(retryAfterSeconds));
+            }
+        }
+        if (!limited || !concurrencyLimit.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        if (!concurrencyLimit.tryAcquire(endpointClass)) {
+            return reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, ConcurrencyLimitFilter.BUSY);
+        }
+        long start = System.nanoTime();
+        // The chain completes once the last row is written, so a streamed list counts in full.
+        // A client hanging up part way through counts as a failure, as a broken pipe would.
+        return chain.filter(exchange).doFinally(signal -> concurrencyLimit.release(System.nanoTime() - start,
+                signal == SignalType.ON_COMPLETE && status(response) < 500));
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response, HttpStatus status, long retryAfterSeconds,
+                                     String body) {
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    // Formatted like HttpServletRequest.getRemoteAddr, so both ports charge the same bucket.
+    private static String remoteAddr(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) {
+            return "unknown";
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+
+    private static int status(ServerHttpResponse response) {
+        HttpStatusCode status = response.getStatusCode();
+        return status != null ? status.value() : 200;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecommerce.klu.web;
+
+import com.ecommerce.klu.dto.CatalogProduct;
+import com.ecommerce.klu.repository.ReactiveProductReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The catalog GET endpoints of ProductController, served by ReactiveCatalogServer from
+ * ReactiveProductReader. Lists are a JSON array by default and newline-delimited JSON with
+ * {@code Accept: application/x-ndjson}; either way rows are written as they arrive from the
+ * database, and a slow client slows the query down instead of buffering the result.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.reactive-catalog", name = "enabled", havingValue = "true")
+public class ReactiveCatalogRoutes {
+
+    @Autowired
+    private ReactiveProductReader reader;
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .path("/api/products", products -> products
+                        .GET("", request -> list(request, reader.findAll()))
+                        .GET("/available", request -> list(request, reader.findAvailable()))
+                        .GET("/search", this::search)
+                        .GET("/category/{category}", request -> list(request, reader.findByCategory(request.pathVariable("category"))))
+                        .GET("/brand/{brand}", request -> list(request, reader.findByBrand(request.pathVariable("brand"))))
+                        .GET("/seller/{sellerId}", this::bySeller)
+                        .GET("/{id}", this::byId))
+                .onError(NumberFormatException.class, (e, request) -> badRequest("Ids must be numeric"))
+                .build();
+    }
+
+    private Mono<ServerResponse> byId(ServerRequest request) {
+        return id(request, "id")
+                .flatMap(reader::findById)
+                .flatMap(product -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(product))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    private Mono<ServerResponse> bySeller(ServerRequest request) {
+        return id(request, "sellerId").flatMap(sellerId -> reader.sellerExists(sellerId)
+                .flatMap(exists -> exists ? list(request, reader.findBySeller(sellerId)) : ServerResponse.notFound().build()));
+    }
+
+    // Parsed inside the pipeline so a bad id reaches onError as a signal rather than a throw.
+    private static Mono<Long> id(ServerRequest request, String variable) {
+        return Mono.fromCallable(() -> Long.parseLong(request.pathVariable(variable)));
+    }
+
+    private Mono<ServerResponse> search(ServerRequest request) {
+        Optional<String> keyword = request.queryParam("keyword");
+        if (keyword.isEmpty()) {
+            return badRequest("keyword is required");
+        }
+        return list(request, reader.searchByName(keyword.get()));
+    }
+
+    private Mono<ServerResponse> list(ServerRequest request, Flux<CatalogProduct> products) {
+        boolean ndjson = request.headers().accept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        return ServerResponse.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(products, CatalogProduct.class);
+    }
+
+    private Mono<ServerResponse> badRequest(String message) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("success", false);
+        body.put("message", message);
+        return ServerResponse.badRequest().contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.klu.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A second HTTP server, next to the servlet container, for the read-only catalog routes in
+ * ReactiveCatalogRoutes. It runs on Reactor Netty with its own small set of event-loop threads,
+ * so catalog browsing doesn't hold a servlet thread per request; writes and everything else stay
+ * on the main port. Requests pass through ReactiveAdmissionFilter, the servlet filters'
+ * counterpart, and get the same CORS handling as the MVC controllers.
+ *
+ * Started as a lifecycle bean (like the embedded servlet container) so it only listens once the
+ * context is refreshed and stops before the beans it reads through are destroyed.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.reactive-catalog", name = "enabled", havingValue = "true")
+public class ReactiveCatalogServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCatalogServer.class);
+
+    @Autowired
+    private ReactiveCatalogRoutes routes;
+
+    @Autowired
+    private ReactiveAdmissionFilter admissionFilter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // The origins the MVC controllers allow with @CrossOrigin.
+    @Value("${app.reactive-catalog.cors-origins:http://localhost:2030/reactecommerceapi}")
+    private List<String> corsOrigins;
+
+    @Value("${app.reactive-catalog.host:0.0.0.0}")
+    private String host;
+
+    @Value("${app.reactive-catalog.port:2001}")
+    private int port;
+
+    @Value("${app.reactive-catalog.event-loop-threads:4}")
+    private int eventLoopThreads;
+
+    @Value("${app.reactive-catalog.shutdown-timeout:10s}")
+    private Duration shutdownTimeout;
+
+    private volatile DisposableServer server;
+
+    private LoopResources loops;
+
+    @Override
+    public void start() {
+        // Same JSON as the MVC endpoints (dates, naming) by encoding with the application's ObjectMapper.
+        // Admission control first and CORS after it, in the order requests meet them on the main port.
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .webFilter(admissionFilter)
+                .webFilter(corsFilter())
+                .build();
+        loops = LoopResources.create("catalog-http", eventLoopThreads, true);
+        server = HttpServer.create()
+                .host(host)
+                .port(port)
+                .runOn(loops)
+                .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(routes.routes(), strategies)))
+                .bindNow();
+        log.info("Reactive catalog listening on port {} with {} event-loop threads", server.port(), eventLoopThreads);
+    }
+
+    // What @CrossOrigin gives the MVC catalog endpoints: the listed origins, any request header.
+    private CorsWebFilter corsFilter() {
+        CorsConfiguration cors = new CorsConfiguration();
+        cors.setAllowedOrigins(corsOrigins);
+        cors.setAllowedMethods(List.of("GET", "HEAD"));
+        cors.addAllowedHeader(CorsConfiguration.ALL);
+        cors.setMaxAge(Duration.ofMinutes(30));
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/api/**", cors);
+        return new CorsWebFilter(source);
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer running = server;
+        server = null;
+        if (running != null) {
+            running.disposeNow(shutdownTimeout);
+            loops.disposeLater().block(shutdownTimeout);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    // The bound port; differs from app.reactive-catalog.port when that is 0.
+    public int getPort() {
+        DisposableServer running = server;
+        return running != null ? running.port() : -1;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.klu.web;
+
+import com.ecommerce.klu.config.RequestLoggingProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Binds per-request context (request id, method, path, endpoint class, user id) to the MDC so
+ * every log line written while handling the request carries it, and writes a sampled access
+ * log entry when the request completes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@EnableConfigurationProperties(RequestLoggingProperties.class)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLoggingFilter.class);
+
+    private final RequestLoggingProperties properties;
+    private final Map<EndpointClass, LogSampler> samplers = new EnumMap<>(EndpointClass.class);
+
+    public RequestLoggingFilter(RequestLoggingProperties properties) {
+        this.properties = properties;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            samplers.put(endpointClass, new LogSampler(properties.sampleRateFor(endpointClass)));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String requestId = requestId(request.getHeader(REQUEST_ID_HEADER));
+        EndpointClass endpointClass = EndpointClass.of(request);
+        String path = request.getRequestURI();
+
+        MDC.put("requestId", requestId);
+        MDC.put("method", request.getMethod());
+        MDC.put("path", path);
+        MDC.put("endpoint", endpointClass.name());
+        String userId = request.getParameter("userId");
+        if (userId != null) {
+            MDC.put("userId", userId);
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            logCompleted(request.getMethod(), path, endpointClass, response.getStatus(),
+                    (System.nanoTime() - start) / 1_000_000);
+            MDC.clear();
+        }
+    }
+
+    static String requestId(String header) {
+        return header == null || header.isBlank() || header.length() > 64 ? UUID.randomUUID().toString() : header;
+    }
+
+    // The access log line, also written by ReactiveAdmissionFilter for the reactive catalog.
+    void logCompleted(String method, String path, EndpointClass endpointClass, int status, long millis) {
+        if (status >= 500) {
+            log.warn("{} {} -> {} in {} ms", method, path, status, millis);
+        } else if (millis >= properties.getSlowRequestMillis()) {
+            log.info("Slow request {} {} -> {} in {} ms", method, path, status, millis);
+        } else if (log.isInfoEnabled() && samplers.get(endpointClass).sample()) {
+            log.info("{} {} -> {} in {} ms", method, path, status, millis);
+        }
+    }
+
+    boolean isEnabled() {
+        return properties.isEnabled();
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.klu.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole bucket state is a single "theoretical
+ * arrival time" updated with compare-and-set, which is equivalent to a bucket of
+ * {@code capacity} tokens refilled at {@code refillPerSecond}.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0L, capacity - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token. Returns 0 when the request is admitted, otherwise the number of
+     * nanoseconds until a token becomes available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long tat = Math.max(current, nowNanos);
+            long wait = tat - nowNanos - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, tat + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by tryAcquire, for a request that was rejected by another limit.
+     */
+    public void refund() {
+        theoreticalArrival.addAndGet(-emissionIntervalNanos);
+    }
+
+    /**
+     * A bucket that has refilled completely carries no state worth keeping.
+     */
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
@@ -0,0 +1,101 @@
+-- Schema as Hibernate's ddl-auto=update created it before the migrations existed. A database
+-- created that way is baselined at this version (spring.flyway.baseline-on-migrate) instead.
+
+create table admins (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    email varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    phone varchar(255),
+    role varchar(255),
+    username varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table cart_items (
+    quantity integer,
+    id bigint not null auto_increment,
+    product_id bigint,
+    user_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table order_items (
+    price decimal(38,2),
+    quantity integer,
+    id bigint not null auto_increment,
+    order_id bigint,
+    product_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table orders (
+    total_amount decimal(38,2),
+    id bigint not null auto_increment,
+    order_date datetime(6),
+    user_id bigint,
+    payment_method varchar(255),
+    shipping_address varchar(255),
+    status varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table products (
+    price decimal(38,2),
+    stock_quantity integer,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    seller_id bigint,
+    updated_at datetime(6),
+    brand varchar(255),
+    category varchar(255),
+    description varchar(255),
+    image_url varchar(255),
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table sellers (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    address varchar(255),
+    business_address varchar(255),
+    business_name varchar(255),
+    email varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    phone varchar(255),
+    role varchar(255),
+    username varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    address varchar(255),
+    email varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    phone varchar(255),
+    role varchar(255),
+    username varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+alter table cart_items
+    add constraint FK1re40cjegsfvw58xrkdp6bac6 foreign key (product_id) references products (id);
+alter table cart_items
+    add constraint FK709eickf3kc0dujx3ub9i7btf foreign key (user_id) references users (id);
+alter table order_items
+    add constraint FKbioxgbv59vetrxe0ejfubep1w foreign key (order_id) references orders (id);
+alter table order_items
+    add constraint FKocimc7dtr037rh4ls4l95nlfi foreign key (product_id) references products (id);
+alter table orders
+    add constraint FK32ql8ubntj5uh44ph9659tiih foreign key (user_id) references users (id);
+alter table products
+    add constraint FKepbha8uixgrmnejm27n6e1kkd foreign key (seller_id) references sellers (id);
@@ -0,0 +1,33 @@
+-- Cold tables for completed orders (OrderArchiveService) and the history indexes on orders.
+
+create table orders_archive (
+    total_amount decimal(38,2),
+    archived_at datetime(6),
+    id bigint not null,
+    order_date datetime(6),
+    user_id bigint,
+    payment_method varchar(255),
+    shipping_address varchar(255),
+    status varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table order_items_archive (
+    price decimal(38,2),
+    quantity integer,
+    id bigint not null,
+    order_id bigint,
+    product_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_orders_user_date on orders (user_id, order_date);
+create index idx_orders_status_date on orders (status, order_date);
+create index idx_orders_archive_user_date on orders_archive (user_id, order_date);
+
+alter table orders_archive
+    add constraint FK8fnd8iqa726klsli92yigvj7p foreign key (user_id) references users (id);
+alter table order_items_archive
+    add constraint FKmw6bu3wicx6bs4sdpp0edxhvr foreign key (order_id) references orders_archive (id);
+alter table order_items_archive
+    add constraint FKrjqug50qvxm5s52yparfb285w foreign key (product_id) references products (id);
@@ -0,0 +1,20 @@
+-- Stock held by cart items until checkout or expiry (StockReservationService).
+
+create table stock_reservations (
+    quantity integer,
+    created_at datetime(6),
+    expires_at datetime(6),
+    id bigint not null auto_increment,
+    product_id bigint,
+    user_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_reservations_expires on stock_reservations (expires_at);
+alter table stock_reservations
+    add constraint uk_reservations_user_product unique (user_id, product_id);
+
+alter table stock_reservations
+    add constraint FKbvnv40iyf8tf31cs26ejqk5vl foreign key (product_id) references products (id);
+alter table stock_reservations
+    add constraint FKfk30u9q7gbasa8n0qcihpmdfu foreign key (user_id) references users (id);
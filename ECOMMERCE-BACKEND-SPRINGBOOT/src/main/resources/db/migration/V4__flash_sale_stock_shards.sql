@@ -0,0 +1,16 @@
+-- Flash-sale mode: sharded stock counters (FlashSaleStockService).
+
+alter table products add column flash_sale bit default false not null;
+
+create table product_stock_shards (
+    quantity integer,
+    shard_index integer,
+    id bigint not null auto_increment,
+    product_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+alter table product_stock_shards
+    add constraint uk_stock_shards_product_shard unique (product_id, shard_index);
+alter table product_stock_shards
+    add constraint FK60pqyqrnghmhdyhsr677btcwg foreign key (product_id) references products (id);
@@ -0,0 +1,21 @@
+-- Denormalized order history and detail reads (OrderViewService).
+
+create table order_views (
+    id bigint not null,
+    order_date datetime(6),
+    user_id bigint not null,
+    status varchar(255),
+    payload mediumtext not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table order_view_sellers (
+    order_id bigint not null,
+    seller_id bigint
+) engine=InnoDB;
+
+create index idx_order_views_user_date on order_views (user_id, order_date);
+create index idx_order_view_sellers_seller on order_view_sellers (seller_id, order_id);
+
+alter table order_view_sellers
+    add constraint FKpsph9mk53kwdpywynscyfcj6b foreign key (order_id) references order_views (id);
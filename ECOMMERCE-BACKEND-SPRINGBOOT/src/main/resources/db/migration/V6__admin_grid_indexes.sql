@@ -0,0 +1,17 @@
+-- Sort and filter columns of the admin grids (AdminGridService).
+
+create index idx_orders_date on orders (order_date);
+
+create index idx_products_created on products (created_at);
+create index idx_products_category_created on products (category, created_at);
+create index idx_products_name on products (name);
+create index idx_products_price on products (price);
+
+create index idx_sellers_created on sellers (created_at);
+create index idx_sellers_email on sellers (email);
+create index idx_sellers_username on sellers (username);
+create index idx_sellers_business_name on sellers (business_name);
+
+create index idx_users_created on users (created_at);
+create index idx_users_email on users (email);
+create index idx_users_username on users (username);
@@ -0,0 +1,13 @@
+-- Soft delete and background purge of users, sellers and products (SoftDeletePurgeService).
+
+alter table users add column deleted_at datetime(6);
+alter table users add column purged_at datetime(6);
+create index idx_users_deleted on users (deleted_at);
+
+alter table sellers add column deleted_at datetime(6);
+alter table sellers add column purged_at datetime(6);
+create index idx_sellers_deleted on sellers (deleted_at);
+
+alter table products add column deleted_at datetime(6);
+alter table products add column purged_at datetime(6);
+create index idx_products_deleted on products (deleted_at);
@@ -0,0 +1,3 @@
+-- Optimistic versioning for partial product updates.
+
+alter table products add column version bigint default 0 not null;
@@ -0,0 +1,11 @@
+-- Change log that keeps product caches coherent across instances (CacheInvalidationService).
+
+create table cache_invalidations (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    node varchar(64) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_cache_invalidations_created on cache_invalidations (created_at);
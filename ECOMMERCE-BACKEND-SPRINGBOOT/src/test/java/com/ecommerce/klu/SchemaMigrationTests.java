@@ -0,0 +1,54 @@
+package com.ecommerce.klu;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The prod setup: migrations on, Hibernate only validating the result against the entities.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrated_db;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration,classpath:db/h2",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class SchemaMigrationTests {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void emptyDatabaseIsMigratedToTheEntities() {
+        assertEquals("9", flyway.info().current().getVersion().getVersion());
+    }
+
+    // A database created by ddl-auto=update before the migrations existed has the V1 tables
+    // and no history table.
+    @Test
+    void existingSchemaIsBaselinedAndMigrated() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:baselined_db;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__baseline.sql"));
+        }
+
+        MigrateResult result = Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertEquals(8, result.migrationsExecuted);
+        assertEquals("9", result.targetSchemaVersion);
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.klu.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaRoutingDataSourceTests {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (seconds INT)");
+        new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (0)");
+
+        routing = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica),
+                "SELECT seconds FROM replica_lag", 5);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        assertEquals("replica", readOnly.execute(status -> marker()));
+        assertEquals("primary", readWrite.execute(status -> marker()));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 30");
+        routing.refreshReplicaHealth();
+
+        assertTrue(routing.getHealthyReplicas().isEmpty());
+        assertEquals("primary", readOnly.execute(status -> marker()));
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 1");
+        routing.refreshReplicaHealth();
+
+        assertEquals("replica", readOnly.execute(status -> marker()));
+    }
+
+    private String marker() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return database;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.klu.datagen;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:datagen;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.datagen.users=200",
+        "app.datagen.sellers=10",
+        "app.datagen.products=300",
+        "app.datagen.cart-items=150",
+        "app.datagen.orders=500",
+        "app.datagen.batch-size=64",
+        "app.datagen.exit-when-done=false"
+})
+@ActiveProfiles("datagen")
+class SyntheticDataGeneratorTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void populatesEveryTableWithConsistentReferences() {
+        assertEquals(200, count("SELECT COUNT(*) FROM users"));
+        assertEquals(10, count("SELECT COUNT(*) FROM sellers"));
+        assertEquals(300, count("SELECT COUNT(*) FROM products"));
+        assertEquals(150, count("SELECT COUNT(*) FROM cart_items"));
+        assertEquals(500, count("SELECT COUNT(*) FROM orders"));
+        assertTrue(count("SELECT COUNT(*) FROM order_items") >= 500);
+
+        assertEquals(0, count("SELECT COUNT(*) FROM orders o WHERE o.total_amount <> "
+                + "(SELECT SUM(i.price * i.quantity) FROM order_items i WHERE i.order_id = o.id)"));
+
+        // Skew: the busiest product appears in far more order lines than an average one.
+        long lines = count("SELECT COUNT(*) FROM order_items");
+        long top = count("SELECT MAX(c) FROM (SELECT COUNT(*) c FROM order_items GROUP BY product_id) t");
+        assertTrue(top > 10 * lines / 300);
+    }
+
+    @Test
+    void identityColumnsContinueAfterGeneratedIds() {
+        jdbcTemplate.update("INSERT INTO sellers (username, email) VALUES ('late', 'late@example.com')");
+        assertEquals(11, count("SELECT MAX(id) FROM sellers"));
+        jdbcTemplate.update("DELETE FROM sellers WHERE username = 'late'");
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
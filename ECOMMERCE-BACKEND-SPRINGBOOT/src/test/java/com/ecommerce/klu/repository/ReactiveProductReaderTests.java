@@ -0,0 +1,59 @@
+package com.ecommerce.klu.repository;
+
+import org.junit.jupiter.api.Test;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReactiveProductReaderTests {
+
+    @Test
+    void derivesTheR2dbcUrlFromTheJdbcOne() {
+        assertEquals("r2dbc:mysql://db.internal:3306/ecommerce_db",
+                ReactiveProductReader.r2dbcUrl("jdbc:mysql://db.internal:3306/ecommerce_db?rewriteBatchedStatements=true"));
+        assertEquals("r2dbc:h2:mem:///ecommerce_db?options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+                ReactiveProductReader.r2dbcUrl("jdbc:h2:mem:ecommerce_db;MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        assertEquals("r2dbc:h2:file:///./data/ecommerce_db?options=MODE=MySQL;AUTO_SERVER=TRUE",
+                ReactiveProductReader.r2dbcUrl("jdbc:h2:file:./data/ecommerce_db;MODE=MySQL;AUTO_SERVER=TRUE"));
+        assertThrows(IllegalStateException.class, () -> ReactiveProductReader.r2dbcUrl("jdbc:sqlserver://db;databaseName=shop"));
+    }
+
+    @Test
+    void nameSearchTakesTheKeywordLiterallyWithoutBackslashes() throws Exception {
+        // A backslash in the SQL is an escape character to MySQL in its default sql_mode.
+        assertFalse(ReactiveProductReader.NAME_LIKE.contains("\\"));
+        assertEquals("%50!%!_off!!\\%", ReactiveProductReader.likePattern("50%_OFF!\\"));
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:like_escape;MODE=MySQL");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE products (name VARCHAR(100))");
+            statement.execute("INSERT INTO products VALUES ('Mug 50%_off!'), ('Mug 50% off'), ('Mug 500 off'), ('Path C:\\tmp')");
+            assertEquals(List.of("Mug 50%_off!"), search(connection, "50%_OFF!"));
+            assertEquals(List.of("Mug 50% off", "Mug 50%_off!"), search(connection, "50%"));
+            assertEquals(List.of("Path C:\\tmp"), search(connection, "c:\\"));
+        }
+    }
+
+    private static List<String> search(Connection connection, String keyword) throws Exception {
+        String sql = "SELECT name FROM products WHERE 1 = 1" + ReactiveProductReader.NAME_LIKE.replace(":pattern", "?")
+                + " ORDER BY name";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, ReactiveProductReader.likePattern(keyword));
+            List<String> names = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    names.add(rows.getString(1));
+                }
+            }
+            return names;
+        }
+    }
+}
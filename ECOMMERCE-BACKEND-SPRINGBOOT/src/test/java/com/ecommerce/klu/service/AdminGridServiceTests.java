@@ -0,0 +1,85 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.AdminProductRow;
+import com.ecommerce.klu.dto.GridPage;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.Seller;
+import com.ecommerce.klu.repository.ProductRepository;
+import com.ecommerce.klu.repository.SellerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class AdminGridServiceTests {
+
+    @Autowired
+    private AdminGridService adminGridService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Test
+    void pagesFilteredAndSortedProjections() {
+        String category = productsPricedAt(30, 10, 20);
+        Map<String, String> filters = Map.of("category", category, "page", "0");
+
+        GridPage<AdminProductRow> first = adminGridService.products(0, 2, "price", "asc", filters);
+        assertEquals(List.of("Item 10", "Item 20"), first.getItems().stream().map(AdminProductRow::getName).toList());
+        assertEquals("Grid Traders", first.getItems().get(0).getSellerBusinessName());
+        assertTrue(first.isHasNext());
+        assertEquals(3, first.getTotal());
+        assertFalse(first.isTotalExact());
+
+        GridPage<AdminProductRow> second = adminGridService.products(1, 2, "price", "asc", filters);
+        assertEquals(List.of("Item 30"), second.getItems().stream().map(AdminProductRow::getName).toList());
+        assertFalse(second.isHasNext());
+        assertEquals(3, second.getTotal());
+        assertTrue(second.isTotalExact());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> adminGridService.products(0, 2, "description", "asc", filters));
+    }
+
+    @Test
+    void filteredEstimateStopsCountingAtTheCap() {
+        String category = productsPricedAt(10, 20, 30, 40, 50);
+        ReflectionTestUtils.setField(adminGridService, "countCap", 3);
+        try {
+            GridPage<AdminProductRow> first = adminGridService.products(0, 1, "price", "asc", Map.of("category", category));
+            assertEquals(3, first.getTotal());
+            assertFalse(first.isTotalExact());
+        } finally {
+            ReflectionTestUtils.setField(adminGridService, "countCap", 10000);
+        }
+    }
+
+    private String productsPricedAt(int... prices) {
+        Seller seller = new Seller();
+        seller.setBusinessName("Grid Traders");
+        seller = sellerRepository.save(seller);
+        String category = "grid-" + System.nanoTime();
+        for (int price : prices) {
+            Product product = new Product();
+            product.setName("Item " + price);
+            product.setCategory(category);
+            product.setPrice(BigDecimal.valueOf(price));
+            product.setStockQuantity(1);
+            product.setSeller(seller);
+            productRepository.save(product);
+        }
+        return category;
+    }
+}
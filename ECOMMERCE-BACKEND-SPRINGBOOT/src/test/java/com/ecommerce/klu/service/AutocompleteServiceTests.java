@@ -0,0 +1,82 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.AutocompleteSuggestion;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.User;
+import com.ecommerce.klu.repository.ProductRepository;
+import com.ecommerce.klu.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class AutocompleteServiceTests {
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void suggestionsFollowProductEditsAndSales() {
+        String word = "zq" + System.nanoTime();
+        Product lamp = product("Desk Lamp " + word, "Lumo" + word);
+        Product chair = product("Office-Chair " + word, "Sitwell" + word);
+
+        assertEquals(List.of("Desk Lamp " + word, "Office-Chair " + word), texts(word));
+
+        User buyer = new User();
+        buyer.setUsername("typist" + System.nanoTime());
+        buyer.setEmail(buyer.getUsername() + "@example.com");
+        buyer = userRepository.save(buyer);
+        cartService.addToCart(buyer, productRepository.findById(chair.getId()).orElseThrow(), 2);
+        orderService.createOrder(buyer, "1 Main Road", "CARD");
+
+        assertEquals(List.of("Office-Chair " + word, "Desk Lamp " + word), texts(word.toUpperCase()));
+        assertEquals(List.of("Office-Chair " + word), texts("office ch"));
+        List<AutocompleteSuggestion> brand = autocompleteService.suggest("sitwell" + word, 5);
+        assertEquals("BRAND", brand.get(0).getType());
+
+        productService.patchProduct(lamp.getId(), Map.of("name", "Floor Lamp " + word), null, null);
+        assertEquals(List.of("Office-Chair " + word, "Floor Lamp " + word), texts(word));
+        assertEquals(List.of(), texts("desk lamp " + word));
+
+        productService.deleteProduct(chair.getId());
+        assertEquals(List.of("Floor Lamp " + word), texts(word));
+        assertEquals(List.of(), autocompleteService.suggest("sitwell" + word, 5));
+    }
+
+    private List<String> texts(String prefix) {
+        return autocompleteService.suggest(prefix, 10).stream()
+                .filter(s -> "PRODUCT".equals(s.getType()))
+                .map(AutocompleteSuggestion::getText)
+                .toList();
+    }
+
+    private Product product(String name, String brand) {
+        Product product = new Product();
+        product.setName(name);
+        product.setBrand(brand);
+        product.setPrice(BigDecimal.TEN);
+        product.setStockQuantity(20);
+        return productService.createProduct(product);
+    }
+}
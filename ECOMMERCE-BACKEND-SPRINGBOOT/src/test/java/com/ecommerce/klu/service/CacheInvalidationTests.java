@@ -0,0 +1,77 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.CacheInvalidation;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.repository.CacheInvalidationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "app.cache-invalidation.poll-interval-ms=3600000")
+class CacheInvalidationTests {
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void writesFromAnotherNodeEvictTheCachedCopy() {
+        Product lamp = product("Lamp");
+        cacheInvalidationService.poll();
+        assertEquals("Lamp", productCache.get(lamp.getId()).orElseThrow().getName());
+
+        // Another instance edits the product and logs the write.
+        jdbcTemplate.update("UPDATE products SET name = 'Desk Lamp' WHERE id = ?", lamp.getId());
+        cacheInvalidationRepository.save(new CacheInvalidation(lamp.getId(), "other-node"));
+        assertEquals("Lamp", productCache.get(lamp.getId()).orElseThrow().getName());
+
+        long lagged = meterRegistry.timer("cache.invalidations.lag").count();
+        assertEquals(1, cacheInvalidationService.poll());
+        assertEquals(lagged + 1, meterRegistry.timer("cache.invalidations.lag").count());
+        assertEquals("Desk Lamp", productCache.get(lamp.getId()).orElseThrow().getName());
+        assertEquals(0, cacheInvalidationService.poll());
+    }
+
+    @Test
+    void cacheIsBypassedWhilePollingIsBehind() {
+        Product vase = product("Vase");
+        productCache.get(vase.getId());
+        productCache.coherentUntil(System.nanoTime() - 1);
+
+        double hits = meterRegistry.counter("products.cache.hits").count();
+        productCache.get(vase.getId());
+        assertEquals(hits, meterRegistry.counter("products.cache.hits").count());
+
+        // Once caught up, the entry (which any missed invalidation would have evicted) is served again.
+        cacheInvalidationService.poll();
+        productCache.get(vase.getId());
+        assertEquals(hits + 1, meterRegistry.counter("products.cache.hits").count());
+    }
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.ONE);
+        product.setStockQuantity(5);
+        return productService.createProduct(product);
+    }
+}
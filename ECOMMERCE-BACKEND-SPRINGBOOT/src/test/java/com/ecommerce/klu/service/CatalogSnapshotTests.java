@@ -0,0 +1,133 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.Seller;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"app.catalog-snapshot.enabled=true", "app.catalog-snapshot.file=target/catalog-snapshot-tests.bin"})
+class CatalogSnapshotTests {
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void fileRoundTripsProductsAndRejectsCorruption(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("snapshot.bin");
+        Product full = new Product();
+        full.setId(7L);
+        full.setName("Kettle ☕");
+        full.setPrice(new BigDecimal("19.99"));
+        full.setStockQuantity(3);
+        Seller seller = new Seller();
+        seller.setId(42L);
+        full.setSeller(seller);
+        full.setFlashSale(true);
+        full.setVersion(5L);
+        full.setUpdatedAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5, 600));
+        Product bare = new Product();
+        bare.setId(8L);
+        LocalDateTime since = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        UUID database = UUID.randomUUID();
+        CatalogSnapshot.write(file, database, since, List.of(full, bare));
+        CatalogSnapshot.Contents contents = CatalogSnapshot.read(file);
+        assertEquals(database, contents.database());
+        assertEquals(since, contents.since());
+        Product read = contents.products().get(0);
+        assertEquals("Kettle ☕", read.getName());
+        assertEquals(new BigDecimal("19.99"), read.getPrice());
+        assertEquals(42L, read.getSeller().getId());
+        assertEquals(5L, read.getVersion());
+        assertEquals(full.getUpdatedAt(), read.getUpdatedAt());
+        Product readBare = contents.products().get(1);
+        assertNull(readBare.getName());
+        assertNull(readBare.getPrice());
+        assertNull(readBare.getStockQuantity());
+        assertNull(readBare.getSeller());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> CatalogSnapshot.read(file));
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> CatalogSnapshot.read(file));
+    }
+
+    @Test
+    void restoreServesUnchangedProductsFromTheSnapshotAndRereadsEditedOnes() throws IOException {
+        Product mat = product("Mat");
+        Product rug = product("Rug");
+        Product tile = product("Tile");
+        List<Long> ids = List.of(mat.getId(), rug.getId(), tile.getId());
+        jdbcTemplate.update("UPDATE products SET updated_at = ? WHERE id IN (?, ?, ?)",
+                LocalDateTime.now().minusHours(1), mat.getId(), rug.getId(), tile.getId());
+        productCache.getAll(ids);
+        catalogSnapshotService.writeSnapshot();
+        ids.forEach(productCache::evict);
+
+        productService.patchProduct(rug.getId(), Map.of("name", "Woven Rug"), null, null);
+        productService.deleteProduct(tile.getId());
+        assertEquals(2, catalogSnapshotService.restore());
+
+        double hits = meterRegistry.counter("products.cache.hits").count();
+        List<Product> products = productCache.getAll(ids);
+        assertEquals(hits + 2, meterRegistry.counter("products.cache.hits").count());
+        assertEquals(List.of("Mat", "Woven Rug"), products.stream().map(Product::getName).toList());
+    }
+
+    @Test
+    void ignoresASnapshotOfAnotherDatabase() throws IOException {
+        Product lamp = product("Lamp");
+        jdbcTemplate.update("UPDATE products SET updated_at = ? WHERE id = ?", LocalDateTime.now().minusHours(1),
+                lamp.getId());
+        productCache.getAll(List.of(lamp.getId()));
+        catalogSnapshotService.writeSnapshot();
+        productCache.evict(lamp.getId());
+        assertTrue(catalogSnapshotService.restore() > 0);
+
+        // Same ids, same age, but another database wrote it: its rows must not be served here.
+        Path file = Path.of("target/catalog-snapshot-tests.bin");
+        CatalogSnapshot.Contents contents = CatalogSnapshot.read(file);
+        CatalogSnapshot.write(file, UUID.randomUUID(), contents.since(), contents.products());
+        productCache.evict(lamp.getId());
+        assertEquals(0, catalogSnapshotService.restore());
+    }
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.TEN);
+        product.setStockQuantity(2);
+        return productService.createProduct(product);
+    }
+}
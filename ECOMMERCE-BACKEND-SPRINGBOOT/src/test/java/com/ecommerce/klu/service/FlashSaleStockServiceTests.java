@@ -0,0 +1,155 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.repository.ProductRepository;
+import com.ecommerce.klu.repository.ProductStockShardRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class FlashSaleStockServiceTests {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private FlashSaleStockService flashSaleStockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentPurchasesNeverOversellShardedStock() throws Exception {
+        Long productId = product(40);
+        assertEquals(4, flashSaleStockService.enable(productId, 4));
+        assertTrue(productRepository.findById(productId).orElseThrow().isFlashSale());
+
+        AtomicInteger sold = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(6)) {
+            for (int t = 0; t < 6; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        if (productService.decrementStock(productId, 1)) {
+                            sold.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(40, sold.get());
+        assertEquals(0, flashSaleStockService.currentStock(productId));
+        assertFalse(productService.decrementStock(productId, 1));
+    }
+
+    @Test
+    void rebalancesWhenProbedShardsRunDryAndRestoresTotalOnDisable() {
+        Long productId = product(10);
+        flashSaleStockService.enable(productId, 8);
+
+        // No single shard holds 6 units, so this only succeeds through a rebalance.
+        assertTrue(productService.decrementStock(productId, 6));
+        assertEquals(4, flashSaleStockService.currentStock(productId));
+
+        productService.incrementStock(productId, 3);
+        flashSaleStockService.reconcile();
+        assertEquals(7, productRepository.findById(productId).orElseThrow().getStockQuantity());
+
+        assertEquals(7, flashSaleStockService.disable(productId));
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertFalse(product.isFlashSale());
+        assertEquals(7, product.getStockQuantity());
+        assertTrue(productService.decrementStock(productId, 7));
+    }
+
+    @Test
+    void reconcileOnlyWritesProductRowsWhoseTotalChanged() {
+        Long productId = product(12);
+        flashSaleStockService.enable(productId, 3);
+        flashSaleStockService.reconcile();
+        LocalDateTime reconciledAt = productRepository.findById(productId).orElseThrow().getUpdatedAt();
+
+        flashSaleStockService.reconcile();
+        assertEquals(reconciledAt, productRepository.findById(productId).orElseThrow().getUpdatedAt());
+
+        assertTrue(productService.decrementStock(productId, 2));
+        flashSaleStockService.reconcile();
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(10, product.getStockQuantity());
+        assertNotEquals(reconciledAt, product.getUpdatedAt());
+    }
+
+    @Test
+    void rebalanceHoldingAShardDoesNotWaitForAnotherTransactionsShard() throws Exception {
+        Long productId = product(10);
+        flashSaleStockService.enable(productId, 8);
+
+        // Another checkout's transaction (a group-commit batch, say) keeps one shard locked.
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                shardRepository.increment(productId, 7, 0);
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            try {
+                locked.await();
+                long started = System.nanoTime();
+                // Like a batch whose earlier order took a shard of this product.
+                transactionTemplate.executeWithoutResult(status -> {
+                    assertTrue(productService.decrementStock(productId, 1));
+                    assertThrows(CannotAcquireLockException.class, () -> productService.decrementStock(productId, 6));
+                });
+                assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1));
+            } finally {
+                release.countDown();
+            }
+            holder.get();
+        }
+
+        assertTrue(productService.decrementStock(productId, 6));
+        assertEquals(3, flashSaleStockService.currentStock(productId));
+    }
+
+    private Long product(int stock) {
+        Product product = new Product();
+        product.setName("Flash item");
+        product.setPrice(BigDecimal.ONE);
+        product.setStockQuantity(stock);
+        return productRepository.save(product).getId();
+    }
+}
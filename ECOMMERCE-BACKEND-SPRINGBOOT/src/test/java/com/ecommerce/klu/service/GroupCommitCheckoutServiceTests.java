@@ -0,0 +1,257 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.OrderDTO;
+import com.ecommerce.klu.event.OrderPlacedEvent;
+import com.ecommerce.klu.model.CartItem;
+import com.ecommerce.klu.model.Order;
+import com.ecommerce.klu.model.OrderView;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.Seller;
+import com.ecommerce.klu.model.User;
+import com.ecommerce.klu.repository.CartItemRepository;
+import com.ecommerce.klu.repository.OrderRepository;
+import com.ecommerce.klu.repository.OrderViewRepository;
+import com.ecommerce.klu.repository.ProductRepository;
+import com.ecommerce.klu.repository.SellerRepository;
+import com.ecommerce.klu.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest(properties = {
+        "app.checkout.group-commit.enabled=true",
+        "app.checkout.group-commit.window-ms=300",
+        "app.checkout.group-commit.workers=1"
+})
+class GroupCommitCheckoutServiceTests {
+
+    @Autowired
+    private GroupCommitCheckoutService checkoutService;
+
+    @MockitoSpyBean
+    private OrderRepository orderRepository;
+
+    @MockitoSpyBean
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlacedOrders placedOrders;
+
+    @Test
+    void batchedCheckoutsFailIndividually() throws Exception {
+        double fallbacks = meterRegistry.get("checkout.group_commit.fallbacks").counter().count();
+        Product saved = product(2);
+        List<User> buyers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            buyers.add(buyerWithCart(saved));
+        }
+
+        List<Future<OrderDTO>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(buyers.size())) {
+            for (User buyer : buyers) {
+                futures.add(executor.submit(() -> checkoutService.placeOrder(buyer, "1 Main Road", "CARD")));
+            }
+        }
+
+        int placed = 0;
+        int refused = 0;
+        for (Future<OrderDTO> future : futures) {
+            try {
+                OrderDTO order = future.get();
+                assertEquals(0, BigDecimal.TEN.compareTo(order.getTotalAmount()));
+                assertTrue(orderRepository.findById(order.getId()).isPresent());
+                placed++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(InsufficientStockException.class, e.getCause());
+                refused++;
+            }
+        }
+
+        assertEquals(2, placed);
+        assertEquals(1, refused);
+        assertEquals(0, productRepository.findById(saved.getId()).orElseThrow().getStockQuantity());
+        assertEquals(3, meterRegistry.get("checkout.group_commit.batch_size").summary().max());
+        assertEquals(fallbacks, meterRegistry.get("checkout.group_commit.fallbacks").counter().count());
+    }
+
+    @Test
+    void orderRolledBackToItsSavepointReachesNoListener() throws Exception {
+        Product product = product(10);
+        List<User> buyers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            buyers.add(buyerWithCart(product));
+        }
+        // Fails the second order after createOrder has published its OrderPlacedEvent. The spy
+        // wraps the repository proxy, so the real call goes through its default answer.
+        Answer<?> repository = mockingDetails(orderRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            Optional<Order> order = (Optional<Order>) repository.answer(invocation);
+            if (order.isPresent() && "Nowhere".equals(order.get().getShippingAddress())) {
+                throw new DataRetrievalFailureException("Order could not be read back");
+            }
+            return order;
+        }).when(orderRepository).findById(any());
+        double fallbacks = meterRegistry.get("checkout.group_commit.fallbacks").counter().count();
+
+        List<Future<OrderDTO>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(buyers.size())) {
+            for (int i = 0; i < buyers.size(); i++) {
+                User buyer = buyers.get(i);
+                String address = i == 1 ? "Nowhere" : "1 Main Road";
+                futures.add(executor.submit(() -> checkoutService.placeOrder(buyer, address, "CARD")));
+            }
+        }
+
+        int placed = 0;
+        for (Future<OrderDTO> future : futures) {
+            try {
+                future.get();
+                placed++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(DataRetrievalFailureException.class, e.getCause());
+            }
+        }
+        assertEquals(2, placed);
+        assertEquals(8, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+        Long doomed = buyers.get(1).getId();
+        List<Long> notified = placedOrders.userIds().stream()
+                .filter(userId -> buyers.stream().anyMatch(buyer -> buyer.getId().equals(userId)))
+                .toList();
+        assertEquals(2, notified.size());
+        assertFalse(notified.contains(doomed));
+        assertEquals(fallbacks, meterRegistry.get("checkout.group_commit.fallbacks").counter().count());
+    }
+
+    @Test
+    void failureInsideANestedTransactionalCallFailsOnlyItsOrder() throws Exception {
+        Product product = product(10);
+        List<User> buyers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            buyers.add(buyerWithCart(product));
+        }
+        // Thrown through OrderViewService's @Transactional proxy, which by default would mark the
+        // whole batch transaction rollback-only.
+        doAnswer(invocation -> {
+            if (invocation.<OrderView>getArgument(0).getPayload().contains("Nowhere")) {
+                throw new DataIntegrityViolationException("Order view rejected");
+            }
+            return mockingDetails(orderViewRepository).getMockCreationSettings().getDefaultAnswer().answer(invocation);
+        }).when(orderViewRepository).save(any());
+        double fallbacks = meterRegistry.get("checkout.group_commit.fallbacks").counter().count();
+
+        List<Future<OrderDTO>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(buyers.size())) {
+            for (int i = 0; i < buyers.size(); i++) {
+                User buyer = buyers.get(i);
+                String address = i == 1 ? "Nowhere" : "1 Main Road";
+                futures.add(executor.submit(() -> checkoutService.placeOrder(buyer, address, "CARD")));
+            }
+        }
+
+        int placed = 0;
+        for (Future<OrderDTO> future : futures) {
+            try {
+                future.get();
+                placed++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(DataIntegrityViolationException.class, e.getCause());
+            }
+        }
+        assertEquals(2, placed);
+        assertEquals(8, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+        assertEquals(fallbacks, meterRegistry.get("checkout.group_commit.fallbacks").counter().count());
+    }
+
+    private Product product(int stock) {
+        Seller seller = new Seller();
+        seller.setBusinessName("Group Commit Ltd");
+        seller = sellerRepository.save(seller);
+
+        Product product = new Product();
+        product.setName("Batch item");
+        product.setPrice(BigDecimal.TEN);
+        product.setStockQuantity(stock);
+        product.setSeller(seller);
+        return productRepository.save(product);
+    }
+
+    // A cart row without a reservation, so stock is taken (or refused) at checkout.
+    private User buyerWithCart(Product product) {
+        User buyer = new User();
+        buyer.setUsername("buyer-" + System.nanoTime());
+        buyer.setEmail(buyer.getUsername() + "@example.com");
+        buyer = userRepository.save(buyer);
+        CartItem item = new CartItem();
+        item.setUser(buyer);
+        item.setProduct(product);
+        item.setQuantity(1);
+        cartItemRepository.save(item);
+        return buyer;
+    }
+
+    static class PlacedOrders {
+
+        private final List<Long> userIds = Collections.synchronizedList(new ArrayList<>());
+
+        @TransactionalEventListener
+        public void onOrderPlaced(OrderPlacedEvent event) {
+            userIds.add(event.getOrder().getUserId());
+        }
+
+        List<Long> userIds() {
+            synchronized (userIds) {
+                return List.copyOf(userIds);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class PlacedOrdersConfig {
+
+        @Bean
+        PlacedOrders placedOrders() {
+            return new PlacedOrders();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.klu.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyServiceTests {
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void retriesAreReplayedAndADifferentRequestUnderTheSameKeyIsRejected() {
+        IdempotencyService service = new IdempotencyService(100, Duration.ofHours(1), Duration.ofSeconds(1));
+
+        ResponseEntity<String> first = service.execute("orders:1", "k1", "a", this::order);
+        ResponseEntity<String> retry = service.execute("orders:1", "k1", "a", this::order);
+        assertEquals(1, runs.get());
+        assertEquals(first.getBody(), retry.getBody());
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, service.execute("orders:1", "k1", "b", this::order).getStatusCode());
+        // Keys are per scope.
+        service.execute("orders:2", "k1", "b", this::order);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void concurrentCallersWithTheSameKeyRunTheActionOnce() throws Exception {
+        IdempotencyService service = new IdempotencyService(100, Duration.ofHours(1), Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<ResponseEntity<String>> owner = executor.submit(() -> service.execute("orders:1", "k", "a", () -> {
+                started.countDown();
+                await(release);
+                return order();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<String>> retryA = executor.submit(() -> service.execute("orders:1", "k", "a", this::order));
+            Future<ResponseEntity<String>> retryB = executor.submit(() -> service.execute("orders:1", "k", "a", this::order));
+            release.countDown();
+
+            assertEquals(HttpStatus.OK, owner.get(5, TimeUnit.SECONDS).getStatusCode());
+            assertEquals("true", retryA.get(5, TimeUnit.SECONDS).getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+            assertEquals("true", retryB.get(5, TimeUnit.SECONDS).getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void keyStaysReservedUntilAPendingOutcomeIsKnown() {
+        IdempotencyService service = new IdempotencyService(100, Duration.ofHours(1), Duration.ofMillis(10));
+        CompletableFuture<ResponseEntity<String>> outcome = new CompletableFuture<>();
+
+        ResponseEntity<String> first = service.executeAsync("orders:1", "k", "a", () -> {
+            runs.incrementAndGet();
+            return outcome;
+        }, Duration.ofMillis(10));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, first.getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, service.execute("orders:1", "k", "a", this::order).getStatusCode());
+        assertEquals(1, runs.get());
+
+        outcome.complete(ResponseEntity.ok("order-1"));
+        ResponseEntity<String> retry = service.execute("orders:1", "k", "a", this::order);
+        assertEquals("order-1", retry.getBody());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void failedAttemptsFreeTheKey() {
+        IdempotencyService service = new IdempotencyService(100, Duration.ofHours(1), Duration.ofSeconds(1));
+
+        assertThrows(IllegalStateException.class, () -> service.execute("orders:1", "k", "a", () -> {
+            throw new IllegalStateException("rolled back");
+        }));
+        assertEquals(HttpStatus.OK, service.execute("orders:1", "k", "a", this::order).getStatusCode());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void inFlightEntriesAreNeverEvicted() {
+        IdempotencyService service = new IdempotencyService(1, Duration.ofHours(1), Duration.ofMillis(10));
+        CompletableFuture<ResponseEntity<String>> pending = new CompletableFuture<>();
+        service.executeAsync("orders:1", "slow", "a", () -> pending, Duration.ofMillis(10));
+
+        service.execute("orders:1", "k1", "a", this::order);
+        service.execute("orders:1", "k2", "a", this::order);
+        assertEquals(2, service.size());
+        assertEquals(HttpStatus.CONFLICT, service.execute("orders:1", "slow", "a", this::order).getStatusCode());
+        assertEquals(2, runs.get());
+    }
+
+    private ResponseEntity<String> order() {
+        return ResponseEntity.ok("order-" + runs.incrementAndGet());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.Seller;
+import com.ecommerce.klu.model.User;
+import com.ecommerce.klu.repository.ProductRepository;
+import com.ecommerce.klu.repository.SellerRepository;
+import com.ecommerce.klu.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class LeaderboardServiceTests {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void committedOrdersRankBestsellersPerCategory() {
+        Seller seller = new Seller();
+        seller.setBusinessName("Garden Centre");
+        seller = sellerRepository.save(seller);
+        String category = "Garden" + System.nanoTime();
+        Product hose = product(seller, "Hose", category);
+        Product rake = product(seller, "Rake", category);
+        Product mug = product(seller, "Mug", "Kitchen" + System.nanoTime());
+
+        order(hose, 1);
+        order(rake, 4);
+        order(hose, 2);
+        order(mug, 9);
+
+        LeaderboardService.Window day = LeaderboardService.Window.of("day");
+        assertEquals(List.of(rake.getId(), hose.getId()), leaderboardService.bestsellerIds(day, category, 10));
+        assertEquals(List.of(rake.getId()), leaderboardService.bestsellerIds(LeaderboardService.Window.WEEK, category, 1));
+        assertEquals(List.of(rake.getId(), hose.getId()), leaderboardService.trendingIds(LeaderboardService.Window.HOUR, category, 10));
+        assertTrue(leaderboardService.bestsellerIds(day, null, 50).contains(mug.getId()));
+        assertThrows(IllegalArgumentException.class, () -> LeaderboardService.Window.of("month"));
+    }
+
+    @Test
+    void sketchKeepsHeavyHittersWithinCapacity() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(4);
+        for (long i = 0; i < 1000; i++) {
+            sketch.add(1, 3);
+            sketch.add(2, 1);
+            sketch.add(100 + i, 1);
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        sketch.forEach((id, count, error) -> counts.put(id, count));
+        assertEquals(4, sketch.size());
+        assertEquals(3000L, counts.get(1L));
+        assertTrue(counts.containsKey(2L));
+    }
+
+    private void order(Product product, int quantity) {
+        User buyer = new User();
+        buyer.setUsername("ranker" + System.nanoTime());
+        buyer.setEmail(buyer.getUsername() + "@example.com");
+        buyer = userRepository.save(buyer);
+        cartService.addToCart(buyer, productRepository.findById(product.getId()).orElseThrow(), quantity);
+        orderService.createOrder(buyer, "1 Main Road", "CARD");
+    }
+
+    private Product product(Seller seller, String name, String category) {
+        Product product = new Product();
+        product.setName(name);
+        product.setCategory(category);
+        product.setPrice(BigDecimal.TEN);
+        product.setStockQuantity(20);
+        product.setSeller(seller);
+        return productRepository.save(product);
+    }
+}
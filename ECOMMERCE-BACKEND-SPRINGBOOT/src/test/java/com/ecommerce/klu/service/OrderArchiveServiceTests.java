@@ -0,0 +1,103 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.OrderDTO;
+import com.ecommerce.klu.model.Order;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.Seller;
+import com.ecommerce.klu.model.User;
+import com.ecommerce.klu.repository.ArchivedOrderRepository;
+import com.ecommerce.klu.repository.OrderRepository;
+import com.ecommerce.klu.repository.SellerRepository;
+import com.ecommerce.klu.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Views off, so history reads merge the hot and archive tables themselves.
+@SpringBootTest(properties = "app.orders.views.enabled=false")
+class OrderArchiveServiceTests {
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Test
+    void completedOldOrdersMoveToTheArchiveAndHistoryReadsMergeBothTables() {
+        User buyer = new User();
+        buyer.setUsername("archive" + System.nanoTime());
+        buyer.setEmail(buyer.getUsername() + "@example.com");
+        buyer = userRepository.save(buyer);
+        Seller seller = new Seller();
+        seller.setBusinessName("Archive Goods " + System.nanoTime());
+        seller = sellerRepository.save(seller);
+        Product product = new Product();
+        product.setName("Crate");
+        product.setPrice(BigDecimal.TEN);
+        product.setStockQuantity(100);
+        product.setSeller(seller);
+        product = productService.createProduct(product);
+
+        // Seven orders a day apart, oldest first; the five oldest are delivered.
+        for (int i = 0; i < 7; i++) {
+            cartService.addToCart(buyer, product, 1);
+            Order order = orderService.createOrder(buyer, "1 Dock Road", "CARD");
+            order.setOrderDate(LocalDateTime.now().minusDays(400 - i));
+            order.setStatus(i < 5 ? "DELIVERED" : "PENDING");
+            orderRepository.save(order);
+        }
+        List<Long> newestFirst = orderService.getOrdersByUserDTO(buyer).stream().map(OrderDTO::getId).toList();
+
+        assertTrue(orderArchiveService.archiveCompletedOrders() >= 5);
+        assertEquals(2, orderRepository.findByUser(buyer).size());
+        assertEquals(5, archivedOrderRepository.findByUserOrderByOrderDateDesc(buyer).size());
+
+        List<OrderDTO> history = orderService.getOrdersByUserDTO(buyer);
+        assertEquals(newestFirst, history.stream().map(OrderDTO::getId).toList());
+        assertEquals(newestFirst.subList(0, 3), ids(orderService.getOrdersByUserDTO(buyer, 0, 3)));
+        assertEquals(newestFirst.subList(3, 6), ids(orderService.getOrdersByUserDTO(buyer, 1, 3)));
+        assertEquals(newestFirst.subList(6, 7), ids(orderService.getOrdersByUserDTO(buyer, 2, 3)));
+        assertTrue(orderService.getOrdersByUserDTO(buyer, 3, 3).isEmpty());
+
+        OrderDTO archived = orderService.getOrderByIdDTO(newestFirst.get(6)).orElseThrow();
+        assertEquals("DELIVERED", archived.getStatus());
+        assertEquals(1, archived.getOrderItems().size());
+
+        assertEquals(newestFirst, ids(orderService.getOrdersBySellerDTO(seller.getId())));
+        Set<Long> delivered = Set.copyOf(ids(orderService.getOrdersByStatusDTO("DELIVERED")));
+        assertTrue(delivered.containsAll(newestFirst.subList(2, 7)));
+        assertFalse(delivered.contains(newestFirst.get(0)));
+        assertTrue(ids(orderService.getAllOrdersDTO()).containsAll(newestFirst));
+    }
+
+    private static List<Long> ids(List<OrderDTO> orders) {
+        return orders.stream().map(OrderDTO::getId).toList();
+    }
+}
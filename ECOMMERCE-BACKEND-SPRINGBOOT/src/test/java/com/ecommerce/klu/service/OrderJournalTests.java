@@ -0,0 +1,120 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.OrderJournalEntry;
+import com.ecommerce.klu.model.Order;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.User;
+import com.ecommerce.klu.repository.ProductRepository;
+import com.ecommerce.klu.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"app.journal.enabled=true", "app.journal.dir=target/order-journal-tests"})
+class OrderJournalTests {
+
+    @Autowired
+    private OrderJournalService orderJournalService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void checkoutAndStatusChangesAreJournalled() throws Exception {
+        long from = orderJournalService.endOffset();
+
+        Product product = new Product();
+        product.setName("Journal");
+        product.setPrice(BigDecimal.TEN);
+        product.setStockQuantity(5);
+        product = productRepository.save(product);
+        User buyer = new User();
+        buyer.setUsername("audited" + System.nanoTime());
+        buyer.setEmail(buyer.getUsername() + "@example.com");
+        buyer = userRepository.save(buyer);
+        cartService.addToCart(buyer, product, 1);
+        Order order = orderService.createOrder(buyer, "1 Main Road", "CARD");
+        orderService.updateOrderStatusDTO(order.getId(), "SHIPPED");
+
+        List<OrderJournalEntry> entries = orderJournalService.read(from, 10, Duration.ZERO);
+        assertEquals(List.of("ORDER_CREATED", "STATUS_CHANGED"), entries.stream().map(OrderJournalEntry::getType).toList());
+        assertEquals(order.getId(), entries.get(1).getOrderId());
+        assertEquals("PENDING", entries.get(1).getPreviousStatus());
+        assertEquals("SHIPPED", entries.get(1).getStatus());
+        assertEquals(entries.get(0).getNextOffset(), entries.get(1).getOffset());
+        assertEquals(List.of(), orderJournalService.read(entries.get(1).getNextOffset(), 10, Duration.ofMillis(20)));
+    }
+
+    @Test
+    void segmentsRollRecoverFromTornWritesAndExpire() throws Exception {
+        long[] offsets = new long[10];
+        try (OrderJournal journal = new OrderJournal(dir, 64)) {
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = journal.append(("entry-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            assertTrue(journal.segmentCount() > 1);
+            List<OrderJournal.Record> fromThird = journal.read(offsets[2], 100);
+            assertEquals(8, fromThird.size());
+            assertEquals("entry-9", new String(fromThird.get(7).payload(), StandardCharsets.UTF_8));
+            assertThrows(IllegalArgumentException.class, () -> journal.read(offsets[2] + 1, 1));
+        }
+
+        // Half-written record at the end of the newest segment: a length with no valid payload.
+        Path newest;
+        try (var files = Files.list(dir)) {
+            newest = files.filter(f -> f.toString().endsWith(".journal")).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        long end;
+        try (OrderJournal journal = new OrderJournal(dir, 64)) {
+            end = journal.endOffset();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(newest.toFile(), "rw")) {
+            String name = newest.getFileName().toString();
+            file.seek(end - Long.parseLong(name.substring(0, name.indexOf('.'))));
+            file.writeInt(20);
+            file.writeInt(12345);
+        }
+
+        try (OrderJournal journal = new OrderJournal(dir, 64)) {
+            assertEquals(end, journal.endOffset());
+            assertEquals(10, journal.read(offsets[0], 100).size());
+            long next = journal.append("after-restart".getBytes(StandardCharsets.UTF_8));
+            assertEquals(end, next);
+            assertThrows(IOException.class, () -> new OrderJournal(dir, 64));
+
+            int segments = journal.segmentCount();
+            assertEquals(segments - 1, journal.deleteSegmentsBefore(Instant.now().plusSeconds(60)));
+            try (var files = Files.list(dir)) {
+                assertEquals(1, files.filter(f -> f.toString().endsWith(".journal")).count());
+            }
+            assertTrue(journal.firstOffset() > offsets[0]);
+            assertThrows(IllegalArgumentException.class, () -> journal.read(offsets[0], 1));
+        }
+    }
+}
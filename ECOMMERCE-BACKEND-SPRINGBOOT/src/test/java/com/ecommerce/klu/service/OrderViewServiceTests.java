@@ -0,0 +1,84 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.OrderDTO;
+import com.ecommerce.klu.model.Order;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.Seller;
+import com.ecommerce.klu.model.User;
+import com.ecommerce.klu.repository.OrderViewRepository;
+import com.ecommerce.klu.repository.ProductRepository;
+import com.ecommerce.klu.repository.SellerRepository;
+import com.ecommerce.klu.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OrderViewServiceTests {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderViewService orderViewService;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Test
+    void ordersAreReadFromSnapshotTakenAtCheckout() {
+        assertTrue(orderViewService.isServingReads());
+
+        Seller seller = new Seller();
+        seller.setBusinessName("Views Ltd");
+        seller = sellerRepository.save(seller);
+
+        Product product = new Product();
+        product.setName("Original name");
+        product.setPrice(BigDecimal.valueOf(25));
+        product.setStockQuantity(10);
+        product.setSeller(seller);
+        product = productRepository.save(product);
+
+        User buyer = new User();
+        buyer.setUsername("viewer" + System.nanoTime());
+        buyer.setEmail(buyer.getUsername() + "@example.com");
+        buyer = userRepository.save(buyer);
+
+        cartService.addToCart(buyer, product, 2);
+        Order order = orderService.createOrder(buyer, "1 Main Road", "CARD");
+        assertTrue(orderViewRepository.existsById(order.getId()));
+
+        product = productRepository.findById(product.getId()).orElseThrow();
+        product.setName("Renamed later");
+        productRepository.save(product);
+        orderService.updateOrderStatusDTO(order.getId(), "SHIPPED");
+
+        OrderDTO detail = orderService.getOrderByIdDTO(order.getId()).orElseThrow();
+        assertEquals("SHIPPED", detail.getStatus());
+        assertEquals("Original name", detail.getOrderItems().get(0).getProductName());
+        assertEquals(0, BigDecimal.valueOf(50).compareTo(detail.getTotalAmount()));
+
+        List<OrderDTO> history = orderService.getOrdersByUserDTO(buyer, 0, 10);
+        assertEquals(List.of(order.getId()), history.stream().map(OrderDTO::getId).toList());
+        assertEquals(List.of(order.getId()),
+                orderService.getOrdersBySellerDTO(seller.getId()).stream().map(OrderDTO::getId).toList());
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ProductCacheTests {
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void multiGetKeepsRequestOrderServesRepeatsFromMemoryAndSeesEdits() {
+        Product pen = product("Pen");
+        Product ink = product("Ink");
+        Product pad = product("Pad");
+        productService.deleteProduct(pad.getId());
+
+        List<Long> ids = List.of(ink.getId(), Long.MAX_VALUE, pen.getId(), ink.getId(), pad.getId());
+        assertEquals(List.of(ink.getId(), pen.getId()), productCache.getAll(ids).stream().map(Product::getId).toList());
+
+        double hits = meterRegistry.counter("products.cache.hits").count();
+        assertEquals("Pen", productCache.get(pen.getId()).orElseThrow().getName());
+        assertEquals(hits + 1, meterRegistry.counter("products.cache.hits").count());
+
+        productService.patchProduct(pen.getId(), Map.of("name", "Fountain Pen"), null, null);
+        assertEquals("Fountain Pen", productCache.get(pen.getId()).orElseThrow().getName());
+        productService.deleteProduct(ink.getId());
+        assertEquals(List.of(pen.getId()), productCache.getAll(ids).stream().map(Product::getId).toList());
+    }
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.ONE);
+        product.setStockQuantity(4);
+        return productService.createProduct(product);
+    }
+}
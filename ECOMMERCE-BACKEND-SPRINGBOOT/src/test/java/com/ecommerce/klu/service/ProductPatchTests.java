@@ -0,0 +1,98 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ProductPatchTests {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private FlashSaleStockService flashSaleStockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void patchChangesOnlyGivenFieldsAndDetectsStaleVersions() {
+        Long id = product("Kettle", 10);
+
+        // A sale lands between the seller loading the form and saving it: it doesn't conflict.
+        transactionTemplate.executeWithoutResult(status -> productRepository.decrementStock(id, 3, LocalDateTime.now()));
+        productService.patchProduct(id, Map.of("price", "25.00"), 0L, null);
+
+        Product saved = productRepository.findById(id).orElseThrow();
+        assertEquals(0, new BigDecimal("25.00").compareTo(saved.getPrice()));
+        assertEquals("Boils water", saved.getDescription());
+        assertEquals(7, saved.getStockQuantity());
+        assertEquals(1L, saved.getVersion());
+
+        // Another seller's edit does.
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> productService.patchProduct(id, Map.of("name", "Steel Kettle"), 0L, null));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.patchProduct(id, Map.of("seller", 1), null, null));
+    }
+
+    @Test
+    void stockEditsAreCheckedAgainstTheStockTheSellerSaw() {
+        Long id = product("Teapot", 10);
+        transactionTemplate.executeWithoutResult(status -> productRepository.decrementStock(id, 3, LocalDateTime.now()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.patchProduct(id, Map.of("stockQuantity", 20), null, null));
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> productService.patchProduct(id, Map.of("stockQuantity", 20), null, 10));
+        assertEquals(7, productRepository.findById(id).orElseThrow().getStockQuantity());
+
+        productService.patchProduct(id, Map.of("stockQuantity", "20", "price", "12.00"), null, 7);
+        Product saved = productRepository.findById(id).orElseThrow();
+        assertEquals(20, saved.getStockQuantity());
+        assertEquals(0, new BigDecimal("12.00").compareTo(saved.getPrice()));
+
+        // PUT leaves stock alone rather than writing back what the client loaded.
+        Product put = productRepository.findById(id).orElseThrow();
+        put.setStockQuantity(1);
+        put.setVersion(null);
+        productService.updateProduct(put);
+        assertEquals(20, productRepository.findById(id).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void flashSaleStockCannotBeEditedDirectly() {
+        Long id = product("Mug", 10);
+        flashSaleStockService.enable(id, 2);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.patchProduct(id, Map.of("stockQuantity", 50), null, 10));
+        assertEquals(10, flashSaleStockService.currentStock(id));
+    }
+
+    private Long product(String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Boils water");
+        product.setPrice(new BigDecimal("20.00"));
+        product.setStockQuantity(stock);
+        product = productService.createProduct(product);
+        assertEquals(0L, product.getVersion());
+        return product.getId();
+    }
+}
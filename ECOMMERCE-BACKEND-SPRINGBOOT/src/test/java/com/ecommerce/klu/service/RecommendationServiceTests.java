@@ -0,0 +1,83 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.Seller;
+import com.ecommerce.klu.model.User;
+import com.ecommerce.klu.repository.ProductRepository;
+import com.ecommerce.klu.repository.SellerRepository;
+import com.ecommerce.klu.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class RecommendationServiceTests {
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void relatedProductsAreRankedByCommittedCoOccurrence() {
+        Seller seller = new Seller();
+        seller.setBusinessName("Bundles Ltd");
+        seller = sellerRepository.save(seller);
+        Product phone = product(seller, "Phone");
+        Product phoneCase = product(seller, "Case");
+        Product charger = product(seller, "Charger");
+
+        order(phone, phoneCase);
+        order(phone, phoneCase, charger);
+        order(phone, charger);
+        order(phone, phoneCase);
+
+        assertEquals(List.of(phoneCase.getId(), charger.getId()), recommendationService.relatedProductIds(phone.getId(), 10));
+        assertEquals(List.of(phone.getId(), charger.getId()), recommendationService.relatedProductIds(phoneCase.getId(), 10));
+        assertEquals(List.of(phone.getId()), recommendationService.relatedProductIds(charger.getId(), 1));
+
+        productService.deleteProduct(phoneCase.getId());
+        assertEquals(List.of(charger.getId()),
+                recommendationService.relatedProducts(phone.getId(), 10).stream().map(Product::getId).toList());
+    }
+
+    private void order(Product... products) {
+        User buyer = new User();
+        buyer.setUsername("basket" + System.nanoTime());
+        buyer.setEmail(buyer.getUsername() + "@example.com");
+        buyer = userRepository.save(buyer);
+        for (Product product : products) {
+            cartService.addToCart(buyer, productRepository.findById(product.getId()).orElseThrow(), 1);
+        }
+        orderService.createOrder(buyer, "1 Main Road", "CARD");
+    }
+
+    private Product product(Seller seller, String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.TEN);
+        product.setStockQuantity(20);
+        product.setSeller(seller);
+        return productRepository.save(product);
+    }
+}
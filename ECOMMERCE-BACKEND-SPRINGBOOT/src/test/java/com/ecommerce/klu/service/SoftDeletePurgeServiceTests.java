@@ -0,0 +1,100 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.dto.OrderDTO;
+import com.ecommerce.klu.model.Order;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.Seller;
+import com.ecommerce.klu.model.User;
+import com.ecommerce.klu.repository.ProductRepository;
+import com.ecommerce.klu.repository.SellerRepository;
+import com.ecommerce.klu.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.purge.after=0s")
+class SoftDeletePurgeServiceTests {
+
+    @Autowired
+    private SoftDeletePurgeService purgeService;
+
+    @Autowired
+    private SellerService sellerService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deletesHideAtOnceAndPurgeKeepsOrderHistory() {
+        Seller seller = new Seller();
+        seller.setBusinessName("Closing Down");
+        seller.setEmail("closing" + System.nanoTime() + "@example.com");
+        seller = sellerRepository.save(seller);
+        Product ordered = product(seller, "Ordered");
+        Product unsold = product(seller, "Unsold");
+
+        User buyer = new User();
+        buyer.setUsername("leaving" + System.nanoTime());
+        buyer.setEmail(buyer.getUsername() + "@example.com");
+        buyer = userRepository.save(buyer);
+        cartService.addToCart(buyer, ordered, 1);
+        Order order = orderService.createOrder(buyer, "1 Main Road", "CARD");
+
+        sellerService.deleteSeller(seller.getId());
+        userService.deleteUser(buyer.getId());
+        assertTrue(productRepository.findById(ordered.getId()).isEmpty());
+        assertTrue(sellerRepository.findById(seller.getId()).isEmpty());
+        assertTrue(userRepository.findById(buyer.getId()).isEmpty());
+
+        purgeService.purge();
+
+        assertEquals(0, count("products", unsold.getId()));
+        assertEquals(1, count("products", ordered.getId()));
+        assertEquals("deleted-seller-" + seller.getId(),
+                jdbcTemplate.queryForObject("SELECT username FROM sellers WHERE id = ?", String.class, seller.getId()));
+        assertEquals("deleted-user-" + buyer.getId(),
+                jdbcTemplate.queryForObject("SELECT username FROM users WHERE id = ?", String.class, buyer.getId()));
+
+        OrderDTO history = orderService.getOrderByIdDTO(order.getId()).orElseThrow();
+        assertNull(history.getUserEmail());
+        assertEquals(ordered.getId(), history.getOrderItems().get(0).getProductId());
+        assertEquals("Ordered", history.getOrderItems().get(0).getProductName());
+    }
+
+    private Product product(Seller seller, String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.ONE);
+        product.setStockQuantity(5);
+        product.setSeller(seller);
+        return productRepository.save(product);
+    }
+
+    private int count(String table, Long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id = ?", Integer.class, id);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.Order;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.User;
+import com.ecommerce.klu.repository.UserRepository;
+import com.ecommerce.klu.web.FieldSet;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class SparseFieldsTests {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void productReadsSelectOnlyTheRequestedColumns() {
+        String brand = "Sparse" + System.nanoTime();
+        Product mug = product("Mug", brand);
+        Product cup = product("Cup", brand);
+        Product gone = product("Saucer", brand);
+        productService.deleteProduct(gone.getId());
+
+        Set<String> names = FieldSet.parse("name, price", ProductService.FIELDS).names();
+        assertEquals(List.of("id", "name", "price"), List.copyOf(names));
+        List<Map<String, Object>> rows = productService.getProductFieldsByBrand(brand, names);
+        assertEquals(List.of(mug.getId(), cup.getId()), rows.stream().map(row -> row.get("id")).toList());
+        assertEquals(List.of("Mug", "Cup"), rows.stream().map(row -> row.get("name")).toList());
+        assertEquals(0, BigDecimal.TEN.compareTo((BigDecimal) rows.get(0).get("price")));
+        assertEquals(List.copyOf(names), List.copyOf(rows.get(0).keySet()));
+
+        assertEquals(List.of(cup.getId(), mug.getId()),
+                productService.getProductFieldsByIds(List.of(cup.getId(), gone.getId(), mug.getId()), Set.of("name"))
+                        .stream().map(row -> row.get("id")).toList());
+        assertThrows(IllegalArgumentException.class, () -> FieldSet.parse("name,seller", ProductService.FIELDS));
+    }
+
+    @Test
+    void orderHeadersComeFromTheOrdersRowAndItemsAreTrimmed() {
+        Product lamp = product("Lamp", "Sparse" + System.nanoTime());
+        User buyer = new User();
+        buyer.setUsername("sparse" + System.nanoTime());
+        buyer.setEmail(buyer.getUsername() + "@example.com");
+        buyer.setFirstName("Ada");
+        buyer = userRepository.save(buyer);
+        cartService.addToCart(buyer, lamp, 2);
+        Order order = orderService.createOrder(buyer, "1 Main Road", "CARD");
+
+        Map<String, Object> header = orderService.getOrderHeadersByStatus("PENDING", List.of("id", "userFirstName", "totalAmount"))
+                .stream().filter(row -> order.getId().equals(row.get("id"))).findFirst().orElseThrow();
+        assertEquals("Ada", header.get("userFirstName"));
+        assertEquals(0, new BigDecimal("20").compareTo((BigDecimal) header.get("totalAmount")));
+
+        FieldSet selection = FieldSet.parse("status,orderItems.productName,orderItems.quantity",
+                Set.of("status", "orderItems"), Map.of("orderItems", Set.of("productName", "quantity")));
+        JsonNode trimmed = selection.filter(objectMapper.valueToTree(orderService.getOrderByIdDTO(order.getId()).orElseThrow()));
+        assertEquals("{\"id\":" + order.getId() + ",\"status\":\"PENDING\",\"orderItems\":[{\"productName\":\"Lamp\",\"quantity\":2}]}",
+                trimmed.toString());
+    }
+
+    private Product product(String name, String brand) {
+        Product product = new Product();
+        product.setName(name);
+        product.setBrand(brand);
+        product.setDescription("A long description that list pages don't need");
+        product.setPrice(BigDecimal.TEN);
+        product.setStockQuantity(10);
+        return productService.createProduct(product);
+    }
+}
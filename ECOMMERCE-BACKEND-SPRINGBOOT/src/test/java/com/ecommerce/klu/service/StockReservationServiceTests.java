@@ -0,0 +1,197 @@
+package com.ecommerce.klu.service;
+
+import com.ecommerce.klu.model.Order;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.model.Seller;
+import com.ecommerce.klu.model.StockReservation;
+import com.ecommerce.klu.model.User;
+import com.ecommerce.klu.repository.CartItemRepository;
+import com.ecommerce.klu.repository.ProductRepository;
+import com.ecommerce.klu.repository.SellerRepository;
+import com.ecommerce.klu.repository.StockReservationRepository;
+import com.ecommerce.klu.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+class StockReservationServiceTests {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @MockitoSpyBean
+    private CartItemRepository cartItemRepository;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        Seller seller = new Seller();
+        seller.setBusinessName("Reservations Ltd");
+        seller = sellerRepository.save(seller);
+
+        product = new Product();
+        product.setName("Limited drop");
+        product.setPrice(BigDecimal.valueOf(100));
+        product.setStockQuantity(5);
+        product.setSeller(seller);
+        product = productRepository.save(product);
+    }
+
+    @Test
+    void addToCartReservesAndRefusesOversell() {
+        User first = user("first");
+        User second = user("second");
+
+        cartService.addToCart(first, product, 3);
+        assertEquals(2, stock());
+
+        assertThrows(InsufficientStockException.class, () -> cartService.addToCart(second, product, 3));
+        assertEquals(2, stock());
+
+        cartService.addToCart(second, product, 2);
+        assertEquals(0, stock());
+    }
+
+    @Test
+    void checkoutConsumesReservationWithoutTakingStockTwice() {
+        User buyer = user("buyer");
+        cartService.addToCart(buyer, product, 2);
+
+        Order order = orderService.createOrder(buyer, "1 Main Road", "CARD");
+
+        assertEquals(0, BigDecimal.valueOf(200).compareTo(order.getTotalAmount()));
+        assertEquals(3, stock());
+        assertTrue(reservationRepository.findAll().stream()
+                .noneMatch(reservation -> reservation.getUser().getId().equals(buyer.getId())));
+    }
+
+    @Test
+    void expiredReservationsReturnStockAndCheckoutFallsBackToProductRow() {
+        User buyer = user("late");
+        cartService.addToCart(buyer, product, 4);
+        assertEquals(1, stock());
+
+        List<StockReservation> reservations = reservationRepository.findAll().stream()
+                .filter(reservation -> reservation.getUser().getId().equals(buyer.getId()))
+                .toList();
+        reservations.forEach(reservation -> reservation.setExpiresAt(LocalDateTime.now().minusMinutes(1)));
+        reservationRepository.saveAll(reservations);
+
+        stockReservationService.sweepOverdue();
+        assertEquals(5, stock());
+
+        orderService.createOrder(buyer, "1 Main Road", "CARD");
+        assertEquals(1, stock());
+    }
+
+    @Test
+    void concurrentFirstAddsShareOneReservation() throws Exception {
+        int buyers = 4;
+        User buyer = user("racer");
+        CyclicBarrier start = new CyclicBarrier(buyers);
+        List<Future<?>> adds = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(buyers)) {
+            for (int i = 0; i < buyers; i++) {
+                adds.add(executor.submit(() -> {
+                    start.await();
+                    return cartService.addToCart(buyer, product, 1);
+                }));
+            }
+            for (Future<?> add : adds) {
+                add.get();
+            }
+        }
+
+        assertEquals(1, stock());
+        List<StockReservation> reservations = reservationRepository.findAll().stream()
+                .filter(reservation -> reservation.getUser().getId().equals(buyer.getId()))
+                .toList();
+        assertEquals(1, reservations.size());
+        assertEquals(4, reservations.get(0).getQuantity());
+    }
+
+    @Test
+    void failedCartWriteGivesTheReservedStockBack() {
+        User buyer = user("unlucky");
+        doThrow(new DataIntegrityViolationException("cart write failed")).when(cartItemRepository).save(any());
+
+        assertThrows(DataIntegrityViolationException.class, () -> cartService.addToCart(buyer, product, 2));
+
+        assertEquals(5, stock());
+        assertTrue(reservationRepository.findAll().stream()
+                .noneMatch(reservation -> reservation.getUser().getId().equals(buyer.getId())));
+    }
+
+    @Test
+    void refusedReservationLeavesNoEmptyRow() {
+        User buyer = user("greedy");
+
+        assertFalse(stockReservationService.reserve(buyer, product, 6));
+
+        assertEquals(5, stock());
+        assertTrue(reservationRepository.findAll().stream()
+                .noneMatch(reservation -> reservation.getUser().getId().equals(buyer.getId())));
+    }
+
+    @Test
+    void wheelReturnsIdsOnceTheirDeadlinePasses() {
+        ExpiryWheel wheel = new ExpiryWheel(8, 100, 0);
+        wheel.add(1, 250);
+        wheel.add(2, 5_000);
+
+        assertTrue(wheel.advance(200).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(300));
+        assertTrue(wheel.advance(4_900).isEmpty());
+        assertEquals(List.of(2L), wheel.advance(5_000));
+        assertEquals(0, wheel.size());
+    }
+
+    private int stock() {
+        return productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setUsername(name + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        return userRepository.save(user);
+    }
+}
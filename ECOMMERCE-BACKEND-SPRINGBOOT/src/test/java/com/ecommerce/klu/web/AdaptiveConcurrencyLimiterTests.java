@@ -0,0 +1,72 @@
+package com.ecommerce.klu.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void limitShrinksWhenRttRisesAndRecoversWhenItDrops() {
+        // Every sample closes a window, so each one updates the limit.
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 8, 400, 0.5, 0, 1);
+        window(limiter, MILLI);
+        for (int i = 0; i < 5; i++) {
+            window(limiter, MILLI);
+        }
+        int baseline = limiter.getLimit();
+        assertTrue(baseline >= 40, "limit grows while latency stays at its baseline: " + baseline);
+
+        for (int i = 0; i < 10; i++) {
+            window(limiter, 10 * MILLI);
+        }
+        int congested = limiter.getLimit();
+        assertTrue(congested < baseline / 2, "limit shrinks once requests queue: " + congested);
+
+        for (int i = 0; i < 20; i++) {
+            window(limiter, MILLI);
+        }
+        assertTrue(limiter.getLimit() > congested * 2, "limit recovers: " + limiter.getLimit());
+    }
+
+    @Test
+    void staysWithinMinAndMax() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 10, 30, 1.0, 0, 1);
+        window(limiter, MILLI);
+        for (int i = 0; i < 50; i++) {
+            window(limiter, 100 * MILLI);
+        }
+        assertEquals(10, limiter.getLimit());
+        for (int i = 0; i < 200; i++) {
+            window(limiter, MILLI / 10);
+        }
+        assertEquals(30, limiter.getLimit());
+    }
+
+    @Test
+    void lowerPriorityShareIsTurnedAwayFirst() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, 0.2, Long.MAX_VALUE, 1);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(1.0));
+        }
+        assertFalse(limiter.tryAcquire(0.5));
+        assertTrue(limiter.tryAcquire(1.0));
+        assertEquals(6, limiter.getInFlight());
+    }
+
+    // Fills the limit, then completes one sampled request (at full load) and the rest unsampled.
+    private static void window(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int admitted = 0;
+        while (limiter.tryAcquire(1.0)) {
+            admitted++;
+        }
+        limiter.release(rttNanos, true);
+        for (int i = 1; i < admitted; i++) {
+            limiter.release(rttNanos, false);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.klu.web;
+
+import com.ecommerce.klu.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shedsRequestsOverTheLimitWith503() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, meterRegistry);
+
+        // A second request arriving while the first is still in flight.
+        AtomicReference<MockHttpServletResponse> second = new AtomicReference<>();
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(request("/api/products"), first, (req, res) -> second.set(send(filter, "/api/products")));
+
+        assertEquals(200, first.getStatus());
+        assertEquals(503, second.get().getStatus());
+        assertEquals("1", second.get().getHeader("Retry-After"));
+        assertTrue(second.get().getContentAsString().contains("\"success\":false"));
+        assertEquals(1.0, meterRegistry.counter("concurrency.shed", "endpoint", "catalog").count());
+        assertEquals(0.0, meterRegistry.get("concurrency.inflight").gauge().value());
+
+        // Once it completes there is room again.
+        assertEquals(200, send(filter, "/api/products").getStatus());
+    }
+
+    @Test
+    void leavesNonApiPathsAlone() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, meterRegistry);
+
+        AtomicReference<MockHttpServletResponse> inner = new AtomicReference<>();
+        filter.doFilter(request("/api/products"), new MockHttpServletResponse(),
+                (req, res) -> inner.set(send(filter, "/actuator/health")));
+        assertEquals(200, inner.get().getStatus());
+    }
+
+    @Test
+    void leavesJournalTailingOutOfTheLimit() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, meterRegistry);
+
+        AtomicReference<MockHttpServletResponse> inner = new AtomicReference<>();
+        filter.doFilter(request("/api/admin/orders/journal"), new MockHttpServletResponse(),
+                (req, res) -> inner.set(send(filter, "/api/products")));
+        assertEquals(200, inner.get().getStatus());
+        assertEquals(0.0, meterRegistry.get("concurrency.inflight").gauge().value());
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        return new MockHttpServletRequest("GET", path);
+    }
+
+    private static MockHttpServletResponse send(ConcurrencyLimitFilter filter, String path) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request(path), response, new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.klu.web;
+
+import com.ecommerce.klu.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsAUserOverItsLimitWith429AndRetryAfter() throws Exception {
+        RateLimitFilter filter = filter(2, 1, 100);
+
+        assertEquals(200, send(filter, "7", "10.0.0.1").getStatus());
+        assertEquals(200, send(filter, "7", "10.0.0.1").getStatus());
+        MockHttpServletResponse rejected = send(filter, "7", "10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"success\":false"));
+        // Another user on another address is unaffected.
+        assertEquals(200, send(filter, "8", "10.0.0.2").getStatus());
+        assertEquals(1.0, meterRegistry.counter("ratelimit.rejected", "endpoint", "default", "key", "user").count());
+    }
+
+    @Test
+    void requestRejectedForItsIpDoesNotUseUpItsUsersTokens() throws Exception {
+        RateLimitFilter filter = filter(2, 1, 100);
+
+        send(filter, "1", "10.0.0.1");
+        send(filter, "1", "10.0.0.1");
+        // The shared address is out of tokens, so user 2 is turned away there...
+        assertEquals(429, send(filter, "2", "10.0.0.1").getStatus());
+        assertEquals(429, send(filter, "2", "10.0.0.1").getStatus());
+        // ...but still has its full allowance elsewhere.
+        assertEquals(200, send(filter, "2", "10.0.0.9").getStatus());
+        assertEquals(200, send(filter, "2", "10.0.0.9").getStatus());
+        assertEquals(429, send(filter, "2", "10.0.0.9").getStatus());
+    }
+
+    @Test
+    void anotherAddressCannotDrainAUsersBucket() throws Exception {
+        RateLimitFilter filter = filter(2, 4, 100);
+
+        for (int i = 0; i < 5; i++) {
+            send(filter, "7", "10.0.0.66");
+        }
+        assertEquals(429, send(filter, "7", "10.0.0.66").getStatus());
+        assertEquals(200, send(filter, "7", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void keepsAtMostMaxBuckets() throws Exception {
+        RateLimitFilter filter = filter(5, 1, 3);
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(200, send(filter, null, "10.0.1." + i).getStatus());
+        }
+        assertEquals(3.0, meterRegistry.get("ratelimit.buckets").gauge().value());
+    }
+
+    private RateLimitFilter filter(long capacity, int ipMultiplier, int maxBuckets) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setIpMultiplier(ipMultiplier);
+        properties.setMaxBuckets(maxBuckets);
+        properties.getLimits().put(EndpointClass.DEFAULT, new RateLimitProperties.Limit(capacity, 0.001));
+        return new RateLimitFilter(properties, meterRegistry);
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, String userId, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users/profile");
+        request.setRemoteAddr(ip);
+        if (userId != null) {
+            request.setParameter("userId", userId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.klu.web;
+
+import com.ecommerce.klu.config.ConcurrencyLimitProperties;
+import com.ecommerce.klu.config.RateLimitProperties;
+import com.ecommerce.klu.config.RequestLoggingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactiveAdmissionFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void chargesTheSameBucketsAsTheServletPort() throws Exception {
+        RateLimitProperties rateLimit = new RateLimitProperties();
+        rateLimit.setIpMultiplier(1);
+        rateLimit.getLimits().put(EndpointClass.CATALOG, new RateLimitProperties.Limit(2, 0.001));
+        RateLimitFilter rateLimitFilter = new RateLimitFilter(rateLimit, meterRegistry);
+        ReactiveAdmissionFilter filter = new ReactiveAdmissionFilter(
+                new RequestLoggingFilter(new RequestLoggingProperties()), rateLimitFilter,
+                new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(), meterRegistry));
+
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/products");
+        servletRequest.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(servletRequest, servletResponse, new MockFilterChain());
+        assertEquals(200, servletResponse.getStatus());
+
+        MockServerWebExchange admitted = send(filter, "10.0.0.1");
+        assertNull(admitted.getResponse().getStatusCode());
+        assertNotNull(admitted.getResponse().getHeaders().getFirst(RequestLoggingFilter.REQUEST_ID_HEADER));
+
+        MockServerWebExchange rejected = send(filter, "10.0.0.1");
+        assertEquals(429, rejected.getResponse().getStatusCode().value());
+        assertNotNull(rejected.getResponse().getHeaders().getFirst("Retry-After"));
+        assertTrue(rejected.getResponse().getBodyAsString().block().contains("\"success\":false"));
+        assertNull(send(filter, "10.0.0.2").getResponse().getStatusCode());
+    }
+
+    @Test
+    void shedsRequestsOverTheConcurrencyLimitWith503() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        RateLimitProperties rateLimit = new RateLimitProperties();
+        rateLimit.setEnabled(false);
+        ReactiveAdmissionFilter filter = new ReactiveAdmissionFilter(
+                new RequestLoggingFilter(new RequestLoggingProperties()), new RateLimitFilter(rateLimit, meterRegistry),
+                new ConcurrencyLimitFilter(properties, meterRegistry));
+
+        // A second request arriving while the first is still in flight.
+        AtomicReference<MockServerWebExchange> second = new AtomicReference<>();
+        MockServerWebExchange first = exchange("10.0.0.1");
+        filter.filter(first, exchange -> Mono.fromRunnable(() -> second.set(send(filter, "10.0.0.2")))).block();
+
+        assertNull(first.getResponse().getStatusCode());
+        assertEquals(503, second.get().getResponse().getStatusCode().value());
+        assertEquals(1.0, meterRegistry.counter("concurrency.shed", "endpoint", "catalog").count());
+        assertEquals(0.0, meterRegistry.get("concurrency.inflight").gauge().value());
+        assertNull(send(filter, "10.0.0.2").getResponse().getStatusCode());
+    }
+
+    private static MockServerWebExchange send(ReactiveAdmissionFilter filter, String ip) {
+        MockServerWebExchange exchange = exchange(ip);
+        filter.filter(exchange, e -> Mono.empty()).block();
+        return exchange;
+    }
+
+    private static MockServerWebExchange exchange(String ip) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/products")
+                .remoteAddress(new InetSocketAddress(ip, 40000)));
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.klu.web;
+
+import com.ecommerce.klu.dto.CatalogProduct;
+import com.ecommerce.klu.model.Product;
+import com.ecommerce.klu.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ReactiveCatalogServerTests {
+
+    @Autowired
+    private ReactiveCatalogServer server;
+
+    @Autowired
+    private ProductService productService;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void connect() {
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + server.getPort()).build();
+    }
+
+    @Test
+    void servesLiveCatalogRowsAsJsonOrNdjson() {
+        String brand = "Reactor" + System.nanoTime();
+        Product kettle = product("Kettle 100% steel", brand, 3);
+        Product toaster = product("Toaster", brand, 0);
+        Product gone = product("Discontinued", brand, 5);
+        productService.deleteProduct(gone.getId());
+
+        List<CatalogProduct> array = client.get().uri("/api/products/brand/{brand}", brand)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBodyList(CatalogProduct.class).returnResult().getResponseBody();
+        assertEquals(List.of(kettle.getId(), toaster.getId()), array.stream().map(CatalogProduct::getId).toList());
+
+        List<CatalogProduct> lines = client.get().uri("/api/products/brand/{brand}", brand)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(CatalogProduct.class).getResponseBody().collectList().block();
+        assertEquals(2, lines.size());
+        assertEquals(new BigDecimal("10.00"), lines.get(0).getPrice().setScale(2));
+
+        client.get().uri("/api/products/search?keyword={keyword}", "100% STEEL")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].id").isEqualTo(kettle.getId().intValue())
+                .jsonPath("$.length()").isEqualTo(1);
+        client.get().uri("/api/products/{id}", toaster.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("Toaster");
+        client.get().uri("/api/products/{id}", gone.getId()).exchange().expectStatus().isNotFound();
+        client.get().uri("/api/products/seller/{id}", Long.MAX_VALUE).exchange().expectStatus().isNotFound();
+        client.get().uri("/api/products/not-a-number")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.success").isEqualTo(false);
+    }
+
+    @Test
+    void appliesTheServletPortsRequestHandling() {
+        client.get().uri("/api/products/{id}", Long.MAX_VALUE)
+                .header(RequestLoggingFilter.REQUEST_ID_HEADER, "catalog-trace-1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().valueEquals(RequestLoggingFilter.REQUEST_ID_HEADER, "catalog-trace-1");
+        // Like the MVC controllers, the reactive routes don't allow arbitrary origins.
+        client.options().uri("/api/products")
+                .header("Origin", "http://elsewhere.example")
+                .header("Access-Control-Request-Method", "GET")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    private Product product(String name, String brand, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setBrand(brand);
+        product.setPrice(BigDecimal.TEN);
+        product.setStockQuantity(stock);
+        return productService.createProduct(product);
+    }
+}
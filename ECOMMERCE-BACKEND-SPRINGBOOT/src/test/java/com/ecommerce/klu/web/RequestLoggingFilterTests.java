@@ -0,0 +1,125 @@
+package com.ecommerce.klu.web;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.ecommerce.klu.config.RequestLoggingProperties;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestLoggingFilterTests {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLoggingFilter.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void captureLog() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void releaseLog() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void samplerLetsOneInEveryRateThrough() {
+        LogSampler sampler = new LogSampler(3);
+        List<Boolean> sampled = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            sampled.add(sampler.sample());
+        }
+        assertEquals(List.of(true, false, false, true, false, false, true), sampled);
+        assertTrue(new LogSampler(0).sample());
+    }
+
+    @Test
+    void logsEachEndpointClassAtItsSampleRate() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(new RequestLoggingProperties());
+
+        for (int i = 0; i < 200; i++) {
+            send(filter, "GET", "/api/products/" + i, null, 200);
+        }
+        assertEquals(2, appender.list.size());
+
+        appender.list.clear();
+        for (int i = 0; i < 5; i++) {
+            send(filter, "POST", "/api/orders", null, 201);
+        }
+        assertEquals(5, appender.list.size());
+    }
+
+    @Test
+    void alwaysLogsFailedAndSlowRequests() throws Exception {
+        RequestLoggingProperties properties = new RequestLoggingProperties();
+        RequestLoggingFilter filter = new RequestLoggingFilter(properties);
+
+        for (int i = 0; i < 3; i++) {
+            send(filter, "GET", "/api/products", null, 503);
+        }
+        assertEquals(3, appender.list.size());
+        assertTrue(appender.list.stream().allMatch(event -> event.getLevel() == Level.WARN));
+
+        appender.list.clear();
+        properties.setSlowRequestMillis(0);
+        for (int i = 0; i < 3; i++) {
+            send(filter, "GET", "/api/products", null, 200);
+        }
+        assertEquals(3, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().startsWith("Slow request"));
+    }
+
+    @Test
+    void bindsTheRequestIdForTheRequestOnly() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(new RequestLoggingProperties());
+        List<String> seen = new ArrayList<>();
+
+        MockHttpServletResponse response = send(filter, "POST", "/api/orders", "abc-123", 201,
+                (request, ignored) -> seen.add(MDC.get("requestId") + " " + MDC.get("endpoint")));
+        assertEquals(List.of("abc-123 CHECKOUT"), seen);
+        assertEquals("abc-123", response.getHeader(RequestLoggingFilter.REQUEST_ID_HEADER));
+        assertEquals("abc-123", appender.list.get(0).getMDCPropertyMap().get("requestId"));
+        assertNull(MDC.get("requestId"));
+
+        // Oversized ids from the client are replaced rather than copied into every log line.
+        String generated = send(filter, "GET", "/api/orders", "x".repeat(65), 200)
+                .getHeader(RequestLoggingFilter.REQUEST_ID_HEADER);
+        assertNotEquals("x".repeat(65), generated);
+        assertFalse(generated.isBlank());
+    }
+
+    private MockHttpServletResponse send(RequestLoggingFilter filter, String method, String path,
+                                         String requestId, int status) throws Exception {
+        return send(filter, method, path, requestId, status, (request, response) -> { });
+    }
+
+    private MockHttpServletResponse send(RequestLoggingFilter filter, String method, String path,
+                                         String requestId, int status, FilterChain handler) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (requestId != null) {
+            request.addHeader(RequestLoggingFilter.REQUEST_ID_HEADER, requestId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            handler.doFilter(req, res);
+            ((MockHttpServletResponse) res).setStatus(status);
+        });
+        return response;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.klu.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void admitsBurstUpToCapacityThenRefills() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+
+        long wait = bucket.tryAcquire(0);
+        assertEquals(SECOND, wait);
+
+        assertEquals(0, bucket.tryAcquire(SECOND));
+        assertTrue(bucket.tryAcquire(SECOND) > 0);
+    }
+
+    @Test
+    void isFullOnceEverythingHasRefilled() {
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertTrue(!bucket.isFull(SECOND / 2));
+        assertTrue(bucket.isFull(SECOND));
+    }
+}
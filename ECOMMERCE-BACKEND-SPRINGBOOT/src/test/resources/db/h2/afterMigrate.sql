@@ -0,0 +1,3 @@
+-- H2's MySQL mode turns MEDIUMTEXT into a VARCHAR, which Hibernate's H2Dialect doesn't accept
+-- for a @Lob; on MySQL the column validates as it is.
+alter table order_views alter column payload clob not null;
@@ -71,7 +71,7 @@ export const CartProvider = ({ children }) => {
       toast.success(`${product.name} added to cart`);
     } catch (error) {
       console.error('CartContext: Error adding to cart:', error);
-      toast.error('Failed to add item to cart');
+      toast.error(error.response?.status === 409 ? `Not enough ${product.name} left in stock` : 'Failed to add item to cart');
     }
   };
 
@@ -90,7 +90,7 @@ export const CartProvider = ({ children }) => {
       }
     } catch (error) {
       console.error('Error updating cart item:', error);
-      toast.error('Failed to update cart item');
+      toast.error(error.response?.status === 409 ? 'Not enough stock for that quantity' : 'Failed to update cart item');
     }
   };
 
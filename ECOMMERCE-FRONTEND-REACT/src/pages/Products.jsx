@@ -5,6 +5,9 @@ import { productService } from '../services/productService';
 import { CartContext } from '../context/CartContext';
 import { AuthContext } from '../context/AuthContext';
 
+// Only what the cards, filters and sorting use.
+const LIST_FIELDS = 'id,name,description,price,stockQuantity,imageUrl,category,brand';
+
 const Products = () => {
   const { addToCart, isInCart, getCartItemQuantity } = useContext(CartContext);
   const { user } = useContext(AuthContext);
@@ -16,15 +19,33 @@ const Products = () => {
   const [sortBy, setSortBy] = useState('name');
   const [sortOrder, setSortOrder] = useState('asc');
   const [showOutOfStock, setShowOutOfStock] = useState(true);
+  const [suggestions, setSuggestions] = useState([]);
 
   useEffect(() => {
     fetchProducts();
   }, []);
 
+  useEffect(() => {
+    const prefix = searchTerm.trim();
+    if (prefix.length < 2) {
+      setSuggestions([]);
+      return undefined;
+    }
+    const timer = setTimeout(async () => {
+      try {
+        const data = await productService.autocomplete(prefix);
+        setSuggestions(Array.isArray(data) ? data : []);
+      } catch (error) {
+        setSuggestions([]);
+      }
+    }, 150);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
   const fetchProducts = async () => {
     try {
       setLoading(true);
-      const data = await productService.getAllProducts();
+      const data = await productService.getAllProducts(LIST_FIELDS);
       setProducts(data);
     } catch (error) {
       console.error('Error fetching products:', error);
@@ -127,7 +148,13 @@ const Products = () => {
                       placeholder="Search by name or description..."
                       value={searchTerm}
                       onChange={(e) => setSearchTerm(e.target.value)}
+                      list="product-suggestions"
                     />
+                    <datalist id="product-suggestions">
+                      {suggestions.map((suggestion) => (
+                        <option key={`${suggestion.type}-${suggestion.productId ?? suggestion.text}`} value={suggestion.text} />
+                      ))}
+                    </datalist>
                   </InputGroup>
                 </Col>
                 <Col lg={6} md={6} className="mb-2">
@@ -142,7 +142,20 @@ const SellerDashboard = () => {
     e.preventDefault();
     try {
       if (editingProduct) {
-        await productService.updateProduct(editingProduct.id, formData);
+        const editable = ['name', 'description', 'price', 'stockQuantity', 'imageUrl', 'category', 'brand'];
+        const changes = {};
+        editable.forEach((field) => {
+          if (String(formData[field] ?? '') !== String(editingProduct[field] ?? '')) {
+            changes[field] = formData[field];
+          }
+        });
+        if ('stockQuantity' in changes) {
+          // Stock moves with every sale, so the backend checks it against what this form showed
+          changes.expectedStockQuantity = editingProduct.stockQuantity;
+        }
+        if (Object.keys(changes).length > 0) {
+          await productService.patchProduct(editingProduct.id, changes, editingProduct.version);
+        }
       } else {
         await productService.createProduct(formData, user.id);
       }
@@ -161,6 +174,13 @@ const SellerDashboard = () => {
       await fetchOrders(); // Refresh orders too
     } catch (error) {
       console.error('Error saving product:', error);
+      if (error.response?.status === 409) {
+        alert('This product was changed elsewhere. The latest version has been loaded; please review and save again.');
+        setShowModal(false);
+        setEditingProduct(null);
+        await fetchProducts();
+        return;
+      }
       alert('Error saving product. Please try again.');
     }
   };
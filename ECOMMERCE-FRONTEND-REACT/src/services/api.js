@@ -44,4 +44,24 @@ api.interceptors.response.use(
   }
 );
 
+const newIdempotencyKey = () =>
+  (window.crypto && window.crypto.randomUUID)
+    ? window.crypto.randomUUID()
+    : `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+
+// POST that retries network failures with the same Idempotency-Key, so the backend
+// answers a repeated request from its idempotency store instead of running it twice.
+export const postIdempotent = async (url, data, retries = 2) => {
+  const headers = { 'Idempotency-Key': newIdempotencyKey() };
+  for (let attempt = 0; ; attempt++) {
+    try {
+      return await api.post(url, data, { headers });
+    } catch (error) {
+      if (error.response || attempt >= retries) {
+        throw error;
+      }
+    }
+  }
+};
+
 export default api;
@@ -1,4 +1,4 @@
-import api from './api';
+import api, { postIdempotent } from './api';
 
 export const cartService = {
   // Get cart items for a user
@@ -15,7 +15,7 @@ export const cartService = {
       productId: productId.toString(),
       quantity: quantity.toString()
     });
-    return api.post(`/cart/add?${params}`);
+    return postIdempotent(`/cart/add?${params}`);
   },
 
   // Update cart item quantity
@@ -1,4 +1,4 @@
-import api from './api';
+import api, { postIdempotent } from './api';
 
 export const orderService = {
   // Get all orders
@@ -23,7 +23,7 @@ export const orderService = {
       shippingAddress: shippingAddress,
       paymentMethod: paymentMethod
     });
-    return api.post(`/orders?${params}`);
+    return postIdempotent(`/orders?${params}`);
   },
 
   // Update order status
@@ -1,12 +1,15 @@
 import api from './api';
 
 export const productService = {
-  // Get all products
-  getAllProducts: () => api.get('/products'),
+  // Get all products; fields (e.g. 'id,name,price,imageUrl') limits the properties returned
+  getAllProducts: (fields) => api.get('/products', { params: { fields } }),
 
   // Get product by ID
   getProductById: (id) => api.get(`/products/${id}`),
 
+  // Get several products in one request: { products (in the order asked), missingIds }
+  getProductsByIds: (ids) => api.get('/products', { params: { ids: ids.join(',') } }),
+
   // Get products by category
   getProductsByCategory: (category) => api.get(`/products/category/${category}`),
 
@@ -16,6 +19,18 @@ export const productService = {
   // Get products by seller
   getProductsBySeller: (sellerId) => api.get(`/products/seller/${sellerId}`),
 
+  // Get products frequently bought together with this one
+  getRelatedProducts: (id, limit = 10) => api.get(`/products/${id}/related?limit=${limit}`),
+
+  // Get best sellers / trending products (window: hour, day or week; category optional)
+  getBestsellers: (window = 'day', category, limit = 10) =>
+    api.get('/products/bestsellers', { params: { window, category, limit } }),
+  getTrending: (window = 'hour', category, limit = 10) =>
+    api.get('/products/trending', { params: { window, category, limit } }),
+
+  // Search-box suggestions for a typed prefix
+  autocomplete: (q, limit = 8) => api.get('/products/autocomplete', { params: { q, limit } }),
+
   // Search products
   searchProducts: (keyword) => api.get(`/products/search?keyword=${encodeURIComponent(keyword)}`),
 
@@ -33,6 +48,9 @@ export const productService = {
   // Update product
   updateProduct: (id, productData) => api.put(`/products/${id}`, productData),
 
+  // Partially update product: only the given fields change; version guards against lost updates
+  patchProduct: (id, changes, version) => api.patch(`/products/${id}`, { ...changes, version }),
+
   // Delete product
   deleteProduct: (id) => api.delete(`/products/${id}`)
 };
@@ -0,0 +1,56 @@
+package com.ecommerce.klu.loadgen;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Thin HTTP client that times every call and files it under a stable endpoint name
+ * (e.g. "GET /products/{id}") rather than the concrete URL.
+ */
+public class ApiClient {
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final EndpointStats stats;
+
+    public ApiClient(LoadConfig config, EndpointStats stats) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(config.getTimeoutMillis()))
+                .build();
+        this.baseUrl = config.getBaseUrl();
+        this.timeout = Duration.ofMillis(config.getTimeoutMillis());
+        this.stats = stats;
+    }
+
+    public HttpResponse<String> get(String endpoint, String path) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET());
+    }
+
+    public HttpResponse<String> post(String endpoint, String path) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request.timeout(timeout).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            stats.record(endpoint, System.nanoTime() - start, response.statusCode());
+            return response;
+        } catch (IOException e) {
+            stats.recordFailure(endpoint);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
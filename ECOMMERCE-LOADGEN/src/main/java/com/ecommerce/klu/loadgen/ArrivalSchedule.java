@@ -0,0 +1,34 @@
+package com.ecommerce.klu.loadgen;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Start times of a Poisson arrival process: exponentially distributed gaps with a mean of
+ * 1/rate. The schedule depends only on the rate and the seed, never on when earlier journeys
+ * finish.
+ */
+public class ArrivalSchedule {
+
+    private final Random random;
+    private final double meanGapNanos;
+    private long next;
+
+    public ArrivalSchedule(double rate, long seed, long startNanos) {
+        this.random = new Random(seed);
+        this.meanGapNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        this.next = startNanos;
+    }
+
+    // The nanoTime at which the next journey is due.
+    public long peek() {
+        return next;
+    }
+
+    // Returns the due time of the next journey and moves on to the one after it.
+    public long advance() {
+        long due = next;
+        next += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+        return due;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.klu.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Snapshot of the product catalog taken before the run. Products are picked with a Zipf
+ * distribution over a shuffled order so a few products take most of the traffic, as they
+ * do in a real shop.
+ */
+public class Catalog {
+
+    private final long[] productIds;
+    private final String[] searchTerms;
+    private final double[] cumulative;
+
+    private Catalog(List<Long> ids, List<String> terms, double zipfExponent, Random random) {
+        List<Long> shuffled = new ArrayList<>(ids);
+        Collections.shuffle(shuffled, random);
+        this.productIds = shuffled.stream().mapToLong(Long::longValue).toArray();
+        this.searchTerms = terms.toArray(new String[0]);
+        this.cumulative = new double[productIds.length];
+        double sum = 0;
+        for (int rank = 0; rank < productIds.length; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, zipfExponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < cumulative.length; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    public static Catalog load(String productsJson, double zipfExponent, long seed) throws IOException {
+        JsonNode products = new ObjectMapper().readTree(productsJson);
+        List<Long> ids = new ArrayList<>();
+        List<String> terms = new ArrayList<>();
+        for (JsonNode product : products) {
+            ids.add(product.path("id").asLong());
+            String name = product.path("name").asText("");
+            String firstWord = name.split("\\s+")[0];
+            if (firstWord.length() >= 3) {
+                terms.add(firstWord.toLowerCase());
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("The catalog is empty; seed some products before load testing");
+        }
+        return new Catalog(ids, terms, zipfExponent, new Random(seed));
+    }
+
+    public int size() {
+        return productIds.length;
+    }
+
+    public long pickProduct(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return productIds[Math.min(index, productIds.length - 1)];
+    }
+
+    public String pickSearchTerm(Random random) {
+        if (searchTerms.length == 0) {
+            return "a";
+        }
+        String term = searchTerms[random.nextInt(searchTerms.length)];
+        // Users rarely type the full word before searching.
+        return term.substring(0, Math.min(term.length(), 3 + random.nextInt(term.length() - 2)));
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.klu.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and outcome counters per endpoint. Samples are only kept once recording
+ * has been switched on, so warmup traffic does not skew the report.
+ */
+public class EndpointStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    public void startRecording() {
+        recording = true;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    public void record(String endpoint, long latencyNanos, int status) {
+        if (!recording) {
+            return;
+        }
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.latency.recordValue(Math.min(MAX_LATENCY_MICROS, Math.max(1, latencyNanos / 1000)));
+        if (status >= 200 && status < 300) {
+            stats.ok.increment();
+        } else {
+            stats.errors.increment();
+        }
+    }
+
+    public void recordFailure(String endpoint) {
+        if (recording) {
+            endpoints.computeIfAbsent(endpoint, name -> new Endpoint()).failures.increment();
+        }
+    }
+
+    public long totalRequests() {
+        long total = 0;
+        for (Endpoint endpoint : endpoints.values()) {
+            total += endpoint.latency.getTotalCount();
+        }
+        return total;
+    }
+
+    public void printReport(double measuredSeconds) {
+        System.out.printf("%n%-28s %8s %9s %8s %8s %8s %8s %8s %7s %7s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "non2xx", "failed");
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Histogram histogram = entry.getValue().latency.copy();
+            System.out.printf("%-28s %8d %9.1f %8.1f %8.1f %8.1f %8.1f %8.1f %7d %7d%n",
+                    entry.getKey(),
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / measuredSeconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    entry.getValue().errors.sum(),
+                    entry.getValue().failures.sum());
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.klu.loadgen;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class LoadConfig {
+
+    private String baseUrl = "http://localhost:2000/api";
+    private double rate = 5;
+    private int durationSeconds = 60;
+    private int warmupSeconds = 10;
+    private long firstUserId = 1;
+    private long lastUserId = 50;
+    private double checkoutProbability = 0.3;
+    private long thinkTimeMillis = 500;
+    private long timeoutMillis = 10_000;
+    private double zipfExponent = 1.1;
+    private long seed = System.nanoTime();
+
+    public static LoadConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                printUsage();
+                System.exit(0);
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadConfig config = new LoadConfig();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String value = entry.getValue();
+            switch (entry.getKey()) {
+                case "base-url" -> config.baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "rate" -> config.rate = Double.parseDouble(value);
+                case "duration" -> config.durationSeconds = Integer.parseInt(value);
+                case "warmup" -> config.warmupSeconds = Integer.parseInt(value);
+                case "users" -> {
+                    int dash = value.indexOf('-');
+                    config.firstUserId = Long.parseLong(dash < 0 ? value : value.substring(0, dash));
+                    config.lastUserId = Long.parseLong(dash < 0 ? value : value.substring(dash + 1));
+                }
+                case "checkout-probability" -> config.checkoutProbability = Double.parseDouble(value);
+                case "think-time" -> config.thinkTimeMillis = Long.parseLong(value);
+                case "timeout" -> config.timeoutMillis = Long.parseLong(value);
+                case "zipf" -> config.zipfExponent = Double.parseDouble(value);
+                case "seed" -> config.seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + entry.getKey());
+            }
+        }
+        if (config.rate <= 0 || config.durationSeconds <= config.warmupSeconds || config.lastUserId < config.firstUserId) {
+            throw new IllegalArgumentException("Need rate > 0, duration > warmup and a non-empty user range");
+        }
+        return config;
+    }
+
+    static void printUsage() {
+        System.out.println("""
+                Usage: java -jar ecommerce-loadgen.jar [options]
+
+                  --base-url=URL              API root (default http://localhost:2000/api)
+                  --rate=N                    new shopper journeys per second, open model (default 5)
+                  --duration=SECONDS          total run time including warmup (default 60)
+                  --warmup=SECONDS            leading seconds excluded from the report (default 10)
+                  --users=FIRST-LAST          existing user ids to shop as (default 1-50)
+                  --checkout-probability=P    share of journeys that place an order (default 0.3)
+                  --think-time=MILLIS         mean pause between journey steps (default 500)
+                  --timeout=MILLIS            per-request timeout (default 10000)
+                  --zipf=S                    product popularity skew (default 1.1)
+                  --seed=N                    random seed
+                """);
+    }
+
+    public String getBaseUrl() { return baseUrl; }
+    public double getRate() { return rate; }
+    public int getDurationSeconds() { return durationSeconds; }
+    public int getWarmupSeconds() { return warmupSeconds; }
+    public long getFirstUserId() { return firstUserId; }
+    public long getLastUserId() { return lastUserId; }
+    public double getCheckoutProbability() { return checkoutProbability; }
+    public long getThinkTimeMillis() { return thinkTimeMillis; }
+    public long getTimeoutMillis() { return timeoutMillis; }
+    public double getZipfExponent() { return zipfExponent; }
+    public long getSeed() { return seed; }
+}
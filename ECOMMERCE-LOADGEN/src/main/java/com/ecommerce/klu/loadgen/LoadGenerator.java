@@ -0,0 +1,90 @@
+package com.ecommerce.klu.loadgen;
+
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: shopper journeys start on a Poisson schedule at the configured
+ * rate whether or not earlier journeys have finished, so a slow server builds up concurrency
+ * instead of quietly lowering the offered load (no coordinated omission).
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config;
+        try {
+            config = LoadConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            LoadConfig.printUsage();
+            System.exit(2);
+            return;
+        }
+
+        EndpointStats stats = new EndpointStats();
+        ApiClient api = new ApiClient(config, stats);
+
+        HttpResponse<String> products = api.get("GET /products", "/products");
+        if (products == null || products.statusCode() != 200) {
+            System.err.println("Could not load the catalog from " + config.getBaseUrl() + "/products");
+            System.exit(1);
+            return;
+        }
+        Catalog catalog = Catalog.load(products.body(), config.getZipfExponent(), config.getSeed());
+
+        System.out.printf("Target %s, %.1f journeys/s for %ds (%ds warmup), %d products, users %d-%d%n",
+                config.getBaseUrl(), config.getRate(), config.getDurationSeconds(), config.getWarmupSeconds(),
+                catalog.size(), config.getFirstUserId(), config.getLastUserId());
+
+        AtomicLong started = new AtomicLong();
+        AtomicLong running = new AtomicLong();
+        ShopperJourney journey = new ShopperJourney(api, catalog, config);
+
+        long start = System.nanoTime();
+        long warmupEnd = start + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long end = start + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        long nextProgress = start + TimeUnit.SECONDS.toNanos(10);
+        long measuredStart = warmupEnd;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ArrivalSchedule arrivals = new ArrivalSchedule(config.getRate(), config.getSeed(), start);
+            while (arrivals.peek() < end) {
+                long now = System.nanoTime();
+                if (now < arrivals.peek()) {
+                    LockSupport.parkNanos(arrivals.peek() - now);
+                    continue;
+                }
+                if (!stats.isRecording() && now >= warmupEnd) {
+                    stats.startRecording();
+                    measuredStart = now;
+                }
+                if (now >= nextProgress) {
+                    System.out.printf("[%3ds] journeys started=%d in-flight=%d requests recorded=%d%n",
+                            TimeUnit.NANOSECONDS.toSeconds(now - start), started.get(), running.get(),
+                            stats.totalRequests());
+                    nextProgress += TimeUnit.SECONDS.toNanos(10);
+                }
+
+                started.incrementAndGet();
+                running.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        journey.run();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                });
+                arrivals.advance();
+            }
+            System.out.printf("Arrivals finished, waiting for %d in-flight journeys%n", running.get());
+        }
+
+        double measuredSeconds = Math.max(1e-3, (end - measuredStart) / 1e9);
+        System.out.printf("%nJourneys started: %d, measured window: %.1fs%n", started.get(), measuredSeconds);
+        stats.printReport(measuredSeconds);
+    }
+}
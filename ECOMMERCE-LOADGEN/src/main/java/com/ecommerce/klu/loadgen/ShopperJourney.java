@@ -0,0 +1,76 @@
+package com.ecommerce.klu.loadgen;
+
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One shopper visit: browse the catalog, search, look at a few products, add some to the
+ * cart and, with the configured probability, check out and look at the order history.
+ */
+public class ShopperJourney implements Runnable {
+
+    private static final String[] PAYMENT_METHODS = {"CARD", "UPI", "COD"};
+
+    private final ApiClient api;
+    private final Catalog catalog;
+    private final LoadConfig config;
+
+    public ShopperJourney(ApiClient api, Catalog catalog, LoadConfig config) {
+        this.api = api;
+        this.catalog = catalog;
+        this.config = config;
+    }
+
+    @Override
+    public void run() {
+        Random random = ThreadLocalRandom.current();
+        long userId = config.getFirstUserId()
+                + random.nextLong(config.getLastUserId() - config.getFirstUserId() + 1);
+
+        if (random.nextDouble() < 0.5) {
+            api.get("GET /products", "/products");
+        } else {
+            String keyword = URLEncoder.encode(catalog.pickSearchTerm(random), StandardCharsets.UTF_8);
+            api.get("GET /products/search", "/products/search?keyword=" + keyword);
+        }
+        think(random);
+
+        int views = 1 + random.nextInt(4);
+        long lastViewed = -1;
+        for (int i = 0; i < views; i++) {
+            lastViewed = catalog.pickProduct(random);
+            api.get("GET /products/{id}", "/products/" + lastViewed);
+            think(random);
+        }
+
+        if (random.nextDouble() < 0.6) {
+            HttpResponse<String> added = api.post("POST /cart/add",
+                    "/cart/add?userId=" + userId + "&productId=" + lastViewed + "&quantity=" + (1 + random.nextInt(2)));
+            think(random);
+            if (added != null && added.statusCode() == 200 && random.nextDouble() < config.getCheckoutProbability()) {
+                api.post("POST /orders", "/orders?userId=" + userId
+                        + "&shippingAddress=" + URLEncoder.encode("42 Load Test Lane", StandardCharsets.UTF_8)
+                        + "&paymentMethod=" + PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)]);
+                think(random);
+                api.get("GET /orders/user/{id}", "/orders/user/" + userId + "?page=0&size=20");
+            }
+        }
+    }
+
+    private void think(Random random) {
+        long mean = config.getThinkTimeMillis();
+        if (mean <= 0) {
+            return;
+        }
+        long pause = (long) (-Math.log(1 - random.nextDouble()) * mean);
+        try {
+            TimeUnit.MILLISECONDS.sleep(Math.min(pause, mean * 10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.klu.loadgen;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArrivalScheduleTests {
+
+    @Test
+    void arrivalsAverageTheConfiguredRate() {
+        ArrivalSchedule schedule = new ArrivalSchedule(50, 7, 0);
+        int arrivals = 0;
+        while (schedule.peek() < TimeUnit.SECONDS.toNanos(200)) {
+            schedule.advance();
+            arrivals++;
+        }
+        // 10000 expected; a Poisson count's standard deviation is 100.
+        assertEquals(10_000, arrivals, 400);
+    }
+
+    @Test
+    void gapsAreExponentialRatherThanEvenlySpaced() {
+        ArrivalSchedule schedule = new ArrivalSchedule(100, 11, 0);
+        int samples = 20_000;
+        double sum = 0;
+        double sumOfSquares = 0;
+        int shorterThanHalfTheMean = 0;
+        long previous = schedule.advance();
+        for (int i = 0; i < samples; i++) {
+            long next = schedule.advance();
+            double gapMillis = (next - previous) / 1e6;
+            sum += gapMillis;
+            sumOfSquares += gapMillis * gapMillis;
+            if (gapMillis < 5) {
+                shorterThanHalfTheMean++;
+            }
+            previous = next;
+        }
+        double mean = sum / samples;
+        double deviation = Math.sqrt(sumOfSquares / samples - mean * mean);
+        assertEquals(10, mean, 0.3);
+        // For an exponential distribution the deviation equals the mean and
+        // P(gap < mean / 2) = 1 - e^-0.5, about 0.39.
+        assertEquals(1.0, deviation / mean, 0.05);
+        assertEquals(0.39, shorterThanHalfTheMean / (double) samples, 0.02);
+    }
+
+    @Test
+    void scheduleDependsOnlyOnRateAndSeed() {
+        ArrivalSchedule first = new ArrivalSchedule(5, 42, 1_000);
+        ArrivalSchedule second = new ArrivalSchedule(5, 42, 1_000);
+        assertEquals(1_000, first.peek());
+        for (int i = 0; i < 100; i++) {
+            long due = first.advance();
+            assertEquals(due, second.advance());
+            assertTrue(first.peek() >= due);
+        }
+    }
+}
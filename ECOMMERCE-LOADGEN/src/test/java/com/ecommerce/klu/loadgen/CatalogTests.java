@@ -0,0 +1,57 @@
+package com.ecommerce.klu.loadgen;
+
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogTests {
+
+    @Test
+    void productPicksFollowZipf() throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        for (int id = 1; id <= 100; id++) {
+            json.append(id > 1 ? "," : "").append("{\"id\":").append(id).append(",\"name\":\"Item ").append(id).append("\"}");
+        }
+        Catalog catalog = Catalog.load(json.append("]").toString(), 1.0, 3);
+        assertEquals(100, catalog.size());
+
+        Map<Long, Integer> picks = new HashMap<>();
+        Random random = new Random(5);
+        int total = 100_000;
+        for (int i = 0; i < total; i++) {
+            picks.merge(catalog.pickProduct(random), 1, Integer::sum);
+        }
+        int[] counts = picks.values().stream().mapToInt(Integer::intValue).sorted().toArray();
+        // With s = 1 over 100 products the top rank gets 1 / H(100), about 19%, and the
+        // second half of the ranks about 12% together.
+        double top = counts[counts.length - 1] / (double) total;
+        assertEquals(0.193, top, 0.01);
+        double secondRank = counts[counts.length - 2] / (double) total;
+        assertEquals(top / 2, secondRank, 0.01);
+        int tail = 0;
+        for (int i = 0; i < 50; i++) {
+            tail += counts[i];
+        }
+        assertEquals(0.13, tail / (double) total, 0.02);
+    }
+
+    @Test
+    void searchTermsArePrefixesOfProductNames() throws Exception {
+        Catalog catalog = Catalog.load("[{\"id\":1,\"name\":\"Keyboard wireless\"},{\"id\":2,\"name\":\"TV\"}]", 1.1, 1);
+        Random random = new Random(9);
+        for (int i = 0; i < 100; i++) {
+            String term = catalog.pickSearchTerm(random);
+            assertTrue(term.length() >= 3 && "keyboard".startsWith(term), term);
+        }
+    }
+
+    @Test
+    void emptyCatalogIsRejected() {
+        assertThrows(IllegalStateException.class, () -> Catalog.load("[]", 1.1, 1));
+    }
+}
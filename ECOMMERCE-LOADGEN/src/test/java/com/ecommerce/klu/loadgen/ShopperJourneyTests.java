@@ -0,0 +1,102 @@
+package com.ecommerce.klu.loadgen;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShopperJourneyTests {
+
+    private HttpServer server;
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> idempotencyKeys = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath()
+                    + (query != null ? "?" + query : ""));
+            if ("POST".equals(exchange.getRequestMethod())) {
+                idempotencyKeys.add(exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+            }
+            // No body: writing one separately from the headers trips Nagle's delay on every call.
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void journeysRunTheirStepsInShoppingOrder() throws Exception {
+        LoadConfig config = LoadConfig.parse(new String[] {
+                "--base-url=http://localhost:" + server.getAddress().getPort() + "/api/",
+                "--users=5-7", "--think-time=0", "--checkout-probability=1"});
+        EndpointStats stats = new EndpointStats();
+        stats.startRecording();
+        Catalog catalog = Catalog.load("[{\"id\":11,\"name\":\"Lamp\"},{\"id\":12,\"name\":\"Desk\"}]", 1.1, 1);
+        ShopperJourney journey = new ShopperJourney(new ApiClient(config, stats), catalog, config);
+
+        int journeys = 200;
+        int checkouts = 0;
+        for (int i = 0; i < journeys; i++) {
+            requests.clear();
+            journey.run();
+            List<String> steps = List.copyOf(requests);
+
+            assertTrue(steps.get(0).equals("GET /api/products") || steps.get(0).startsWith("GET /api/products/search?keyword="),
+                    steps.get(0));
+            int views = 0;
+            while (1 + views < steps.size() && steps.get(1 + views).matches("GET /api/products/1[12]")) {
+                views++;
+            }
+            assertTrue(views >= 1 && views <= 4, steps.toString());
+
+            List<String> rest = steps.subList(1 + views, steps.size());
+            if (rest.isEmpty()) {
+                continue;
+            }
+            assertTrue(rest.get(0).matches("POST /api/cart/add\\?userId=[5-7]&productId=1[12]&quantity=[12]"), rest.get(0));
+            // Every add succeeds here, so with a checkout probability of 1 every cart is ordered.
+            assertEquals(3, rest.size(), steps.toString());
+            String userId = rest.get(0).replaceAll(".*userId=(\\d+).*", "$1");
+            assertTrue(rest.get(1).startsWith("POST /api/orders?userId=" + userId + "&"), rest.get(1));
+            assertEquals("GET /api/orders/user/" + userId + "?page=0&size=20", rest.get(2));
+            checkouts++;
+        }
+        // About 60% of journeys add to the cart.
+        assertTrue(checkouts > journeys * 0.45 && checkouts < journeys * 0.75, "checkouts: " + checkouts);
+
+        assertEquals(2 * checkouts, idempotencyKeys.size());
+        assertEquals(idempotencyKeys.size(), idempotencyKeys.stream().distinct().count());
+        idempotencyKeys.forEach(key -> assertNotNull(key));
+        assertTrue(stats.totalRequests() > journeys * 2);
+    }
+
+    @Test
+    void configRejectsRunsWithoutAMeasuredWindow() {
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(new String[] {"--duration=10", "--warmup=10"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(new String[] {"--users=9-3"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(new String[] {"rate=5"}));
+        LoadConfig config = LoadConfig.parse(new String[] {"--users=3", "--rate=0.5"});
+        assertEquals(3, config.getFirstUserId());
+        assertEquals(3, config.getLastUserId());
+        assertFalse(config.getBaseUrl().endsWith("/"));
+    }
+}